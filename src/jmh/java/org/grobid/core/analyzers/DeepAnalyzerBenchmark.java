@@ -0,0 +1,59 @@
+package org.grobid.core.analyzers;
+
+import org.grobid.core.benchmark.BenchmarkFixtures;
+import org.grobid.core.layout.LayoutToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeepAnalyzerBenchmark {
+
+    private static final String LEGACY_REGEX = "(?<=[a-zA-Z])(?=\\d)|(?<=\\d)(?=\\D)";
+
+    private DeepAnalyzer analyzer;
+    private List<LayoutToken> tokens;
+
+    @Setup
+    public void setUp() {
+        analyzer = DeepAnalyzer.getInstance();
+        tokens = analyzer.tokenizeWithLayoutToken(BenchmarkFixtures.PARAGRAPH);
+    }
+
+    @Benchmark
+    public List<LayoutToken> tokenizeWithLayoutToken() {
+        return analyzer.tokenizeWithLayoutToken(BenchmarkFixtures.PARAGRAPH);
+    }
+
+    @Benchmark
+    public List<LayoutToken> retokenizeLayoutTokens() {
+        return analyzer.retokenizeLayoutTokens(tokens);
+    }
+
+    /**
+     * Baseline: the previous implementation, based on StringTokenizer and a regex split of each token
+     */
+    @Benchmark
+    public List<LayoutToken> retokenizeLayoutTokensLegacy() {
+        List<LayoutToken> result = new ArrayList<>();
+        for (LayoutToken token : tokens) {
+            int startingIndex = token.getOffset();
+            StringTokenizer st = new StringTokenizer(token.getText(), DeepAnalyzer.DELIMITERS, true);
+            while (st.hasMoreTokens()) {
+                for (String subtoken : st.nextToken().split(LEGACY_REGEX)) {
+                    LayoutToken theChunk = new LayoutToken(token);
+                    theChunk.setText(subtoken);
+                    theChunk.setOffset(startingIndex);
+                    startingIndex += subtoken.length();
+                    result.add(theChunk);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+package org.grobid.core.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import org.grobid.core.main.GrobidHomeFinder;
+import org.grobid.core.utilities.GrobidProperties;
+
+import java.io.File;
+
+/**
+ * Representative inputs shared by the benchmarks.
+ * <p>
+ * The benchmarks do not call any external service. The only requirement is the Grobid home, which is looked up
+ * in the `grobid.home` system property (default ../grobid-home) for the code paths relying on the lexicons.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String PARAGRAPH = "The discovery of superconductivity in MgB2 at 39 K and, later, in the iron-based " +
+        "La(O1-xFx)FeAs (x = 0.05-0.12) with Tc = 26 K has renewed the interest in layered materials. " +
+        "In this work we report the synthesis of Ba1-xKxFe2As2 single crystals by the self-flux method; " +
+        "the optimally doped sample (x = 0.4) shows a sharp transition at Tc ~ 38 K under ambient pressure, " +
+        "which increases up to 40.5 K at 1.5 GPa. Magnetization measurements on YBa2Cu3O7-δ thin films grown " +
+        "on SrTiO3 substrates confirm a critical temperature of 92 K, whereas the (Sr, Na)Fe2As2 compounds " +
+        "are superconducting below 35 K. The Hg-1223 cuprate reaches Tc = 164 K at 31 GPa, the highest value " +
+        "reported so far for a cuprate superconductor.";
+
+    public static final String[] FORMULAS = {
+        "La(O1-xFx)FeAs",
+        "Ba1-xKxFe2As2",
+        "YBa2Cu3O7-δ",
+        "(Sr, Na)Fe 2 As 2",
+        "Li x (NH 3 ) 1-x Fe 2 (Te x Se 1−x ) 2",
+        "Fe1-xCuyO2",
+        "(TMTTF) 2 PF 6",
+        "(Sr,K)-2222",
+        "La 2-x Sr x CuO 4",
+        "Bi2Sr2Ca1-xYxCu2O8+δ"
+    };
+
+    private static boolean grobidInitialised = false;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static synchronized void initGrobid() {
+        if (grobidInitialised) {
+            return;
+        }
+        String grobidHome = System.getProperty("grobid.home", "../grobid-home");
+        if (new File(grobidHome).exists()) {
+            GrobidProperties.getInstance(new GrobidHomeFinder(ImmutableList.of(grobidHome)));
+        }
+        grobidInitialised = true;
+    }
+}
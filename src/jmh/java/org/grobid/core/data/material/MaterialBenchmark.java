@@ -0,0 +1,65 @@
+package org.grobid.core.data.material;
+
+import org.grobid.core.benchmark.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MaterialBenchmark {
+
+    private Material materialWithVariables;
+    private Map<String, String> attributes;
+    private List<String> resolvedFormulas;
+
+    @Setup
+    public void setUp() {
+        materialWithVariables = new Material();
+        materialWithVariables.setFormula(new Formula("Li x (NH 3 ) y Fe 2 (Te z Se 1−z ) 2"));
+        materialWithVariables.getVariables().put("x", Arrays.asList("0.1", "0.2", "0.3"));
+        materialWithVariables.getVariables().put("y", Arrays.asList("0.05", "0.1"));
+        materialWithVariables.getVariables().put("z", Arrays.asList("0.2", "0.4", "0.6", "0.8"));
+        resolvedFormulas = Material.resolveVariables(materialWithVariables);
+
+        Material material = new Material();
+        material.setName("LaFeAsO");
+        material.setFormula(new Formula("La(O1-xFx)FeAs"));
+        material.setDoping("F");
+        material.setShape("single crystal");
+        material.setSubstrate("SrTiO3");
+        material.getVariables().put("x", Arrays.asList("0.05", "0.12"));
+        material.setResolvedFormulas(Arrays.asList(new Formula("La(O0.95F0.05)FeAs"), new Formula("La(O0.88F0.12)FeAs")));
+        material.setClazz("Oxides, Iron-pnictides");
+        attributes = Material.asAttributeMap(material, "material0");
+    }
+
+    @Benchmark
+    public List<String> resolveVariables() {
+        return Material.resolveVariables(materialWithVariables);
+    }
+
+    @Benchmark
+    public void expandFormula(Blackhole blackhole) {
+        for (String formula : BenchmarkFixtures.FORMULAS) {
+            blackhole.consume(Material.expandFormula(formula));
+        }
+    }
+
+    @Benchmark
+    public void parseCompositionLocally(Blackhole blackhole) {
+        for (String formula : resolvedFormulas) {
+            blackhole.consume(FormulaCompositionParser.parse(formula));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> toNestedAttributes() {
+        return Material.toNestedAttributes(attributes);
+    }
+}
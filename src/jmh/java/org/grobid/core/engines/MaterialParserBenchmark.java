@@ -0,0 +1,33 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.GrobidModels;
+import org.grobid.core.benchmark.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Post-processing of the formulas. The parser is created without model, class resolver and chemical material
+ * parser client, so no external service is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MaterialParserBenchmark {
+
+    private MaterialParser materialParser;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.initGrobid();
+        materialParser = new MaterialParser(GrobidModels.DUMMY, null, null);
+    }
+
+    @Benchmark
+    public void postProcessFormula(Blackhole blackhole) {
+        for (String formula : BenchmarkFixtures.FORMULAS) {
+            blackhole.consume(materialParser.postProcessFormula(formula));
+        }
+    }
+}
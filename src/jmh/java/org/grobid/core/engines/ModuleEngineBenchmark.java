@@ -0,0 +1,55 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.data.document.Span;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.grobid.core.engines.label.SuperconductorsTaggingLabels.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ModuleEngineBenchmark {
+
+    private static final String[] TYPES = {SUPERCONDUCTORS_MATERIAL_LABEL, SUPERCONDUCTORS_TC_VALUE_LABEL,
+        SUPERCONDUCTORS_PRESSURE_LABEL, SUPERCONDUCTORS_TC_LABEL};
+
+    // Number of spans in a passage, a long paragraph has a few dozens of them
+    @Param({"20", "200"})
+    public int spans;
+
+    private List<Span> spanList;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        spanList = new ArrayList<>();
+        int offset = 0;
+        for (int i = 0; i < spans; i++) {
+            // one span out of four overlaps with the previous one, as it happens between the NER and the quantities
+            int start = i % 4 == 3 ? offset - 3 : offset;
+            int length = 3 + random.nextInt(10);
+            String source = i % 2 == 0 ? SuperconductorsModels.SUPERCONDUCTORS.getModelName() : "quantities";
+            spanList.add(new Span(randomText(random, length), TYPES[random.nextInt(TYPES.length)], source,
+                start, start + length, i, i + 1));
+            offset = start + length + 1 + random.nextInt(20);
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public List<Span> pruneOverlappingAnnotations() {
+        return ModuleEngine.pruneOverlappingAnnotations(spanList);
+    }
+}
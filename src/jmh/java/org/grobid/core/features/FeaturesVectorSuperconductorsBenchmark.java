@@ -0,0 +1,60 @@
+package org.grobid.core.features;
+
+import org.grobid.core.analyzers.DeepAnalyzer;
+import org.grobid.core.benchmark.BenchmarkFixtures;
+import org.grobid.core.layout.LayoutToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.grobid.core.engines.SuperconductorsParser.NONE_CHEMSPOT_TYPE;
+
+/**
+ * Feature generation of a paragraph, as done by the superconductors parser before labelling
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeaturesVectorSuperconductorsBenchmark {
+
+    private List<LayoutToken> tokens;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.initGrobid();
+        tokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken(BenchmarkFixtures.PARAGRAPH);
+    }
+
+    @Benchmark
+    public String addFeaturesAndPrintVector() {
+        StringBuilder result = new StringBuilder();
+        LayoutToken previous = new LayoutToken();
+        for (LayoutToken token : tokens) {
+            String text = token.getText();
+            if (text.equals(" ") || text.equals("\n")) {
+                continue;
+            }
+            result.append(FeaturesVectorSuperconductors.addFeatures(token, null, previous, NONE_CHEMSPOT_TYPE).printVector());
+            result.append("\n");
+            previous = token;
+        }
+        return result.toString();
+    }
+
+    @Benchmark
+    public String appendVector() {
+        StringBuilder result = new StringBuilder();
+        LayoutToken previous = new LayoutToken();
+        for (LayoutToken token : tokens) {
+            String text = token.getText();
+            if (text.equals(" ") || text.equals("\n")) {
+                continue;
+            }
+            FeaturesVectorSuperconductors.appendVector(result, token, null, previous, NONE_CHEMSPOT_TYPE);
+            result.append("\n");
+            previous = token;
+        }
+        return result.toString();
+    }
+}
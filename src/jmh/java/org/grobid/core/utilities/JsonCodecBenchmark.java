@@ -0,0 +1,68 @@
+package org.grobid.core.utilities;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.grobid.core.benchmark.BenchmarkFixtures;
+import org.grobid.core.data.document.Span;
+import org.grobid.core.data.document.TextPassage;
+import org.grobid.core.data.document.Token;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialisation of the body of a linking request of 500 passages, with a new mapper for each request
+ * (as done before by the clients) and with the shared writer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonCodecBenchmark {
+
+    private static final int PASSAGES = 500;
+
+    private List<TextPassage> passages;
+
+    @Setup
+    public void setUp() {
+        passages = new ArrayList<>();
+        String text = BenchmarkFixtures.PARAGRAPH;
+        for (int i = 0; i < PASSAGES; i++) {
+            TextPassage passage = new TextPassage();
+            passage.setText(text);
+            passage.setType("paragraph");
+            passage.setSection("body");
+
+            List<Span> spans = new ArrayList<>();
+            spans.add(new Span("MgB2", "<material>", "superconductors", 39, 43, 14, 15));
+            spans.add(new Span("39 K", "<tcValue>", "superconductors", 47, 51, 17, 20));
+            spans.add(new Span("Ba1-xKxFe2As2", "<material>", "superconductors", 247, 260, 80, 81));
+            passage.setSpans(spans);
+
+            List<Token> tokens = new ArrayList<>();
+            int offset = 0;
+            for (String word : text.split(" ")) {
+                tokens.add(new Token(word, "TimesNewRoman", 10.0, "", offset, false, false));
+                offset += word.length() + 1;
+            }
+            passage.setTokens(tokens);
+            passages.add(passage);
+        }
+    }
+
+    @Benchmark
+    public byte[] newMapperPerRequest() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+        mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
+        return mapper.writeValueAsString(passages).getBytes("UTF-8");
+    }
+
+    @Benchmark
+    public byte[] sharedWriter() throws Exception {
+        return JsonCodec.TEXT_PASSAGES_WRITER.writeValueAsBytes(passages);
+    }
+}
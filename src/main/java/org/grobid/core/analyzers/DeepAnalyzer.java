@@ -1,13 +1,11 @@
 package org.grobid.core.analyzers;
 
-import org.apache.commons.lang3.StringUtils;
 import org.grobid.core.lang.Language;
 import org.grobid.core.layout.LayoutToken;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.StringTokenizer;
 
 /**
  * Tokenizer adequate for all Indo-European languages and special characters.
@@ -18,6 +16,8 @@ import java.util.StringTokenizer;
  * 1m74 ->  tokens.add(new LayoutToken("1"));
  * tokens.add(new LayoutToken("m"));
  * tokens.add(new LayoutToken("74"));
+ * <p>
+ * The text is split in a single pass, the delimiters being looked up in a bitset.
  *
  * @author Patrice Lopez
  */
@@ -45,21 +45,71 @@ public class DeepAnalyzer implements Analyzer {
     }
 
     public static final String DELIMITERS = " \n\r\t\f\u00A0([^%‰°•⋅·,:;?.!/)-–−‐=≈~∼<>+\"“”‘’'`#$]*\u2666\u2665\u2663\u2660\u00A0";
-    private static final String REGEX = "(?<=[a-zA-Z])(?=\\d)|(?<=\\d)(?=\\D)";
+
+    private static final BitSet DELIMITER_SET = new BitSet();
+
+    static {
+        for (int i = 0; i < DELIMITERS.length(); i++) {
+            DELIMITER_SET.set(DELIMITERS.charAt(i));
+        }
+    }
+
+    /**
+     * Receives the boundaries of each token found in the text
+     */
+    private interface TokenHandler {
+        void onToken(String text, int start, int end);
+    }
 
     public String getName() {
         return "DeepAnalyzer";
     }
 
+    /**
+     * Split the text in a single pass: each delimiter is a token, and the sequences in between are split
+     * between an (ASCII) letter followed by a digit, and between a digit followed by a non-digit.
+     */
+    private static void scan(String text, TokenHandler handler) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (DELIMITER_SET.get(text.charAt(i))) {
+                handler.onToken(text, i, i + 1);
+                i++;
+                continue;
+            }
+
+            int start = i;
+            char previous = text.charAt(i);
+            i++;
+            while (i < length) {
+                char current = text.charAt(i);
+                if (DELIMITER_SET.get(current)) {
+                    break;
+                }
+                boolean currentDigit = isDigit(current);
+                if ((currentDigit && isAsciiLetter(previous)) || (!currentDigit && isDigit(previous))) {
+                    handler.onToken(text, start, i);
+                    start = i;
+                }
+                previous = current;
+                i++;
+            }
+            handler.onToken(text, start, i);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
     public List<String> tokenize(String text) {
         List<String> result = new ArrayList<>();
-        StringTokenizer st = new StringTokenizer(text, DELIMITERS, true);
-        while (st.hasMoreTokens()) {
-            String token = st.nextToken();
-            // in addition we split "letter" characters and digits
-            String[] subtokens = token.split(REGEX);
-            result.addAll(Arrays.asList(subtokens));
-        }
+        scan(text, (t, start, end) -> result.add(t.substring(start, end)));
 
         return result;
     }
@@ -70,20 +120,12 @@ public class DeepAnalyzer implements Analyzer {
 
     public List<LayoutToken> tokenizeWithLayoutToken(String text) {
         List<LayoutToken> result = new ArrayList<>();
-        StringTokenizer st = new StringTokenizer(text, DELIMITERS, true);
-        int offset = 0;
-        while (st.hasMoreTokens()) {
-            String token = st.nextToken();
-            // in addition we split "letter" characters and digits
-            String[] subtokens = token.split(REGEX);
-            for (int i = 0; i < subtokens.length; i++) {
-                LayoutToken layoutToken = new LayoutToken();
-                layoutToken.setText(subtokens[i]);
-                layoutToken.setOffset(offset);
-                offset += subtokens[i].length();
-                result.add(layoutToken);
-            }
-        }
+        scan(text, (t, start, end) -> {
+            LayoutToken layoutToken = new LayoutToken();
+            layoutToken.setText(t.substring(start, end));
+            layoutToken.setOffset(start);
+            result.add(layoutToken);
+        });
 
         return result;
     }
@@ -98,30 +140,26 @@ public class DeepAnalyzer implements Analyzer {
 
     public List<LayoutToken> retokenizeLayoutTokens(List<LayoutToken> tokens) {
         List<LayoutToken> result = new ArrayList<>();
-//        int idx = 0;
         for (LayoutToken token : tokens) {
-            result.addAll(tokenize(token, token.getOffset()));
-//            idx += StringUtils.length(token.getText());
+            tokenize(token, token.getOffset(), result);
         }
         return result;
     }
 
     public List<LayoutToken> tokenize(LayoutToken chunk, int startingIndex) {
         List<LayoutToken> result = new ArrayList<>();
-        String text = chunk.getText();
-        StringTokenizer st = new StringTokenizer(text, DELIMITERS, true);
-        while (st.hasMoreTokens()) {
-            String token = st.nextToken();
-            // in addition we split "letter" characters and digits
-            String[] subtokens = token.split(REGEX);
-            for (int i = 0; i < subtokens.length; i++) {
-                LayoutToken theChunk = new LayoutToken(chunk); // deep copy
-                theChunk.setText(subtokens[i]);
-                result.add(theChunk);
-                theChunk.setOffset(startingIndex);
-                startingIndex += StringUtils.length(theChunk.getText());
-            }
-        }
+        tokenize(chunk, startingIndex, result);
         return result;
     }
-}
\ No newline at end of file
+
+    private static void tokenize(LayoutToken chunk, int startingIndex, List<LayoutToken> result) {
+        String text = chunk.getText();
+        scan(text, (t, start, end) -> {
+            LayoutToken theChunk = new LayoutToken(chunk); // deep copy
+            // the text of the chunk is reused when it's not split
+            theChunk.setText(start == 0 && end == t.length() ? t : t.substring(start, end));
+            theChunk.setOffset(startingIndex + start);
+            result.add(theChunk);
+        });
+    }
+}
@@ -2,17 +2,14 @@ package org.grobid.core.data.document;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonGenerationException;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.QuoteMode;
 import org.grobid.core.data.SuperconEntry;
 import org.grobid.core.data.material.Formula;
 import org.grobid.core.engines.TabularDataEngine;
+import org.grobid.core.utilities.JsonCodec;
 import org.grobid.service.controller.AnnotationController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +39,9 @@ public class DocumentResponse {
 
     private List<Page> pages = new ArrayList<>();
 
+    // Time spent in each stage of the processing (ms), only when requested
+    private Map<String, Long> timings;
+
     public DocumentResponse() {
         passages = new ArrayList<>();
     }
@@ -82,6 +82,14 @@ public class DocumentResponse {
         return pages;
     }
 
+    public Map<String, Long> getTimings() {
+        return timings;
+    }
+
+    public void setTimings(Map<String, Long> timings) {
+        this.timings = timings;
+    }
+
     public String toCsv() {
         List<SuperconEntry> outputList = TabularDataEngine.computeTabularData(getPassages());
         List<List<String>> outputCSV = outputList.stream().map(SuperconEntry::toCsv).collect(Collectors.toList());
@@ -131,11 +139,7 @@ public class DocumentResponse {
 
     public static DocumentResponse fromJson(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<DocumentResponse>() {
-            });
+            return JsonCodec.DOCUMENT_RESPONSE_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
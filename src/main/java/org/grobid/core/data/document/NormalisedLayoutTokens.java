@@ -0,0 +1,66 @@
+package org.grobid.core.data.document;
+
+import org.grobid.core.analyzers.DeepAnalyzer;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.UnicodeUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Normalised view of the layout tokens of a passage, as used by the sequence labelling models: the text of each
+ * token is normalised ({@link UnicodeUtil#normaliseText(String)}) and the tokens are retokenized with the
+ * {@link DeepAnalyzer}. The original tokens are not modified.
+ * <p>
+ * Each normalised token keeps the index of the original token it has been obtained from.
+ */
+public class NormalisedLayoutTokens {
+
+    private final List<LayoutToken> layoutTokens;
+    private final int[] originalIndexes;
+
+    private NormalisedLayoutTokens(List<LayoutToken> layoutTokens, int[] originalIndexes) {
+        this.layoutTokens = layoutTokens;
+        this.originalIndexes = originalIndexes;
+    }
+
+    public static NormalisedLayoutTokens of(List<LayoutToken> originalTokens) {
+        List<LayoutToken> layoutTokens = new ArrayList<>(originalTokens.size());
+        int[] originalIndexes = new int[originalTokens.size()];
+
+        for (int i = 0; i < originalTokens.size(); i++) {
+            LayoutToken original = originalTokens.get(i);
+            LayoutToken normalised = new LayoutToken(original);
+            normalised.setText(UnicodeUtil.normaliseText(original.getText()));
+
+            for (LayoutToken subToken : DeepAnalyzer.getInstance().tokenize(normalised, normalised.getOffset())) {
+                if (layoutTokens.size() == originalIndexes.length) {
+                    originalIndexes = Arrays.copyOf(originalIndexes, originalIndexes.length * 2 + 1);
+                }
+                originalIndexes[layoutTokens.size()] = i;
+                layoutTokens.add(subToken);
+            }
+        }
+
+        return new NormalisedLayoutTokens(layoutTokens, originalIndexes);
+    }
+
+    /**
+     * The normalised tokens, they are shared between the stages and must not be modified
+     */
+    public List<LayoutToken> getLayoutTokens() {
+        return layoutTokens;
+    }
+
+    /**
+     * Return the index, in the original tokens, of the token the normalised token at the given index comes from
+     */
+    public int getOriginalIndex(int index) {
+        return originalIndexes[index];
+    }
+
+    public int size() {
+        return layoutTokens.size();
+    }
+}
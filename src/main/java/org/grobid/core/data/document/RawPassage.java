@@ -18,6 +18,9 @@ public class RawPassage {
 
     private String subSection;
 
+    // Computed on first use, shared by the stages processing the passage
+    private volatile NormalisedLayoutTokens normalisedTokens;
+
     public RawPassage(List<LayoutToken> layoutTokens, String section, String subSection) {
         this.layoutTokens = layoutTokens;
         this.section = section;
@@ -38,6 +41,19 @@ public class RawPassage {
 
     public void setLayoutTokens(List<LayoutToken> layoutTokens) {
         this.layoutTokens = layoutTokens;
+        this.normalisedTokens = null;
+    }
+
+    /**
+     * Return the normalised and retokenized view of the layout tokens, computed once for the passage
+     */
+    public NormalisedLayoutTokens getNormalisedTokens() {
+        NormalisedLayoutTokens result = normalisedTokens;
+        if (result == null) {
+            result = NormalisedLayoutTokens.of(layoutTokens);
+            normalisedTokens = result;
+        }
+        return result;
     }
 
     public String getText() {
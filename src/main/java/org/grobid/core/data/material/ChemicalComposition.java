@@ -13,6 +13,15 @@ public class ChemicalComposition {
 
     private String name;
 
+    public ChemicalComposition() {
+    }
+
+    public ChemicalComposition(ChemicalComposition other) {
+        this.composition = other.getComposition() != null ? new LinkedHashMap<>(other.getComposition()) : null;
+        this.formula = other.getFormula();
+        this.name = other.getName();
+    }
+
     public String getFormula() {
         return formula;
     }
@@ -0,0 +1,175 @@
+package org.grobid.core.data.material;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Local conversion formula -> composition, for the formulas made only of element symbols, numeric
+ * stoichiometry and (nested) parentheses or brackets with their multiplier, e.g. `Ba0.6K0.4Fe2As2`,
+ * `La(O0.9F0.1)FeAs`, `Li 0.1 (NH 3 ) 0.9 Fe 2 Se 2`. The spaces between the tokens are ignored.
+ * <p>
+ * The formulas with variables (x, δ), operations (1-x), dopants lists or unknown symbols are not handled and
+ * are left to the chemical material parser service, as well as the shorthand names of the families, written as
+ * an integer of 3 or more digits (e.g. `Bi2212`, `Y123`, `Hg1223`, `LaFeAsO1111`).
+ */
+public final class FormulaCompositionParser {
+
+    // Integer amounts with this number of digits are not stoichiometry but family names (Bi2212, Y123)
+    private static final int SHORTHAND_MIN_DIGITS = 3;
+
+    private static final Set<String> ELEMENTS = new HashSet<>(Arrays.asList(
+        "H", "He", "Li", "Be", "B", "C", "N", "O", "F", "Ne", "Na", "Mg", "Al", "Si", "P", "S", "Cl", "Ar", "K", "Ca",
+        "Sc", "Ti", "V", "Cr", "Mn", "Fe", "Co", "Ni", "Cu", "Zn", "Ga", "Ge", "As", "Se", "Br", "Kr", "Rb", "Sr", "Y",
+        "Zr", "Nb", "Mo", "Tc", "Ru", "Rh", "Pd", "Ag", "Cd", "In", "Sn", "Sb", "Te", "I", "Xe", "Cs", "Ba", "La", "Ce",
+        "Pr", "Nd", "Pm", "Sm", "Eu", "Gd", "Tb", "Dy", "Ho", "Er", "Tm", "Yb", "Lu", "Hf", "Ta", "W", "Re", "Os", "Ir",
+        "Pt", "Au", "Hg", "Tl", "Pb", "Bi", "Po", "At", "Rn", "Fr", "Ra", "Ac", "Th", "Pa", "U", "Np", "Pu", "Am", "Cm",
+        "Bk", "Cf", "Es", "Fm", "Md", "No", "Lr", "Rf", "Db", "Sg", "Bh", "Hs", "Mt", "Ds", "Rg", "Cn", "Nh", "Fl", "Mc",
+        "Lv", "Ts", "Og", "D"
+    ));
+
+    private FormulaCompositionParser() {
+    }
+
+    /**
+     * Parse the composition of the formula, the amounts are written without trailing zeros (e.g. `2`, `0.9`)
+     *
+     * @return the composition, or null when the formula cannot be handled locally
+     */
+    public static ChemicalComposition parse(String formula) {
+        if (StringUtils.isBlank(formula)) {
+            return null;
+        }
+
+        Map<String, BigDecimal> amounts = new Parser(formula).parse();
+        if (amounts == null || amounts.isEmpty()) {
+            return null;
+        }
+
+        Map<String, String> composition = new LinkedHashMap<>();
+        for (Map.Entry<String, BigDecimal> amount : amounts.entrySet()) {
+            if (amount.getValue().signum() <= 0) {
+                return null;
+            }
+            composition.put(amount.getKey(), amount.getValue().stripTrailingZeros().toPlainString());
+        }
+
+        ChemicalComposition chemicalComposition = new ChemicalComposition();
+        chemicalComposition.setFormula(StringUtils.trim(formula));
+        chemicalComposition.setComposition(composition);
+
+        return chemicalComposition;
+    }
+
+    private static class Parser {
+        private final String formula;
+        private int position = 0;
+
+        Parser(String formula) {
+            this.formula = formula;
+        }
+
+        /**
+         * Return the amount of each element, in the order of appearance, or null if the formula is not supported
+         */
+        Map<String, BigDecimal> parse() {
+            Deque<Map<String, BigDecimal>> groups = new ArrayDeque<>();
+            Deque<Character> closings = new ArrayDeque<>();
+            groups.push(new LinkedHashMap<>());
+
+            skipSpaces();
+            while (position < formula.length()) {
+                char c = formula.charAt(position);
+                if (c == '(' || c == '[') {
+                    groups.push(new LinkedHashMap<>());
+                    closings.push(c == '(' ? ')' : ']');
+                    position++;
+                } else if (c == ')' || c == ']') {
+                    if (closings.isEmpty() || closings.pop() != c) {
+                        return null;
+                    }
+                    position++;
+                    BigDecimal multiplier = readAmount();
+                    if (multiplier == null) {
+                        return null;
+                    }
+                    Map<String, BigDecimal> group = groups.pop();
+                    if (group.isEmpty()) {
+                        return null;
+                    }
+                    group.forEach((element, amount) -> groups.peek().merge(element, amount.multiply(multiplier), BigDecimal::add));
+                } else if (Character.isUpperCase(c)) {
+                    String element = readElement();
+                    if (element == null) {
+                        return null;
+                    }
+                    BigDecimal amount = readAmount();
+                    if (amount == null) {
+                        return null;
+                    }
+                    groups.peek().merge(element, amount, BigDecimal::add);
+                } else {
+                    return null;
+                }
+                skipSpaces();
+            }
+
+            return closings.isEmpty() ? groups.pop() : null;
+        }
+
+        private String readElement() {
+            char first = formula.charAt(position);
+            if (position + 1 < formula.length() && Character.isLowerCase(formula.charAt(position + 1))) {
+                String symbol = "" + first + formula.charAt(position + 1);
+                if (ELEMENTS.contains(symbol)) {
+                    position += 2;
+                    return symbol;
+                }
+            }
+            String symbol = String.valueOf(first);
+            if (ELEMENTS.contains(symbol)) {
+                position++;
+                return symbol;
+            }
+            return null;
+        }
+
+        /**
+         * Read the number following an element or a group, 1 when there is none, null when it's malformed or
+         * when it's the shorthand of a family of compounds
+         */
+        private BigDecimal readAmount() {
+            skipSpaces();
+            int start = position;
+            boolean decimalPoint = false;
+            while (position < formula.length()) {
+                char c = formula.charAt(position);
+                if (c >= '0' && c <= '9') {
+                    position++;
+                } else if (c == '.' && !decimalPoint && position > start) {
+                    decimalPoint = true;
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            if (position == start) {
+                return BigDecimal.ONE;
+            }
+            if (formula.charAt(position - 1) == '.') {
+                return null;
+            }
+            if (!decimalPoint && position - start >= SHORTHAND_MIN_DIGITS) {
+                return null;
+            }
+            return new BigDecimal(formula.substring(start, position));
+        }
+
+        private void skipSpaces() {
+            while (position < formula.length() && Character.isWhitespace(formula.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
@@ -4,8 +4,6 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.io.JsonStringEncoder;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.SetUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -14,6 +12,7 @@ import org.grobid.core.data.SuperconEntry;
 import org.grobid.core.data.document.Span;
 import org.grobid.core.layout.BoundingBox;
 import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.JsonCodec;
 import org.grobid.core.utilities.OffsetPosition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -623,9 +622,7 @@ public class Material {
 
         Map<String, String> output = new LinkedHashMap<>();
 
-        ObjectMapper m = new ObjectMapper();
-        Map<String, Object> mappedObject = m.convertValue(material, new TypeReference<Map<String, Object>>() {
-        });
+        Map<String, Object> mappedObject = JsonCodec.MAPPER.convertValue(material, JsonCodec.ATTRIBUTES_TYPE);
 
         output = linkedHashMapToString(mappedObject, "");
 
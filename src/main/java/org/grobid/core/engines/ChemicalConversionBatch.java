@@ -0,0 +1,116 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.data.material.ChemicalComposition;
+import org.grobid.core.data.material.Formula;
+import org.grobid.core.data.material.FormulaCompositionParser;
+import org.grobid.core.utilities.client.ChemicalMaterialParserClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Collects the formulas and the names which need to be converted by the chemical material parser,
+ * so that they can be resolved with a single bulk request for each type of conversion.
+ * <p>
+ * The results are scattered back into the {@link Formula} objects (formula -> composition) and to the
+ * registered callbacks (name -> formula). The actions depending on the conversions (e.g. the material
+ * class resolution) are registered via {@link #onResolved(Runnable)} and are run afterwards, in the
+ * same order as they were registered.
+ */
+public class ChemicalConversionBatch {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChemicalConversionBatch.class);
+
+    private final Map<String, List<Formula>> formulas = new LinkedHashMap<>();
+    private final Map<String, List<Consumer<ChemicalComposition>>> names = new LinkedHashMap<>();
+    private final List<Runnable> resolvedActions = new ArrayList<>();
+
+    /**
+     * Register a formula whose composition will be set once the batch is resolved
+     */
+    public void addFormula(String rawFormula, Formula formula) {
+        formulas.computeIfAbsent(rawFormula, k -> new ArrayList<>()).add(formula);
+    }
+
+    /**
+     * Register a name to be converted to formula, the callback receives the converted chemical composition
+     */
+    public void addName(String name, Consumer<ChemicalComposition> callback) {
+        names.computeIfAbsent(name, k -> new ArrayList<>()).add(callback);
+    }
+
+    /**
+     * Register an action to be run after the conversions have been resolved
+     */
+    public void onResolved(Runnable action) {
+        resolvedActions.add(action);
+    }
+
+    public boolean isEmpty() {
+        return formulas.isEmpty() && names.isEmpty() && resolvedActions.isEmpty();
+    }
+
+    /**
+     * Resolve all the conversions with one bulk request for each type, then run the registered actions.
+     * The formulas are first parsed locally by {@link FormulaCompositionParser}, only the ones it cannot handle
+     * are sent to the chemical material parser. When the client is null the remaining conversions are skipped.
+     */
+    public void resolve(ChemicalMaterialParserClient client) {
+        List<String> rawFormulas = new ArrayList<>();
+        for (Map.Entry<String, List<Formula>> entry : formulas.entrySet()) {
+            ChemicalComposition composition = FormulaCompositionParser.parse(entry.getKey());
+            if (composition != null) {
+                setComposition(entry.getValue(), composition);
+            } else {
+                rawFormulas.add(entry.getKey());
+            }
+        }
+        if (!formulas.isEmpty()) {
+            LOGGER.debug("Parsed locally " + (formulas.size() - rawFormulas.size()) + " formulas out of " + formulas.size() + ". ");
+        }
+
+        if (client != null) {
+            if (!rawFormulas.isEmpty()) {
+                List<ChemicalComposition> compositions = client.convertFormulasToCompositions(rawFormulas);
+                LOGGER.debug("Converted " + rawFormulas.size() + " formulas to composition in a single batch. ");
+
+                for (int i = 0; i < rawFormulas.size(); i++) {
+                    setComposition(formulas.get(rawFormulas.get(i)), orEmpty(compositions.get(i)));
+                }
+            }
+
+            if (!names.isEmpty()) {
+                List<String> rawNames = new ArrayList<>(names.keySet());
+                List<ChemicalComposition> compositions = client.convertNamesToFormulas(rawNames);
+                LOGGER.debug("Converted " + rawNames.size() + " names to formula in a single batch. ");
+
+                for (int i = 0; i < rawNames.size(); i++) {
+                    ChemicalComposition composition = orEmpty(compositions.get(i));
+                    for (Consumer<ChemicalComposition> callback : names.get(rawNames.get(i))) {
+                        callback.accept(composition);
+                    }
+                }
+            }
+        }
+
+        resolvedActions.forEach(Runnable::run);
+
+        formulas.clear();
+        names.clear();
+        resolvedActions.clear();
+    }
+
+    private static void setComposition(List<Formula> formulas, ChemicalComposition composition) {
+        for (Formula formula : formulas) {
+            formula.setFormulaComposition(composition.getComposition());
+        }
+    }
+
+    private static ChemicalComposition orEmpty(ChemicalComposition composition) {
+        return composition != null ? composition : new ChemicalComposition();
+    }
+}
@@ -0,0 +1,30 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.data.document.BiblioInfo;
+import org.grobid.core.data.document.Page;
+import org.grobid.core.data.document.TextPassage;
+import org.grobid.core.data.material.Formula;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Receives the parts of a document as soon as they are available, so that they can be written out without
+ * keeping the whole {@link org.grobid.core.data.document.DocumentResponse} in memory.
+ * <p>
+ * For a PDF document the bibliographic information and the pages come first, then the passages in the order
+ * of the document, and finally the materials aggregated at document level.
+ */
+public interface DocumentListener {
+
+    default void onBiblio(BiblioInfo biblio) {
+    }
+
+    default void onPages(List<Page> pages) {
+    }
+
+    void onPassage(TextPassage passage);
+
+    default void onAggregatedMaterials(Map<Formula, List<String>> aggregatedMaterials) {
+    }
+}
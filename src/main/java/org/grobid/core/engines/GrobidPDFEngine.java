@@ -69,14 +69,25 @@ public class GrobidPDFEngine {
      * In the following, we process the relevant textual content of the document
      * for refining the process based on structures, we need to filter
      * segment of interest (e.g. header, body, annex) and possibly apply
-     * the corresponding model to further filter by structure types
+     * the corresponding model to further filter by structure types.
+     * <p>
+     * Each block (title, abstract, keywords, body paragraph, figure caption, annex) is split in sentences
+     * and passed to the closure as soon as it's ready, while the following parts of the document are still
+     * being processed. The closure is called in the order of the document.
      */
     public static BiblioInfo processDocument(Document doc, GrobidAnalysisConfig config, Consumer<DocumentBlock> closure) {
         EngineParsers parsers = new EngineParsers();
 
-        List<DocumentBlock> documentBlocks = new ArrayList<>();
         BiblioInfo biblioInfo = new BiblioInfo();
 
+        // Documents without body produce no blocks, the header is still used for the bibliographic information
+        SortedSet<DocumentPiece> bodyDocumentParts = doc.getDocumentPart(SegmentationLabels.BODY);
+        Consumer<DocumentBlock> documentBlocks = documentBlock -> {
+            if (bodyDocumentParts != null) {
+                splitInSentences(documentBlock, closure);
+            }
+        };
+
         // from the header, we are interested in title, abstract and keywords
         SortedSet<DocumentPiece> headerDocumentParts = doc.getDocumentPart(SegmentationLabels.HEADER);
         if (headerDocumentParts != null) {
@@ -88,7 +99,7 @@ public class GrobidPDFEngine {
             // title
             List<LayoutToken> titleTokens = resHeader.getLayoutTokens(TaggingLabels.HEADER_TITLE);
             if (isNotEmpty(titleTokens)) {
-                documentBlocks.add(new DocumentBlock(normaliseAndCleanup(titleTokens), DocumentBlock.SECTION_HEADER,
+                documentBlocks.accept(new DocumentBlock(normaliseAndCleanup(titleTokens), DocumentBlock.SECTION_HEADER,
                     DocumentBlock.SUB_SECTION_TITLE
                 ));
                 biblioInfo.setTitle(resHeader.getTitle());
@@ -102,14 +113,14 @@ public class GrobidPDFEngine {
                 List<LayoutToken> restructuredLayoutTokens = abstractTokenPostProcessed.getRight();
 //                    addSpaceAtTheEnd(abstractTokens, restructuredLayoutTokens);
 
-                documentBlocks.add(new DocumentBlock(normaliseAndCleanup(restructuredLayoutTokens), DocumentBlock.SECTION_HEADER,
+                documentBlocks.accept(new DocumentBlock(normaliseAndCleanup(restructuredLayoutTokens), DocumentBlock.SECTION_HEADER,
                     DocumentBlock.SUB_SECTION_ABSTRACT));
             }
 
             // keywords
             List<LayoutToken> keywordTokens = resHeader.getLayoutTokens(TaggingLabels.HEADER_KEYWORD);
             if (isNotEmpty(keywordTokens)) {
-                documentBlocks.add(new DocumentBlock(normaliseAndCleanup(keywordTokens), DocumentBlock.SECTION_HEADER,
+                documentBlocks.accept(new DocumentBlock(normaliseAndCleanup(keywordTokens), DocumentBlock.SECTION_HEADER,
                     DocumentBlock.SUB_SECTION_KEYWORDS));
             }
 
@@ -146,7 +157,6 @@ public class GrobidPDFEngine {
         doc.setBibDataSets(resCitations);
         // we can process all the body, in the future figure and table could be the
         // object of more refined processing
-        SortedSet<DocumentPiece> bodyDocumentParts = doc.getDocumentPart(SegmentationLabels.BODY);
         if (bodyDocumentParts != null) {
             Pair<String, LayoutTokenization> featSeg = parsers.getFullTextParser().getBodyTextFeatured(doc, bodyDocumentParts);
 
@@ -197,7 +207,7 @@ public class GrobidPDFEngine {
                                 outputBodyLayoutTokens.addAll(normalisedLayoutTokens);
                             } else {
                                 if (isNotEmpty(outputBodyLayoutTokens)) {
-                                    documentBlocks.add(new DocumentBlock(normaliseAndCleanup(outputBodyLayoutTokens), DocumentBlock.SECTION_BODY,
+                                    documentBlocks.accept(new DocumentBlock(normaliseAndCleanup(outputBodyLayoutTokens), DocumentBlock.SECTION_BODY,
                                         DocumentBlock.SUB_SECTION_FIGURE, new ArrayList<>(), markersLayoutTokens));
                                     outputBodyLayoutTokens = new ArrayList<>();
                                     markersLayoutTokens = new ArrayList<>();
@@ -248,7 +258,7 @@ public class GrobidPDFEngine {
                                 //Since we merge sections and paragraphs, we avoid adding sections titles if
                                 // there is no text already in the same block
                                 if (isNotEmpty(outputBodyLayoutTokens)) {
-                                    documentBlocks.add(new DocumentBlock(normaliseAndCleanup(outputBodyLayoutTokens), DocumentBlock.SECTION_BODY,
+                                    documentBlocks.accept(new DocumentBlock(normaliseAndCleanup(outputBodyLayoutTokens), DocumentBlock.SECTION_BODY,
                                         DocumentBlock.SUB_SECTION_PARAGRAPH, new ArrayList<>(), markersLayoutTokens));
 
                                     outputBodyLayoutTokens = new ArrayList<>();
@@ -259,7 +269,7 @@ public class GrobidPDFEngine {
                                 if (isNewParagraph(previousCluster, normalisedLayoutTokens)) {
 
                                     if (isNotEmpty(outputBodyLayoutTokens)) {
-                                        documentBlocks.add(new DocumentBlock(normaliseAndCleanup(outputBodyLayoutTokens), DocumentBlock.SECTION_BODY,
+                                        documentBlocks.accept(new DocumentBlock(normaliseAndCleanup(outputBodyLayoutTokens), DocumentBlock.SECTION_BODY,
                                             DocumentBlock.SUB_SECTION_PARAGRAPH, new ArrayList<>(), markersLayoutTokens));
                                         outputBodyLayoutTokens = new ArrayList<>();
                                         markersLayoutTokens = new ArrayList<>();
@@ -274,7 +284,7 @@ public class GrobidPDFEngine {
                 }
 
                 if (isNotEmpty(outputBodyLayoutTokens)) {
-                    documentBlocks.add(new DocumentBlock(normaliseAndCleanup(outputBodyLayoutTokens), DocumentBlock.SECTION_BODY, "", new ArrayList<>(), markersLayoutTokens));
+                    documentBlocks.accept(new DocumentBlock(normaliseAndCleanup(outputBodyLayoutTokens), DocumentBlock.SECTION_BODY, "", new ArrayList<>(), markersLayoutTokens));
                 }
             }
             // we don't process references (although reference titles could be relevant)
@@ -289,113 +299,106 @@ public class GrobidPDFEngine {
                 if (annex != null) {
                     List<LayoutToken> restructuredLayoutTokens = annex.getRight();
 //                    addSpaceAtTheEnd(tokens, restructuredLayoutTokens);
-                    documentBlocks.add(new DocumentBlock(normaliseAndCleanup(restructuredLayoutTokens), DocumentBlock.SECTION_ANNEX,
+                    documentBlocks.accept(new DocumentBlock(normaliseAndCleanup(restructuredLayoutTokens), DocumentBlock.SECTION_ANNEX,
                         DocumentBlock.SUB_SECTION_PARAGRAPH, new ArrayList<>(), new ArrayList<>()));
                 }
             }
+        }
 
-            // Sentence splitting using reference, then remove them from the text
-
-            List<DocumentBlock> documentBlocksBySentences = new ArrayList<>();
-
-            documentBlocks.stream().forEach(documentBlock -> {
-
-                List<Pair<Integer, Integer>> markersExtremitiesAsIndex = new ArrayList<>();
-                List<OffsetPosition> markersPositionsAsOffsetsInText = new ArrayList<>();
-
-                String section = documentBlock.getSection();
-                String subSection = documentBlock.getSubSection();
-
-                if (isNotEmpty(documentBlock.getMarkers())) {
-                    try {
-                        // There are some cases where the markers are coming off not in order. We sort only if they are not sorted.
-                        List<List<LayoutToken>> sortedMarkersListByStartOffsets = documentBlock.getMarkers()
-                            .stream()
-                            .sorted(Comparator.comparingInt(AdditionalLayoutTokensUtil::getLayoutTokenListStartOffset))
-                            .collect(Collectors.toList());
-                        
-                        if (!sortedMarkersListByStartOffsets.equals(documentBlock.getMarkers())) {
-                            documentBlock.setMarkers(sortedMarkersListByStartOffsets);
-                        }
+        return biblioInfo;
+    }
 
-                        markersExtremitiesAsIndex = documentBlock
-                            .getMarkers()
-                            .stream()
-                            .map(markerLayoutTokens -> AdditionalLayoutTokensUtil.getExtremitiesAsIndex(documentBlock.getLayoutTokens(),
-                                AdditionalLayoutTokensUtil.getLayoutTokenListStartOffset(markerLayoutTokens),
-                                AdditionalLayoutTokensUtil.getLayoutTokenListEndOffset(markerLayoutTokens)))
-                            .filter(marker -> !(marker.getLeft() == 0 && marker.getRight() == documentBlock.getLayoutTokens().size()))
-                            .collect(Collectors.toList());
-                    } catch (IllegalArgumentException e) {
-                        markersExtremitiesAsIndex = new ArrayList<>();
-                    }
-                    if (markersExtremitiesAsIndex.size() > 1) {
-                        // We need to adjust overlapping markers. If the greater index of i is > lower index of i+1, 
-                        // we reduce the greater index to do not overlap the following 
-                        for (int i = 0; i < markersExtremitiesAsIndex.size() - 1; i++) {
-                            if (markersExtremitiesAsIndex.get(i).getRight() > markersExtremitiesAsIndex.get(i + 1).getLeft()) {
-                                markersExtremitiesAsIndex.set(i, Pair.of(markersExtremitiesAsIndex.get(i).getLeft(), markersExtremitiesAsIndex.get(i + 1).getLeft()));
-                            }
-                        }
-                    }
+    /**
+     * Split the block in sentences, using the reference markers, which are then removed from the text
+     */
+    private static void splitInSentences(DocumentBlock documentBlock, Consumer<DocumentBlock> closure) {
+        List<Pair<Integer, Integer>> markersExtremitiesAsIndex = new ArrayList<>();
+        List<OffsetPosition> markersPositionsAsOffsetsInText = new ArrayList<>();
 
-                    markersPositionsAsOffsetsInText = getMarkersAsOffsets(documentBlock, markersExtremitiesAsIndex);
+        String section = documentBlock.getSection();
+        String subSection = documentBlock.getSubSection();
+
+        if (isNotEmpty(documentBlock.getMarkers())) {
+            try {
+                // There are some cases where the markers are coming off not in order. We sort only if they are not sorted.
+                List<List<LayoutToken>> sortedMarkersListByStartOffsets = documentBlock.getMarkers()
+                    .stream()
+                    .sorted(Comparator.comparingInt(AdditionalLayoutTokensUtil::getLayoutTokenListStartOffset))
+                    .collect(Collectors.toList());
+                
+                if (!sortedMarkersListByStartOffsets.equals(documentBlock.getMarkers())) {
+                    documentBlock.setMarkers(sortedMarkersListByStartOffsets);
                 }
 
-                List<Pair<Integer, Integer>> indexesPairs = getSentencesOffsetsAsIndexes(documentBlock, markersPositionsAsOffsetsInText);
-
-                int cumulatedIndexes = 0;
-                for (Pair<Integer, Integer> pair : indexesPairs) {
-                    DocumentBlock newDocumentBlock = new DocumentBlock(documentBlock);
-                    List<LayoutToken> sentenceTokens = documentBlock.getLayoutTokens().subList(pair.getLeft(), pair.getRight());
-                    final Integer cumulatedIndexes_ = cumulatedIndexes;
-                    List<Integer> indexesContainingReferenceMarkers = markersExtremitiesAsIndex.stream()
-                        .filter(m -> m.getLeft() > cumulatedIndexes_ && m.getRight() <= cumulatedIndexes_ + sentenceTokens.size())
-                        .flatMap(p -> IntStream.range(p.getLeft(), p.getRight()).boxed().collect(Collectors.toList()).stream())
-                        .collect(Collectors.toList());
-
-                    cumulatedIndexes += sentenceTokens.size();
-
-                    //We remove the markers from the layout token list 
-                    if (CollectionUtils.isNotEmpty(indexesContainingReferenceMarkers)) {
-                        final List<LayoutToken> newSentenceTokens = new ArrayList<>();
-                        IntStream.range(0, sentenceTokens.size())
-                            .forEach(index -> {
-                                if (!indexesContainingReferenceMarkers.contains(index)) {
-                                    newSentenceTokens.add(sentenceTokens.get(index));
-                                }
-                            });
-
-                        // Correcting offsets after having removed certain tokens
-                        IntStream
-                            .range(1, newSentenceTokens.size())
-                            .forEach(i -> {
-                                int expectedFollowingOffset = newSentenceTokens.get(i - 1).getOffset()
-                                    + StringUtils.length(newSentenceTokens.get(i - 1).getText());
-
-                                if (expectedFollowingOffset != newSentenceTokens.get(i).getOffset()) {
-                                    LOGGER.trace("Correcting offsets " + i + " from " + newSentenceTokens.get(i).getOffset() + " to " + expectedFollowingOffset);
-                                    newSentenceTokens.get(i).setOffset(expectedFollowingOffset);
-                                }
-                            });
-
-                        newDocumentBlock.setLayoutTokens(newSentenceTokens);
-                    } else {
-                        newDocumentBlock.setLayoutTokens(sentenceTokens);
+                markersExtremitiesAsIndex = documentBlock
+                    .getMarkers()
+                    .stream()
+                    .map(markerLayoutTokens -> AdditionalLayoutTokensUtil.getExtremitiesAsIndex(documentBlock.getLayoutTokens(),
+                        AdditionalLayoutTokensUtil.getLayoutTokenListStartOffset(markerLayoutTokens),
+                        AdditionalLayoutTokensUtil.getLayoutTokenListEndOffset(markerLayoutTokens)))
+                    .filter(marker -> !(marker.getLeft() == 0 && marker.getRight() == documentBlock.getLayoutTokens().size()))
+                    .collect(Collectors.toList());
+            } catch (IllegalArgumentException e) {
+                markersExtremitiesAsIndex = new ArrayList<>();
+            }
+            if (markersExtremitiesAsIndex.size() > 1) {
+                // We need to adjust overlapping markers. If the greater index of i is > lower index of i+1, 
+                // we reduce the greater index to do not overlap the following 
+                for (int i = 0; i < markersExtremitiesAsIndex.size() - 1; i++) {
+                    if (markersExtremitiesAsIndex.get(i).getRight() > markersExtremitiesAsIndex.get(i + 1).getLeft()) {
+                        markersExtremitiesAsIndex.set(i, Pair.of(markersExtremitiesAsIndex.get(i).getLeft(), markersExtremitiesAsIndex.get(i + 1).getLeft()));
                     }
-                    newDocumentBlock.setSection(section);
-                    newDocumentBlock.setSubSection(subSection);
-                    documentBlocksBySentences.add(newDocumentBlock);
                 }
-            });
-
+            }
 
-            // process
-            IntStream.range(0, documentBlocksBySentences.size())
-                .forEach(i -> closure.accept(documentBlocksBySentences.get(i)));
+            markersPositionsAsOffsetsInText = getMarkersAsOffsets(documentBlock, markersExtremitiesAsIndex);
         }
 
-        return biblioInfo;
+        List<Pair<Integer, Integer>> indexesPairs = getSentencesOffsetsAsIndexes(documentBlock, markersPositionsAsOffsetsInText);
+
+        int cumulatedIndexes = 0;
+        for (Pair<Integer, Integer> pair : indexesPairs) {
+            DocumentBlock newDocumentBlock = new DocumentBlock(documentBlock);
+            List<LayoutToken> sentenceTokens = documentBlock.getLayoutTokens().subList(pair.getLeft(), pair.getRight());
+            final Integer cumulatedIndexes_ = cumulatedIndexes;
+            List<Integer> indexesContainingReferenceMarkers = markersExtremitiesAsIndex.stream()
+                .filter(m -> m.getLeft() > cumulatedIndexes_ && m.getRight() <= cumulatedIndexes_ + sentenceTokens.size())
+                .flatMap(p -> IntStream.range(p.getLeft(), p.getRight()).boxed().collect(Collectors.toList()).stream())
+                .collect(Collectors.toList());
+
+            cumulatedIndexes += sentenceTokens.size();
+
+            //We remove the markers from the layout token list 
+            if (CollectionUtils.isNotEmpty(indexesContainingReferenceMarkers)) {
+                final List<LayoutToken> newSentenceTokens = new ArrayList<>();
+                IntStream.range(0, sentenceTokens.size())
+                    .forEach(index -> {
+                        if (!indexesContainingReferenceMarkers.contains(index)) {
+                            newSentenceTokens.add(sentenceTokens.get(index));
+                        }
+                    });
+
+                // Correcting offsets after having removed certain tokens
+                IntStream
+                    .range(1, newSentenceTokens.size())
+                    .forEach(i -> {
+                        int expectedFollowingOffset = newSentenceTokens.get(i - 1).getOffset()
+                            + StringUtils.length(newSentenceTokens.get(i - 1).getText());
+
+                        if (expectedFollowingOffset != newSentenceTokens.get(i).getOffset()) {
+                            LOGGER.trace("Correcting offsets " + i + " from " + newSentenceTokens.get(i).getOffset() + " to " + expectedFollowingOffset);
+                            newSentenceTokens.get(i).setOffset(expectedFollowingOffset);
+                        }
+                    });
+
+                newDocumentBlock.setLayoutTokens(newSentenceTokens);
+            } else {
+                newDocumentBlock.setLayoutTokens(sentenceTokens);
+            }
+            newDocumentBlock.setSection(section);
+            newDocumentBlock.setSubSection(subSection);
+            closure.accept(newDocumentBlock);
+        }
     }
 
     protected static List<Pair<Integer, Integer>> getSentencesOffsetsAsIndexes(DocumentBlock documentBlock, List<OffsetPosition> markersPositionsAsOffsetsInText) {
@@ -0,0 +1,193 @@
+package org.grobid.core.engines;
+
+import org.grobid.core.exceptions.GrobidException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces the labelling requests of concurrent callers: the passages are gathered until the batch reaches
+ * the maximum size, or the first passage has waited the maximum time, then they are labelled with a single call
+ * and the results are routed back to their callers.
+ * <p>
+ * The labeller receives the features of the passages and returns the labelled result of each of them, in the
+ * same order. When the number of results does not match, the requests of the batch are labelled separately.
+ */
+public class LabellingBatcher implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LabellingBatcher.class);
+
+    private final Function<List<String>, List<String>> labeller;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean closed = false;
+
+    // The request which did not fit in the previous batch
+    private Request carry = null;
+
+    public LabellingBatcher(String name, Function<List<String>, List<String>> labeller, int maxBatchSize, long maxWait, TimeUnit unit) {
+        this.labeller = labeller;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+
+        this.dispatcher = new Thread(this::dispatch, name + "-labelling-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Label the passages together with the ones of the concurrent callers, blocking until the result is available
+     *
+     * @return the labelled result of each passage, in the same order
+     */
+    public List<String> label(List<String> passages) {
+        if (passages.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (closed) {
+            throw new GrobidException("The labelling batcher has been closed. ");
+        }
+
+        Request request = new Request(passages);
+        queue.add(request);
+        if (closed && queue.remove(request)) {
+            throw new GrobidException("The labelling batcher has been closed. ");
+        }
+
+        try {
+            return request.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new GrobidException("Error when labelling the passages. ", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dispatcher.interrupt();
+    }
+
+    private void dispatch() {
+        try {
+            while (!closed) {
+                List<Request> batch;
+                try {
+                    batch = gather();
+                } catch (InterruptedException e) {
+                    break;
+                }
+                run(batch);
+            }
+        } catch (Throwable e) {
+            LOGGER.error("The labelling batcher stopped unexpectedly. ", e);
+        } finally {
+            // No more request is accepted, release the callers still waiting
+            closed = true;
+            List<Request> pending = new ArrayList<>();
+            if (carry != null) {
+                pending.add(carry);
+            }
+            queue.drainTo(pending);
+            pending.forEach(r -> r.result.completeExceptionally(new GrobidException("The labelling batcher has been closed. ")));
+        }
+    }
+
+    private List<Request> gather() throws InterruptedException {
+        Request first = carry != null ? carry : queue.take();
+        carry = null;
+
+        List<Request> batch = new ArrayList<>();
+        batch.add(first);
+        int size = first.passages.size();
+
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (size < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Request next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            if (size + next.passages.size() > maxBatchSize) {
+                carry = next;
+                break;
+            }
+            batch.add(next);
+            size += next.passages.size();
+        }
+
+        return batch;
+    }
+
+    private void run(List<Request> batch) {
+        if (batch.size() == 1) {
+            runSeparately(batch);
+            return;
+        }
+
+        List<String> passages = new ArrayList<>();
+        batch.forEach(r -> passages.addAll(r.passages));
+
+        List<String> results;
+        try {
+            results = labeller.apply(passages);
+        } catch (Throwable e) {
+            // Errors too (e.g. linkage error of the native library), the callers are waiting for the result
+            batch.forEach(r -> r.result.completeExceptionally(e));
+            return;
+        }
+
+        if (results.size() != passages.size()) {
+            LOGGER.warn("Labelling of " + batch.size() + " requests returned " + results.size() + " results for "
+                + passages.size() + " passages, labelling them separately. ");
+            runSeparately(batch);
+            return;
+        }
+
+        LOGGER.debug("Labelled " + passages.size() + " passages of " + batch.size() + " requests in a single call. ");
+        int offset = 0;
+        for (Request request : batch) {
+            int size = request.passages.size();
+            request.result.complete(new ArrayList<>(results.subList(offset, offset + size)));
+            offset += size;
+        }
+    }
+
+    private void runSeparately(List<Request> batch) {
+        for (Request request : batch) {
+            try {
+                request.result.complete(labeller.apply(request.passages));
+            } catch (Throwable e) {
+                request.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static class Request {
+        private final List<String> passages;
+        private final CompletableFuture<List<String>> result = new CompletableFuture<>();
+
+        Request(List<String> passages) {
+            this.passages = passages;
+        }
+    }
+}
@@ -7,7 +7,6 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.text.StringEscapeUtils;
 import org.grobid.core.GrobidModel;
 import org.grobid.core.analyzers.DeepAnalyzer;
-import org.grobid.core.data.material.ChemicalComposition;
 import org.grobid.core.data.material.Formula;
 import org.grobid.core.data.material.Material;
 import org.grobid.core.engines.label.TaggingLabel;
@@ -83,6 +82,18 @@ public class MaterialParser extends AbstractParser {
 
 
     public List<Material> process(List<LayoutToken> tokens) {
+        ChemicalConversionBatch batch = new ChemicalConversionBatch();
+        List<Material> entities = process(tokens, batch);
+        resolve(batch);
+
+        return entities;
+    }
+
+    /**
+     * Process the tokens deferring the conversions of formulas and names to the batch. The materials are
+     * complete only after the batch has been resolved, see {@link #resolve(ChemicalConversionBatch)}.
+     */
+    public List<Material> process(List<LayoutToken> tokens, ChemicalConversionBatch batch) {
 
         List<Material> entities = new ArrayList<>();
 
@@ -104,7 +115,7 @@ public class MaterialParser extends AbstractParser {
                 throw new GrobidException("CRF labeling for superconductors parsing failed.", e);
             }
 
-            List<Material> localEntities = extractResults(layoutTokensNormalised, res);
+            List<Material> localEntities = extractResults(layoutTokensNormalised, res, batch);
 
             entities.addAll(localEntities);
         } catch (Exception e) {
@@ -114,6 +125,13 @@ public class MaterialParser extends AbstractParser {
         return entities;
     }
 
+    /**
+     * Resolve all the conversions collected in the batch with the chemical material parser, using bulk requests
+     */
+    public void resolve(ChemicalConversionBatch batch) {
+        batch.resolve(chemicalMaterialParserClient);
+    }
+
 
     private String addFeatures(List<LayoutToken> tokens) {
         StringBuilder result = new StringBuilder();
@@ -176,6 +194,17 @@ public class MaterialParser extends AbstractParser {
      * Extract identified material from a labeled text.
      */
     public List<Material> extractResults(List<LayoutToken> tokens, String result) {
+        ChemicalConversionBatch batch = new ChemicalConversionBatch();
+        List<Material> extracted = extractResults(tokens, result, batch);
+        resolve(batch);
+
+        return extracted;
+    }
+
+    /**
+     * Extract identified material from a labeled text, the conversions of formulas and names are collected in the batch.
+     */
+    public List<Material> extractResults(List<LayoutToken> tokens, String result, ChemicalConversionBatch batch) {
         TaggingTokenClusteror clusteror = new TaggingTokenClusteror(SuperconductorsModels.MATERIAL, result, tokens);
         List<TaggingTokenCluster> clusters = clusteror.cluster();
 
@@ -246,10 +275,7 @@ public class MaterialParser extends AbstractParser {
                 }
                 String finalFormula = postProcessFormula(clusterContent);
                 Formula formula = new Formula(finalFormula);
-                if (chemicalMaterialParserClient != null) {
-                    ChemicalComposition chemicalComposition = chemicalMaterialParserClient.convertFormulaToComposition(finalFormula);
-                    formula.setFormulaComposition(chemicalComposition.getComposition());
-                }
+                batch.addFormula(finalFormula, formula);
 
                 currentMaterial.setFormula(formula);
                 currentMaterial.addOffset(new OffsetPosition(startPos, endPos));
@@ -383,9 +409,7 @@ public class MaterialParser extends AbstractParser {
                     .flatMap(f -> Material.expandFormula(f).stream())
                     .map(f -> {
                         Formula createdFormula = new Formula(f);
-                        if (chemicalMaterialParserClient != null) {
-                            createdFormula.setFormulaComposition(chemicalMaterialParserClient.convertFormulaToComposition(f).getComposition());
-                        }
+                        batch.addFormula(f, createdFormula);
                         return createdFormula;
                     })
                     .collect(Collectors.toList());
@@ -418,26 +442,27 @@ public class MaterialParser extends AbstractParser {
                 || StringUtils.isBlank(material.getFormula().getRawValue()))
                 && StringUtils.isNotBlank(material.getName())) {
                 if (chemicalMaterialParserClient != null) {
-                    ChemicalComposition convertedFormula = chemicalMaterialParserClient.convertNameToFormula(material.getName());
-                    Formula formula = null;
-                    if (isNotBlank(convertedFormula.getFormula())) {
-                        formula = new Formula(convertedFormula.getFormula());
-                        material.setFormula(formula);
-                    } 
-                    
-                    if (convertedFormula.getComposition().keySet().size() > 0) {
-                        if (formula == null) {
-                            formula = new Formula();
+                    batch.addName(material.getName(), convertedFormula -> {
+                        Formula formula = null;
+                        if (isNotBlank(convertedFormula.getFormula())) {
+                            formula = new Formula(convertedFormula.getFormula());
+                            material.setFormula(formula);
+                        }
+
+                        if (convertedFormula.getComposition().keySet().size() > 0) {
+                            if (formula == null) {
+                                formula = new Formula();
+                            }
+                            formula.setFormulaComposition(convertedFormula.getComposition());
+                            material.setFormula(formula);
                         }
-                        formula.setFormulaComposition(convertedFormula.getComposition());
-                        material.setFormula(formula);
-                    }                     
+                    });
                 }
             }
 
-            //This modifies the material object!
+            //This modifies the material object! It's run once the formula has been (eventually) calculated from the name
             if (materialClassResolver != null) {
-                materialClassResolver.process(material);
+                batch.onResolved(() -> materialClassResolver.process(material));
             }
         }
 
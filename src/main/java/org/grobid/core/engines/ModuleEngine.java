@@ -1,6 +1,10 @@
 package org.grobid.core.engines;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -19,14 +23,21 @@ import org.grobid.core.lang.Language;
 import org.grobid.core.layout.LayoutToken;
 import org.grobid.core.utilities.*;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.grobid.service.configuration.PipelineConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -40,9 +51,26 @@ import static org.grobid.core.engines.label.SuperconductorsTaggingLabels.*;
 import static org.grobid.core.engines.linking.CRFBasedLinker.*;
 
 @Singleton
-public class ModuleEngine {
+public class ModuleEngine implements Managed {
     private static final Logger LOGGER = LoggerFactory.getLogger(ModuleEngine.class);
 
+    // Stages of the processing, each one is timed in the metric registry
+    public static final String STAGE_SEGMENTATION = "segmentation";
+    public static final String STAGE_PDF_PARSING = "pdfParsing";
+    public static final String STAGE_NER = "ner";
+    // Sub-stages of the NER: chemical annotation (external services), Wapiti labelling, material parsing
+    public static final String STAGE_CHEMICAL_ANNOTATION = "ner.chemicalAnnotation";
+    public static final String STAGE_LABELLING = "ner.labelling";
+    public static final String STAGE_MATERIALS = "ner.materials";
+    public static final String STAGE_QUANTITIES = "quantities";
+    public static final String STAGE_RULE_LINKING = "ruleLinking";
+    public static final String STAGE_CRF_LINKING = "crfLinking";
+    public static final List<String> STAGES = Arrays.asList(STAGE_SEGMENTATION, STAGE_PDF_PARSING, STAGE_NER,
+        STAGE_CHEMICAL_ANNOTATION, STAGE_LABELLING, STAGE_MATERIALS, STAGE_QUANTITIES, STAGE_RULE_LINKING,
+        STAGE_CRF_LINKING);
+
+    private static final long STAGE_EXECUTOR_SHUTDOWN_SECONDS = 30;
+
     private EngineParsers parsers;
 
     private SuperconductorsParser superconductorsParser;
@@ -50,18 +78,46 @@ public class ModuleEngine {
     private RuleBasedLinker ruleBasedLinker;
     private CRFBasedLinker crfBasedLinker;
     private GrobidSuperconductorsConfiguration configuration;
+    private MetricRegistry metricRegistry;
+    private UploadSpooler uploadSpooler;
+
+    // Worker pools of the pipeline stages, shared by all the requests
+    private ExecutorService nerExecutor;
+    private ExecutorService quantitiesExecutor;
+    private ExecutorService ruleLinkingExecutor;
+    private ExecutorService crfLinkingExecutor;
+
+    // Workers running the CRF linkers of a batch concurrently
+    private ExecutorService crfLinkersExecutor;
 
     ModuleEngine(GrobidSuperconductorsConfiguration configuration, SuperconductorsParser superconductorsParser, QuantityParser quantityParser, RuleBasedLinker ruleBasedLinker, CRFBasedLinker CRFBasedLinker) {
+        this(configuration, superconductorsParser, quantityParser, ruleBasedLinker, CRFBasedLinker, new MetricRegistry());
+    }
+
+    ModuleEngine(GrobidSuperconductorsConfiguration configuration, SuperconductorsParser superconductorsParser, QuantityParser quantityParser, RuleBasedLinker ruleBasedLinker, CRFBasedLinker CRFBasedLinker, MetricRegistry metricRegistry) {
         this.superconductorsParser = superconductorsParser;
+        this.metricRegistry = metricRegistry;
         this.quantityParser = quantityParser;
         this.ruleBasedLinker = ruleBasedLinker;
         this.crfBasedLinker = CRFBasedLinker;
         this.configuration = configuration;
+        this.uploadSpooler = new UploadSpooler(configuration.getUpload());
+
+        PipelineConfiguration pipelineConfiguration = configuration.getPipeline();
+        if (pipelineConfiguration.isEnabled()) {
+            this.nerExecutor = newStageExecutor("ner", pipelineConfiguration.getNerThreads());
+            this.quantitiesExecutor = newStageExecutor("quantities", pipelineConfiguration.getQuantitiesThreads());
+            this.ruleLinkingExecutor = newStageExecutor("rule-linking", pipelineConfiguration.getRuleLinkingThreads());
+            this.crfLinkingExecutor = newStageExecutor("crf-linking", pipelineConfiguration.getCrfLinkingThreads());
+        }
+        if (pipelineConfiguration.getCrfLinkersThreads() > 0) {
+            this.crfLinkersExecutor = newStageExecutor("crf-linkers", pipelineConfiguration.getCrfLinkersThreads());
+        }
     }
 
     @Inject
-    public ModuleEngine(GrobidSuperconductorsConfiguration configuration, SuperconductorsParser superconductorsParser, RuleBasedLinker ruleBasedLinker, CRFBasedLinker CRFBasedLinker) {
-        this(configuration, superconductorsParser, QuantityParser.getInstance(true), ruleBasedLinker, CRFBasedLinker);
+    public ModuleEngine(GrobidSuperconductorsConfiguration configuration, SuperconductorsParser superconductorsParser, RuleBasedLinker ruleBasedLinker, CRFBasedLinker CRFBasedLinker, MetricRegistry metricRegistry) {
+        this(configuration, superconductorsParser, QuantityParser.getInstance(true), ruleBasedLinker, CRFBasedLinker, metricRegistry);
 
         parsers = new EngineParsers();
     }
@@ -194,6 +250,33 @@ public class ModuleEngine {
      * @return
      */
     public DocumentResponse process(String text, boolean disableLinking) {
+        return process(text, disableLinking, null);
+    }
+
+    /**
+     * Process a chunk of text, when timings is not null the time spent in each stage is recorded in the response
+     */
+    public DocumentResponse process(String text, boolean disableLinking, ProcessingTimings timings) {
+        return process(text, disableLinking, ResponseProfile.FULL, timings);
+    }
+
+    /**
+     * Process a chunk of text, with the given level of detail, see {@link ResponseProfile}
+     */
+    public DocumentResponse process(String text, boolean disableLinking, ResponseProfile profile, ProcessingTimings timings) {
+        DocumentResponse documentResponse = new DocumentResponse();
+        process(text, disableLinking, profile, timings, collector(documentResponse));
+        if (timings != null) {
+            documentResponse.setTimings(timings.asMillis());
+        }
+
+        return documentResponse;
+    }
+
+    /**
+     * Process a chunk of text, passing each passage to the listener as soon as it has been processed
+     */
+    public void process(String text, boolean disableLinking, ResponseProfile profile, ProcessingTimings timings, DocumentListener listener) {
         List<OffsetPosition> sentenceOffsets = SentenceUtilities.getInstance()
             .runSentenceDetection(text, new Language("en"));
 
@@ -203,14 +286,13 @@ public class ModuleEngine {
             .map(RawPassage::new)
             .collect(Collectors.toList());
 
-        List<TextPassage> textPassages = process(sentencesAsLayoutToken, disableLinking);
+        List<TextPassage> materialPassages = new ArrayList<>();
+        process(sentencesAsLayoutToken, disableLinking, profile, timings, passage -> {
+            materialPassages.add(materialSpansOf(passage));
+            listener.onPassage(passage);
+        });
 
-        DocumentResponse documentResponse = new DocumentResponse(textPassages);
-
-        Map<Formula, List<String>> aggregatedFormulaAtDocumentLevel = processFormulasAtDocumentLevel(documentResponse);
-        documentResponse.setAggregatedMaterials(aggregatedFormulaAtDocumentLevel);
-
-        return documentResponse;
+        listener.onAggregatedMaterials(processFormulasAtDocumentLevel(new DocumentResponse(materialPassages)));
     }
 
     private List<Span> getQuantities(List<LayoutToken> tokens) {
@@ -254,10 +336,67 @@ public class ModuleEngine {
     }
 
     public DocumentResponse process(InputStream uploadedInputStream, boolean disableLinking) {
+        return process(uploadedInputStream, disableLinking, null);
+    }
+
+    /**
+     * Process an uploaded PDF document, when timings is not null the time spent in each stage is recorded in the response.
+     * The upload is spooled to memory (tmpfs) or disk, depending on its size, see {@link UploadSpooler}
+     */
+    public DocumentResponse process(InputStream uploadedInputStream, boolean disableLinking, ProcessingTimings timings) {
+        return process(uploadedInputStream, disableLinking, ResponseProfile.FULL, timings);
+    }
+
+    /**
+     * Process an uploaded PDF document, with the given level of detail, see {@link ResponseProfile}
+     */
+    public DocumentResponse process(InputStream uploadedInputStream, boolean disableLinking, ResponseProfile profile, ProcessingTimings timings) {
+        File file = null;
+        try {
+            file = spool(uploadedInputStream);
+            return process(file, disableLinking, profile, timings);
+        } catch (IOException e) {
+            throw new GrobidException("Cannot read the uploaded file. ", e);
+        } finally {
+            IOUtilities.removeTempFile(file);
+        }
+    }
+
+    /**
+     * Spool an uploaded document to a temporary file, which must be removed by the caller, see {@link UploadSpooler}
+     */
+    public File spool(InputStream uploadedInputStream) throws IOException {
+        return uploadSpooler.spool(uploadedInputStream);
+    }
+
+    /**
+     * Process a PDF document, when timings is not null the time spent in each stage is recorded in the response
+     */
+    public DocumentResponse process(File pdfFile, boolean disableLinking, ProcessingTimings timings) {
+        return process(pdfFile, disableLinking, ResponseProfile.FULL, timings);
+    }
+
+    /**
+     * Process a PDF document, with the given level of detail, see {@link ResponseProfile}
+     */
+    public DocumentResponse process(File pdfFile, boolean disableLinking, ResponseProfile profile, ProcessingTimings timings) {
         DocumentResponse documentResponse = new DocumentResponse();
+        process(pdfFile, disableLinking, profile, timings, collector(documentResponse));
+        if (timings != null) {
+            documentResponse.setTimings(timings.asMillis());
+        }
+
+        return documentResponse;
+    }
+
+    /**
+     * Process a PDF document, passing the parts of the document to the listener as soon as they are available.
+     * The passages are passed in the order of the document, and they are not retained once passed to the listener.
+     */
+    public void process(File pdfFile, boolean disableLinking, ResponseProfile profile, ProcessingTimings timings, DocumentListener listener) {
+        StageRecorder recorder = getStageRecorder(timings);
 
         Document doc = null;
-        File file = null;
         int consolidateHeader = StringUtils.isNotEmpty(this.configuration.getConsolidation().service) ? 1 : 0;
 
         GrobidAnalysisConfig config =
@@ -267,12 +406,27 @@ public class ModuleEngine {
                 .withSentenceSegmentation(true)
                 .build();
 
+        // Only the material spans are kept for the aggregation at document level
+        List<TextPassage> materialPassages = new ArrayList<>();
+        Consumer<TextPassage> passageConsumer = passage -> {
+            materialPassages.add(materialSpansOf(passage));
+            listener.onPassage(passage);
+        };
+
         try {
-            file = IOUtilities.writeInputFile(uploadedInputStream);
             DocumentSource documentSource =
-                DocumentSource.fromPdf(file, config.getStartPage(), config.getEndPage());
+                DocumentSource.fromPdf(pdfFile, config.getStartPage(), config.getEndPage());
+            long segmentationStart = System.nanoTime();
             doc = parsers.getSegmentationParser().processing(documentSource, config);
+            recorder.record(STAGE_SEGMENTATION, System.nanoTime() - segmentationStart);
+
+            // When the pipeline is enabled, each passage enters the pipeline as soon as it's produced, so that the
+            // extraction of the first passages overlaps with the parsing of the rest of the document
+            PassagePipeline pipeline = configuration.getPipeline().isEnabled()
+                ? new PassagePipeline(this, configuration.getPipeline().getChunkSize(), disableLinking, profile, recorder)
+                : null;
 
+            long pdfParsingStart = System.nanoTime();
             final List<RawPassage> accumulatedSentences = new ArrayList<>();
             BiblioInfo biblioInfo = GrobidPDFEngine.processDocument(doc, config, (documentBlock) -> {
                 List<LayoutToken> cleanedLayoutTokens = documentBlock.getLayoutTokens().stream()
@@ -285,41 +439,170 @@ public class ModuleEngine {
                 List<LayoutToken> cleanedLayoutTokensRetokenized = DeepAnalyzer.getInstance()
                     .retokenizeLayoutTokens(cleanedLayoutTokens);
 
-                accumulatedSentences.add(new RawPassage(cleanedLayoutTokensRetokenized, documentBlock.getSection(), documentBlock.getSubSection()));
+                RawPassage passage = new RawPassage(cleanedLayoutTokensRetokenized, documentBlock.getSection(), documentBlock.getSubSection());
+                if (pipeline != null) {
+                    pipeline.submit(passage);
+                } else {
+                    accumulatedSentences.add(passage);
+                }
             });
+            recorder.record(STAGE_PDF_PARSING, System.nanoTime() - pdfParsingStart);
 
-            documentResponse.addParagraphs(process(accumulatedSentences, disableLinking));
-
-            List<Page> pages = doc.getPages().stream().map(p -> new Page(p.getHeight(), p.getWidth())).collect(Collectors.toList());
+            listener.onBiblio(biblioInfo);
+            listener.onPages(doc.getPages().stream().map(p -> new Page(p.getHeight(), p.getWidth())).collect(Collectors.toList()));
 
-            documentResponse.setPages(pages);
-            documentResponse.setBiblio(biblioInfo);
+            if (pipeline != null) {
+                updatePassagesHistogram(pipeline.getSubmitted());
+                pipeline.complete(passageConsumer);
+            } else {
+                process(accumulatedSentences, disableLinking, profile, timings).forEach(passageConsumer);
+            }
         } catch (Exception e) {
             throw new GrobidException("Cannot process input file. ", e);
-        } finally {
-            IOUtilities.removeTempFile(file);
         }
 
-        Map<Formula, List<String>> aggregatedFormulaAtDocumentLevel = processFormulasAtDocumentLevel(documentResponse);
-        documentResponse.setAggregatedMaterials(aggregatedFormulaAtDocumentLevel);
+        listener.onAggregatedMaterials(processFormulasAtDocumentLevel(new DocumentResponse(materialPassages)));
+    }
 
+    /**
+     * Listener filling a {@link DocumentResponse}
+     */
+    private static DocumentListener collector(DocumentResponse documentResponse) {
+        return new DocumentListener() {
+            @Override
+            public void onBiblio(BiblioInfo biblio) {
+                documentResponse.setBiblio(biblio);
+            }
 
-        return documentResponse;
+            @Override
+            public void onPages(List<Page> pages) {
+                documentResponse.setPages(pages);
+            }
+
+            @Override
+            public void onPassage(TextPassage passage) {
+                documentResponse.addParagraph(passage);
+            }
+
+            @Override
+            public void onAggregatedMaterials(Map<Formula, List<String>> aggregatedMaterials) {
+                documentResponse.setAggregatedMaterials(aggregatedMaterials);
+            }
+        };
+    }
+
+    /**
+     * Copy of the passage with only the spans used by {@link #processFormulasAtDocumentLevel(DocumentResponse)}
+     */
+    private static TextPassage materialSpansOf(TextPassage passage) {
+        TextPassage materialPassage = new TextPassage();
+        if (isNotEmpty(passage.getSpans())) {
+            materialPassage.setSpans(passage.getSpans().stream()
+                .filter(s -> s.getType().equals(SUPERCONDUCTORS_MATERIAL_LABEL) || s.getType().equals(SUPERCONDUCTORS_CLASS_LABEL))
+                .collect(Collectors.toList()));
+        }
+        return materialPassage;
     }
 
     public List<TextPassage> process(List<RawPassage> inputPassage, boolean disableLinking) {
+        return process(inputPassage, disableLinking, null);
+    }
 
-        List<List<LayoutToken>> accumulatedLayoutTokens = inputPassage.stream()
-            .map(RawPassage::getLayoutTokens)
-            .collect(Collectors.toList());
+    public List<TextPassage> process(List<RawPassage> inputPassage, boolean disableLinking, ProcessingTimings timings) {
+        return process(inputPassage, disableLinking, ResponseProfile.FULL, timings);
+    }
+
+    public List<TextPassage> process(List<RawPassage> inputPassage, boolean disableLinking, ResponseProfile profile, ProcessingTimings timings) {
+        List<TextPassage> outputList = new ArrayList<>();
+        process(inputPassage, disableLinking, profile, timings, outputList::add);
+
+        return outputList;
+    }
+
+    /**
+     * Process the passages, passing them to the consumer in the same order. When the pipeline is enabled each chunk
+     * is passed as soon as it has been processed, otherwise the passages are processed in a single batch.
+     */
+    void process(List<RawPassage> inputPassage, boolean disableLinking, ResponseProfile profile, ProcessingTimings timings, Consumer<TextPassage> consumer) {
+        updatePassagesHistogram(inputPassage.size());
+        StageRecorder recorder = getStageRecorder(timings);
+
+        if (!configuration.getPipeline().isEnabled()) {
+            processChunk(inputPassage, disableLinking, profile, recorder).forEach(consumer);
+            return;
+        }
+
+        PassagePipeline pipeline = new PassagePipeline(this, configuration.getPipeline().getChunkSize(), disableLinking, profile, recorder);
+        inputPassage.forEach(pipeline::submit);
+
+        pipeline.complete(consumer);
+    }
+
+    private void updatePassagesHistogram(int passages) {
+        metricRegistry.histogram(MetricRegistry.name(ModuleEngine.class, "passages")).update(passages);
+    }
+
+    /**
+     * Process a list of passages sequentially, each stage is applied on the whole list before moving to the next one
+     */
+    List<TextPassage> processChunk(List<RawPassage> inputPassage, boolean disableLinking, ResponseProfile profile, StageRecorder recorder) {
+        List<List<Span>> superconductorsList = extractEntities(inputPassage, recorder);
+        List<TextPassage> intermediateList = assemblePassages(inputPassage, superconductorsList,
+            isTokensNeeded(profile, disableLinking), recorder);
+
+        if (disableLinking) {
+            return intermediateList;
+        }
+
+        List<TextPassage> textPassagesWithLinks = linkWithRules(intermediateList, recorder);
+
+        return applyProfile(linkWithCRF(inputPassage, intermediateList, textPassagesWithLinks, recorder), profile);
+    }
+
+    /**
+     * The tokens are materialised when they are returned (full profile) or when they are needed by the rule-based linking
+     */
+    static boolean isTokensNeeded(ResponseProfile profile, boolean disableLinking) {
+        return profile == ResponseProfile.FULL || !disableLinking;
+    }
+
+    /**
+     * Remove the tokens which were needed only for the linking
+     */
+    static List<TextPassage> applyProfile(List<TextPassage> passages, ResponseProfile profile) {
+        if (profile == ResponseProfile.COMPACT) {
+            passages.forEach(p -> p.setTokens(new ArrayList<>()));
+        }
+        return passages;
+    }
 
-        List<List<Span>> superconductorsList = superconductorsParser.process(accumulatedLayoutTokens);
+    /**
+     * Stage 1: extract the entities with the superconductors model
+     */
+    List<List<Span>> extractEntities(List<RawPassage> inputPassage, StageRecorder recorder) {
+        return recorder.time(STAGE_NER, () -> {
+            // The normalised tokens are kept in the passages and reused by the CRF linking
+            List<NormalisedLayoutTokens> normalisedTokens = inputPassage.stream()
+                .map(RawPassage::getNormalisedTokens)
+                .collect(Collectors.toList());
+
+            return superconductorsParser.processNormalised(normalisedTokens, recorder);
+        });
+    }
+
+    /**
+     * Stage 2: extract the quantities and assemble the text passages with the pruned spans, and the tokens when withTokens is true
+     */
+    List<TextPassage> assemblePassages(List<RawPassage> inputPassage, List<List<Span>> superconductorsList, boolean withTokens, StageRecorder recorder) {
+        return recorder.time(STAGE_QUANTITIES, () -> assemblePassagesWithQuantities(inputPassage, superconductorsList, withTokens));
+    }
 
+    private List<TextPassage> assemblePassagesWithQuantities(List<RawPassage> inputPassage, List<List<Span>> superconductorsList, boolean withTokens) {
         List<TextPassage> intermediateList = new ArrayList<>();
 
         for (int index = 0; index < superconductorsList.size(); index++) {
             List<Span> rawSuperconductorsSpans = superconductorsList.get(index);
-            List<LayoutToken> tokens = accumulatedLayoutTokens.get(index);
+            List<LayoutToken> tokens = inputPassage.get(index).getLayoutTokens();
 
             // Re-calculate the offsets to be based on the current paragraph - TODO: investigate this mismatch
             List<Span> superconductorsSpans = rawSuperconductorsSpans.stream()
@@ -345,7 +628,9 @@ public class ModuleEngine {
             aggregatedSpans.addAll(quantitiesSpans);
 
             TextPassage textPassage = new TextPassage();
-            textPassage.setTokens(tokens.stream().map(Token::of).collect(Collectors.toList()));
+            if (withTokens) {
+                textPassage.setTokens(tokens.stream().map(Token::of).collect(Collectors.toList()));
+            }
             textPassage.setText(LayoutTokensUtil.toText(tokens));
 
             String section = inputPassage.get(index).getSection();
@@ -360,13 +645,28 @@ public class ModuleEngine {
             intermediateList.add(textPassage);
         }
 
-        if (disableLinking) {
-            return intermediateList;
-        }
+        return intermediateList;
+    }
 
-        List<TextPassage> outputList = new ArrayList<>();
+    /**
+     * Stage 3: apply the rule-based linking
+     */
+    List<TextPassage> linkWithRules(List<TextPassage> intermediateList, StageRecorder recorder) {
+        return recorder.time(STAGE_RULE_LINKING, () -> ruleBasedLinker.process(intermediateList));
+    }
+
+    /**
+     * Stage 4: apply the CRF linking and merge the links with the ones obtained by the rule-based linking
+     */
+    List<TextPassage> linkWithCRF(List<RawPassage> inputPassage, List<TextPassage> intermediateList,
+                                  List<TextPassage> textPassagesWithLinks, StageRecorder recorder) {
+        return recorder.time(STAGE_CRF_LINKING, () -> linkWithCRFModels(inputPassage, intermediateList, textPassagesWithLinks));
+    }
 
-        List<TextPassage> textPassagesWithLinks = ruleBasedLinker.process(intermediateList);
+    private List<TextPassage> linkWithCRFModels(List<RawPassage> inputPassage, List<TextPassage> intermediateList,
+                                                List<TextPassage> textPassagesWithLinks) {
+        List<NormalisedLayoutTokens> tokensBatch = new ArrayList<>();
+        List<List<Span>> spansBatch = new ArrayList<>();
 
         for (int i = 0; i < textPassagesWithLinks.size(); i++) {
             TextPassage textPassageWithLinks = textPassagesWithLinks.get(i);
@@ -387,42 +687,25 @@ public class ModuleEngine {
                     }
                 });
 
-            List<LayoutToken> tokens = accumulatedLayoutTokens.get(i);
-
-            Map<String, Span> resultMaterialTcValueLinkerCrf = crfBasedLinker.process(tokens, spansCopy, MATERIAL_TCVALUE_ID)
-                .parallelStream()
-                .filter(s -> crfBasedLinker.getLinkingEngines().get(MATERIAL_TCVALUE_ID).getAnnotationsToBeLinked().contains(s.getType()))
-                .filter(s -> isNotEmpty(s.getLinks()))
-                .collect(Collectors.toMap(Span::getId, Function.identity()));
+            tokensBatch.add(inputPassage.get(i).getNormalisedTokens());
+            spansBatch.add(spansCopy);
+        }
 
-            Map<String, Span> resultTcValuePressureLinkerCrf = crfBasedLinker.process(tokens, spansCopy, TCVALUE_PRESSURE_ID)
-                .parallelStream()
-                .filter(s -> crfBasedLinker.getLinkingEngines().get(TCVALUE_PRESSURE_ID).getAnnotationsToBeLinked().contains(s.getType()))
-                .filter(s -> isNotEmpty(s.getLinks()))
-                .collect(Collectors.toMap(Span::getId, Function.identity()));
+        // All the CRF linkers are run at once, sharing the normalised tokens, each one labelling all the passages in a single call
+        List<Map<String, List<Link>>> crfLinksBatch = crfLinkersExecutor != null
+            ? crfBasedLinker.processAllNormalised(tokensBatch, spansBatch, crfLinkersExecutor)
+            : crfBasedLinker.processAllNormalised(tokensBatch, spansBatch);
 
-            Map<String, Span> resultTcValueMeMethodLinkerCrf = crfBasedLinker.process(tokens, spansCopy, TCVALUE_ME_METHOD_ID)
-                .parallelStream()
-                .filter(s -> crfBasedLinker.getLinkingEngines().get(TCVALUE_ME_METHOD_ID).getAnnotationsToBeLinked().contains(s.getType()))
-                .filter(s -> isNotEmpty(s.getLinks()))
-                .collect(Collectors.toMap(Span::getId, Function.identity()));
+        List<TextPassage> outputList = new ArrayList<>();
+        for (int i = 0; i < textPassagesWithLinks.size(); i++) {
+            TextPassage textPassageWithLinks = textPassagesWithLinks.get(i);
+            Map<String, List<Link>> crfLinks = crfLinksBatch.get(i);
 
             // Merge
             textPassageWithLinks.getSpans()
                 .stream()
-                .forEach(s -> {
-                    if (resultMaterialTcValueLinkerCrf.containsKey(s.getId())) {
-                        s.getLinks().addAll(resultMaterialTcValueLinkerCrf.get(s.getId()).getLinks());
-                    }
-
-                    if (resultTcValuePressureLinkerCrf.containsKey(s.getId())) {
-                        s.getLinks().addAll(resultTcValuePressureLinkerCrf.get(s.getId()).getLinks());
-                    }
-
-                    if (resultTcValueMeMethodLinkerCrf.containsKey(s.getId())) {
-                        s.getLinks().addAll(resultTcValueMeMethodLinkerCrf.get(s.getId()).getLinks());
-                    }
-                });
+                .filter(s -> crfLinks.containsKey(s.getId()))
+                .forEach(s -> s.getLinks().addAll(crfLinks.get(s.getId())));
 
             outputList.add(textPassageWithLinks);
         }
@@ -430,6 +713,70 @@ public class ModuleEngine {
         return outputList;
     }
 
+    /**
+     * Return the timer of a stage of the processing, see {@link #STAGES}
+     */
+    public Timer getStageTimer(String stage) {
+        return metricRegistry.timer(MetricRegistry.name(ModuleEngine.class, stage));
+    }
+
+    /**
+     * Return a recorder updating the stage timers and, when not null, the timings of the request
+     */
+    StageRecorder getStageRecorder(ProcessingTimings timings) {
+        return (stage, elapsedNanos) -> {
+            getStageTimer(stage).update(elapsedNanos, TimeUnit.NANOSECONDS);
+            if (timings != null) {
+                timings.record(stage, elapsedNanos);
+            }
+        };
+    }
+
+    @Override
+    public void start() throws Exception {
+    }
+
+    /**
+     * Shut down the worker pools of the pipeline stages and of the CRF linkers, waiting a bounded time for the running tasks
+     */
+    @Override
+    public void stop() throws Exception {
+        List<ExecutorService> executors = Stream.of(nerExecutor, quantitiesExecutor, ruleLinkingExecutor, crfLinkingExecutor, crfLinkersExecutor)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        executors.forEach(ExecutorService::shutdown);
+        for (ExecutorService executor : executors) {
+            if (!executor.awaitTermination(STAGE_EXECUTOR_SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("The pipeline workers did not terminate in " + STAGE_EXECUTOR_SHUTDOWN_SECONDS + " seconds, interrupting them. ");
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    ExecutorService getNerExecutor() {
+        return nerExecutor;
+    }
+
+    ExecutorService getQuantitiesExecutor() {
+        return quantitiesExecutor;
+    }
+
+    ExecutorService getRuleLinkingExecutor() {
+        return ruleLinkingExecutor;
+    }
+
+    ExecutorService getCrfLinkingExecutor() {
+        return crfLinkingExecutor;
+    }
+
+    private static ExecutorService newStageExecutor(String stage, int threads) {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+            .setNameFormat("pipeline-" + stage + "-%d")
+            .setDaemon(true)
+            .build();
+
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
 
     public static String getFormattedString(List<LayoutToken> layoutTokens) {
         StringBuilder sb = new StringBuilder();
@@ -550,91 +897,81 @@ public class ModuleEngine {
      * - if they have the same type I take the one with the larger entity or the quantity model
      * - else if they have different type I take the one with the smaller entity size or the one from
      * the superconductors model
+     * The losers are removed by position in a single pass, distinct spans which are equal are handled separately.
      **/
     public static List<Span> pruneOverlappingAnnotations(List<Span> spanList) {
         //Sorting by offsets
-        List<Span> sortedEntities = spanList
-            .stream()
-            .sorted(comparingInt(Span::getOffsetStart))
-            .collect(Collectors.toList());
-
-//                sortedEntities = sortedEntities.stream().distinct().collect(Collectors.toList());
+        List<Span> sortedEntities = new ArrayList<>(spanList);
+        sortedEntities.sort(comparingInt(Span::getOffsetStart));
 
         if (spanList.size() <= 1) {
             return sortedEntities;
         }
 
-        List<Span> toBeRemoved = new ArrayList<>();
+        int size = sortedEntities.size();
+        int[] textLengths = new int[size];
+        for (int i = 0; i < size; i++) {
+            textLengths[i] = StringUtils.length(sortedEntities.get(i).getText());
+        }
 
-        Span previous = null;
-        boolean first = true;
-        for (Span current : sortedEntities) {
+        // Each span is compared with the previous one, the losers are marked by position
+        boolean[] removed = new boolean[size];
+        for (int i = 1; i < size; i++) {
+            Span previous = sortedEntities.get(i - 1);
+            Span current = sortedEntities.get(i);
 
-            if (first) {
-                first = false;
-                previous = current;
-            } else {
-                if (current.getOffsetEnd() < previous.getOffsetEnd() || previous.getOffsetEnd() > current.getOffsetStart()) {
+            if (current.getOffsetEnd() < previous.getOffsetEnd() || previous.getOffsetEnd() > current.getOffsetStart()) {
+                if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug("Overlapping. " + current.getText() + " <" + current.getType() + "> with " + previous.getText() + " <" + previous.getType() + ">");
+                }
 
-                    if (current.getType().equals(previous.getType())) {
-                        // Type is the same, I take the largest one
-                        if (StringUtils.length(previous.getText()) > StringUtils.length(current.getText())) {
-                            toBeRemoved.add(current);
-                        } else if (StringUtils.length(previous.getText()) < StringUtils.length(current.getText())) {
-                            toBeRemoved.add(previous);
-                        } else {
-                            if (current.getSource().equals(SuperconductorsModels.SUPERCONDUCTORS.getModelName())) {
-                                if (isEmpty(current.getBoundingBoxes()) && isNotEmpty(previous.getBoundingBoxes())) {
-                                    current.setBoundingBoxes(previous.getBoundingBoxes());
-                                } else if (isEmpty(current.getBoundingBoxes()) && isEmpty(previous.getBoundingBoxes())) {
-                                    LOGGER.debug("Missing bounding boxes for " + current.getText() + " and " + previous.getText());
-                                }
-                                toBeRemoved.add(previous);
-                            } else if (previous.getSource().equals(SuperconductorsModels.SUPERCONDUCTORS.getModelName())) {
-                                if (isEmpty(previous.getBoundingBoxes()) && isNotEmpty(current.getBoundingBoxes())) {
-                                    previous.setBoundingBoxes(current.getBoundingBoxes());
-                                } else if (isEmpty(current.getBoundingBoxes()) && isEmpty(previous.getBoundingBoxes())) {
-                                    LOGGER.debug("Missing bounding boxes for " + current.getText() + " and " + previous.getText());
-                                }
-                                toBeRemoved.add(current);
-                            } else {
-                                toBeRemoved.add(previous);
-                            }
-                        }
-                    } else if (!current.getType().equals(previous.getType())) {
-                        // Type is different I take the shorter match
-
-                        if (StringUtils.length(previous.getText()) < StringUtils.length(current.getText())) {
-                            toBeRemoved.add(current);
-                        } else if (StringUtils.length(previous.getText()) > StringUtils.length(current.getText())) {
-                            toBeRemoved.add(previous);
-                        } else {
-                            if (current.getSource().equals(SuperconductorsModels.SUPERCONDUCTORS.getModelName())) {
-                                if (isEmpty(current.getBoundingBoxes()) && isNotEmpty(previous.getBoundingBoxes())) {
-                                    current.setBoundingBoxes(previous.getBoundingBoxes());
-                                } else if (isEmpty(current.getBoundingBoxes()) && isEmpty(previous.getBoundingBoxes())) {
-                                    LOGGER.debug("Missing bounding boxes for " + current.getText() + " and " + previous.getText());
-                                }
-                                toBeRemoved.add(previous);
-                            } else if (previous.getSource().equals(SuperconductorsModels.SUPERCONDUCTORS.getModelName())) {
-                                if (isEmpty(previous.getBoundingBoxes()) && isNotEmpty(current.getBoundingBoxes())) {
-                                    previous.setBoundingBoxes(current.getBoundingBoxes());
-                                } else if (isEmpty(current.getBoundingBoxes()) && isEmpty(previous.getBoundingBoxes())) {
-                                    LOGGER.debug("Missing bounding boxes for " + current.getText() + " and " + previous.getText());
-                                }
-                                toBeRemoved.add(current);
-                            } else {
-                                toBeRemoved.add(previous);
-                            }
-                        }
-                    }
+                // Type is the same, I take the largest one, type is different I take the shorter match
+                int comparison = Integer.compare(textLengths[i - 1], textLengths[i]);
+                if (!current.getType().equals(previous.getType())) {
+                    comparison = -comparison;
+                }
+
+                if (comparison > 0) {
+                    removed[i] = true;
+                } else if (comparison < 0) {
+                    removed[i - 1] = true;
+                } else if (isCurrentWinningTie(previous, current)) {
+                    removed[i - 1] = true;
+                } else {
+                    removed[i] = true;
                 }
-                previous = current;
             }
         }
 
-        List<Span> newSortedEntitiers = (List<Span>) CollectionUtils.removeAll(sortedEntities, toBeRemoved);
-        return newSortedEntitiers;
+        List<Span> prunedEntities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (!removed[i]) {
+                prunedEntities.add(sortedEntities.get(i));
+            }
+        }
+        return prunedEntities;
+    }
+
+    /**
+     * Decide between two overlapping spans of the same length: the one from the superconductors model is kept,
+     * taking the bounding boxes of the other one when it has none. Otherwise the current one is kept.
+     */
+    private static boolean isCurrentWinningTie(Span previous, Span current) {
+        if (current.getSource().equals(SuperconductorsModels.SUPERCONDUCTORS.getModelName())) {
+            if (isEmpty(current.getBoundingBoxes()) && isNotEmpty(previous.getBoundingBoxes())) {
+                current.setBoundingBoxes(previous.getBoundingBoxes());
+            } else if (isEmpty(current.getBoundingBoxes()) && isEmpty(previous.getBoundingBoxes())) {
+                LOGGER.debug("Missing bounding boxes for " + current.getText() + " and " + previous.getText());
+            }
+            return true;
+        } else if (previous.getSource().equals(SuperconductorsModels.SUPERCONDUCTORS.getModelName())) {
+            if (isEmpty(previous.getBoundingBoxes()) && isNotEmpty(current.getBoundingBoxes())) {
+                previous.setBoundingBoxes(current.getBoundingBoxes());
+            } else if (isEmpty(current.getBoundingBoxes()) && isEmpty(previous.getBoundingBoxes())) {
+                LOGGER.debug("Missing bounding boxes for " + current.getText() + " and " + previous.getText());
+            }
+            return false;
+        }
+        return true;
     }
 }
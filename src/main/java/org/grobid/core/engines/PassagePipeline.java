@@ -0,0 +1,99 @@
+package org.grobid.core.engines;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.grobid.core.data.document.RawPassage;
+import org.grobid.core.data.document.TextPassage;
+import org.grobid.core.exceptions.GrobidException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Pipelined processing of a sequence of passages.
+ * The passages are grouped in chunks which flow through the stages of the {@link ModuleEngine}
+ * (NER, quantities, rule-based linking, CRF linking), each stage running on its own pool of workers,
+ * so that the stage N of a chunk overlaps with the stage N-1 of the following one.
+ * <p>
+ * The result preserves the order in which the passages have been submitted.
+ */
+class PassagePipeline {
+
+    private final ModuleEngine engine;
+    private final int chunkSize;
+    private final boolean disableLinking;
+    private final ResponseProfile profile;
+    private final StageRecorder recorder;
+
+    private int submitted = 0;
+    private List<RawPassage> currentChunk = new ArrayList<>();
+    private final List<CompletableFuture<List<TextPassage>>> chunkResults = new ArrayList<>();
+
+    PassagePipeline(ModuleEngine engine, int chunkSize, boolean disableLinking, ResponseProfile profile, StageRecorder recorder) {
+        this.engine = engine;
+        this.chunkSize = chunkSize;
+        this.disableLinking = disableLinking;
+        this.profile = profile;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Add a passage to the current chunk, the chunk enters the pipeline as soon as it's full
+     */
+    void submit(RawPassage passage) {
+        submitted++;
+        currentChunk.add(passage);
+        if (currentChunk.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (currentChunk.isEmpty()) {
+            return;
+        }
+        final List<RawPassage> chunk = currentChunk;
+        currentChunk = new ArrayList<>();
+
+        CompletableFuture<List<TextPassage>> result = CompletableFuture
+            .supplyAsync(() -> engine.extractEntities(chunk, recorder), engine.getNerExecutor())
+            .thenApplyAsync(entities -> engine.assemblePassages(chunk, entities,
+                ModuleEngine.isTokensNeeded(profile, disableLinking), recorder), engine.getQuantitiesExecutor());
+
+        if (!disableLinking) {
+            result = result
+                .thenApplyAsync(passages -> Pair.of(passages, engine.linkWithRules(passages, recorder)), engine.getRuleLinkingExecutor())
+                .thenApplyAsync(passages -> ModuleEngine.applyProfile(
+                    engine.linkWithCRF(chunk, passages.getLeft(), passages.getRight(), recorder), profile), engine.getCrfLinkingExecutor());
+        }
+
+        chunkResults.add(result);
+    }
+
+    int getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * Pass the processed passages to the consumer as soon as each chunk is completed, in the same order
+     * as they were submitted. The chunks are released once consumed.
+     */
+    void complete(Consumer<TextPassage> consumer) {
+        flush();
+
+        try {
+            for (int i = 0; i < chunkResults.size(); i++) {
+                List<TextPassage> chunk = chunkResults.get(i).join();
+                chunkResults.set(i, null);
+                chunk.forEach(consumer);
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GrobidException("Error when processing the passages. ", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.grobid.core.engines;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent in each stage while processing a single request. The stages running in parallel
+ * on several chunks of passages are summed, so the total can be greater than the runtime.
+ */
+public class ProcessingTimings implements StageRecorder {
+
+    private final Map<String, Long> elapsedNanos = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void record(String stage, long elapsedNanos) {
+        this.elapsedNanos.merge(stage, elapsedNanos, Long::sum);
+    }
+
+    /**
+     * Return the elapsed time of each stage, in milliseconds, in the order the stages were first recorded
+     */
+    public synchronized Map<String, Long> asMillis() {
+        Map<String, Long> output = new LinkedHashMap<>();
+        elapsedNanos.forEach((stage, nanos) -> output.put(stage, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        return output;
+    }
+}
@@ -0,0 +1,28 @@
+package org.grobid.core.engines;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Level of detail of the processed passages
+ */
+public enum ResponseProfile {
+    /**
+     * Spans, links and offsets, including the layout information (font, style, offset) of each token
+     */
+    FULL,
+
+    /**
+     * Spans, links and offsets only, the tokens are not materialised
+     */
+    COMPACT;
+
+    /**
+     * Parse the name of the profile, case-insensitive. When empty the full profile is used.
+     */
+    public static ResponseProfile fromString(String name) {
+        if (StringUtils.isBlank(name)) {
+            return FULL;
+        }
+        return valueOf(name.trim().toUpperCase());
+    }
+}
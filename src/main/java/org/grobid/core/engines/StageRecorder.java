@@ -0,0 +1,27 @@
+package org.grobid.core.engines;
+
+import java.util.function.Supplier;
+
+/**
+ * Receives the time spent in each stage of the processing
+ */
+@FunctionalInterface
+public interface StageRecorder {
+
+    StageRecorder NONE = (stage, elapsedNanos) -> {
+    };
+
+    void record(String stage, long elapsedNanos);
+
+    /**
+     * Run the action and record its elapsed time under the given stage
+     */
+    default <T> T time(String stage, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.grobid.core.GrobidModel;
 import org.grobid.core.analyzers.DeepAnalyzer;
+import org.grobid.core.data.document.NormalisedLayoutTokens;
 import org.grobid.core.data.document.Span;
 import org.grobid.core.data.external.chemDataExtractor.ChemicalSpan;
 import org.grobid.core.data.material.ChemicalComposition;
@@ -24,12 +25,16 @@ import org.grobid.core.utilities.LayoutTokensUtil;
 import org.grobid.core.utilities.UnicodeUtil;
 import org.grobid.core.utilities.client.ChemDataExtractorClient;
 import org.grobid.core.utilities.client.StructureIdentificationModuleClient;
+import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.grobid.service.configuration.LabellingConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
@@ -47,6 +52,8 @@ public class SuperconductorsParser extends AbstractParser {
     private final MaterialParser materialParser;
     private final ChemDataExtractorClient chemicalAnnotator;
     private final StructureIdentificationModuleClient structureIdentificationModuleClient;
+    // Coalesces the labelling of the concurrent requests, null when disabled
+    private LabellingBatcher labellingBatcher;
 
     public static SuperconductorsParser getInstance(ChemDataExtractorClient chemspotClient, MaterialParser materialParser,
                                                     StructureIdentificationModuleClient structureIdentificationModuleClient) {
@@ -61,6 +68,18 @@ public class SuperconductorsParser extends AbstractParser {
     }
 
     @Inject
+    public SuperconductorsParser(ChemDataExtractorClient chemicalAnnotator, MaterialParser materialParser,
+                                 StructureIdentificationModuleClient structureIdentificationModuleClient,
+                                 GrobidSuperconductorsConfiguration configuration) {
+        this(chemicalAnnotator, materialParser, structureIdentificationModuleClient);
+        LabellingConfiguration labelling = configuration.getLabelling();
+        if (labelling.isBatching()) {
+            LOGGER.info("Labelling batching enabled: max batch size " + labelling.getMaxBatchSize() + ", max wait " + labelling.getMaxWait());
+            this.labellingBatcher = new LabellingBatcher("superconductors", this::labelBatch,
+                labelling.getMaxBatchSize(), labelling.getMaxWait().toNanoseconds(), TimeUnit.NANOSECONDS);
+        }
+    }
+
     public SuperconductorsParser(ChemDataExtractorClient chemicalAnnotator, MaterialParser materialParser, StructureIdentificationModuleClient structureIdentificationModuleClient) {
         this(SuperconductorsModels.SUPERCONDUCTORS, chemicalAnnotator, materialParser, structureIdentificationModuleClient);
         instance = this;
@@ -333,34 +352,47 @@ public class SuperconductorsParser extends AbstractParser {
     }
 
     public List<List<Span>> process(List<List<LayoutToken>> layoutTokensBatch) {
-        List<List<LayoutToken>> normalisedTokens = layoutTokensBatch.stream()
-            .map(SuperconductorsParser::normalizeAndRetokenizeLayoutTokens)
+        return process(layoutTokensBatch, StageRecorder.NONE);
+    }
+
+    /**
+     * Process a batch of passages, recording the time spent in the chemical annotation (external services),
+     * the labelling and the material parsing
+     */
+    public List<List<Span>> process(List<List<LayoutToken>> layoutTokensBatch, StageRecorder recorder) {
+        return processNormalised(layoutTokensBatch.stream()
+            .map(NormalisedLayoutTokens::of)
+            .collect(Collectors.toList()), recorder);
+    }
+
+    /**
+     * Process a batch of passages whose tokens have already been normalised, see {@link #process(List, StageRecorder)}.
+     * The token indexes of the resulting spans refer to the normalised tokens.
+     * <p>
+     * The chemical annotation and the structures identification are independent and requested at the same time.
+     * The labelling only needs the chemical mentions, so the structures are awaited once the passages are labelled.
+     */
+    public List<List<Span>> processNormalised(List<NormalisedLayoutTokens> normalisedBatch, StageRecorder recorder) {
+        List<List<LayoutToken>> normalisedTokens = normalisedBatch.stream()
+            .map(NormalisedLayoutTokens::getLayoutTokens)
             .collect(Collectors.toList());
 
         List<String> texts = normalisedTokens.stream()
             .map(LayoutTokensUtil::toText)
             .collect(Collectors.toList());
 
-        List<List<ChemicalSpan>> structures = structureIdentificationModuleClient.extractStructuresMulti(texts);
-        List<List<ChemicalSpan>> mentions = chemicalAnnotator.processBulk(texts);
-        List<String> tokensWithFeatures = new ArrayList<>();
+        long chemicalAnnotationStart = System.nanoTime();
+        CompletableFuture<List<List<ChemicalSpan>>> structuresRequest = structureIdentificationModuleClient.extractStructuresMultiAsync(texts);
+        CompletableFuture<List<List<ChemicalSpan>>> mentionsRequest = chemicalAnnotator.processBulkAsync(texts);
+        List<List<ChemicalSpan>> mentions = mentionsRequest.join();
+        recorder.record(ModuleEngine.STAGE_CHEMICAL_ANNOTATION, System.nanoTime() - chemicalAnnotationStart);
 
-        List<List<Span>> structuredCumulatedSpans = new ArrayList<>();
+        long labellingStart = System.nanoTime();
+        List<String> tokensWithFeatures = new ArrayList<>();
 
         for (int i = 0; i < normalisedTokens.size(); i++) {
             List<Boolean> listChemicalAnnotations = synchroniseLayoutTokensWithMentions(normalisedTokens.get(i), mentions.get(i));
 
-            if (CollectionUtils.isEmpty(structures)) {
-                LOGGER.debug("Structures extraction (crystal structure and space groups) disabled. ");
-            } else {
-                List<Span> structureSpan = extractSpans(normalisedTokens.get(i), structures.get(i));
-                structureSpan.stream().forEach(s -> {
-                    s.setBoundingBoxes(BoundingBoxCalculator.calculate(s.getLayoutTokens()));
-                    s.setLinkable(true);
-                });
-                structuredCumulatedSpans.add(structureSpan);
-            }
-
             //TODO: remove this hack! :-) 
             //TODO: one day, son... One day... 
             tokensWithFeatures.add(addFeatures(normalisedTokens.get(i), listChemicalAnnotations) + "\n");
@@ -368,38 +400,63 @@ public class SuperconductorsParser extends AbstractParser {
 
 
         // labeled result from CRF lib
-        String labellingResult = null;
+        List<String> resultingBlocks = null;
         try {
-            labellingResult = label(tokensWithFeatures);
+            resultingBlocks = labellingBatcher != null ? labellingBatcher.label(tokensWithFeatures) : labelBatch(tokensWithFeatures);
         } catch (Exception e) {
             throw new GrobidException("CRF labeling for superconductors parsing failed.", e);
         }
 
-        List<String> resultingBlocks = Arrays.asList(labellingResult.split("\n\n"));
-        List<List<Span>> localEntities = extractParallelResults(normalisedTokens, resultingBlocks);
+        recorder.record(ModuleEngine.STAGE_LABELLING, System.nanoTime() - labellingStart);
 
-        // add the entities from the extracted structures to the list of entities 
-        for (int i = 0; i < normalisedTokens.size(); i++) {
-            if (CollectionUtils.isEmpty(structures)) {
-                LOGGER.debug("Structures extraction (crystal structure and space groups) disabled. ");
-            } else {
-                localEntities.get(i).addAll(structuredCumulatedSpans.get(i));
+        long structuresStart = System.nanoTime();
+        List<List<ChemicalSpan>> structures = structuresRequest.join();
+        recorder.record(ModuleEngine.STAGE_CHEMICAL_ANNOTATION, System.nanoTime() - structuresStart);
+
+        List<List<Span>> structuredCumulatedSpans = new ArrayList<>();
+        if (CollectionUtils.isEmpty(structures)) {
+            LOGGER.debug("Structures extraction (crystal structure and space groups) disabled. ");
+        } else {
+            for (int i = 0; i < normalisedTokens.size(); i++) {
+                List<Span> structureSpan = extractSpans(normalisedTokens.get(i), structures.get(i));
+                structureSpan.stream().forEach(s -> {
+                    s.setBoundingBoxes(BoundingBoxCalculator.calculate(s.getLayoutTokens()));
+                    s.setLinkable(true);
+                });
+                structuredCumulatedSpans.add(structureSpan);
             }
         }
 
-        return localEntities;
-    }
+        long materialsStart = System.nanoTime();
+        // The conversions of formulas and names are collected over the whole batch and resolved in bulk
+        ChemicalConversionBatch conversionBatch = new ChemicalConversionBatch();
+        List<List<Span>> localEntities = extractParallelResults(normalisedTokens, resultingBlocks, conversionBatch);
+        if (materialParser != null) {
+            materialParser.resolve(conversionBatch);
+        } else {
+            conversionBatch.resolve(null);
+        }
+        recorder.record(ModuleEngine.STAGE_MATERIALS, System.nanoTime() - materialsStart);
 
-    public static List<LayoutToken> normalizeAndRetokenizeLayoutTokens(List<LayoutToken> layoutTokens) {
-        List<LayoutToken> layoutTokensPreNormalised = normalizeLayoutTokens(layoutTokens);
+        // add the entities from the extracted structures to the list of entities 
+        for (int i = 0; i < structuredCumulatedSpans.size(); i++) {
+            localEntities.get(i).addAll(structuredCumulatedSpans.get(i));
+        }
 
-        List<LayoutToken> layoutTokensNormalised = DeepAnalyzer.getInstance()
-            .retokenizeLayoutTokens(layoutTokensPreNormalised);
+        return localEntities;
+    }
 
-        if (isEmpty(layoutTokensNormalised))
-            return new ArrayList<>();
+    /**
+     * Label the passages (features, each terminated by an empty line) with a single call to the model
+     *
+     * @return the labelled result of each passage
+     */
+    private List<String> labelBatch(List<String> tokensWithFeatures) {
+        return Arrays.asList(label(tokensWithFeatures).split("\n\n"));
+    }
 
-        return layoutTokensNormalised;
+    public static List<LayoutToken> normalizeAndRetokenizeLayoutTokens(List<LayoutToken> layoutTokens) {
+        return NormalisedLayoutTokens.of(layoutTokens).getLayoutTokens();
     }
 
     public static List<LayoutToken> normalizeLayoutTokens(List<LayoutToken> layoutTokens) {
@@ -433,9 +490,10 @@ public class SuperconductorsParser extends AbstractParser {
                     continue;
                 }
 
-                FeaturesVectorSuperconductors featuresVector =
-                    FeaturesVectorSuperconductors.addFeatures(token, null, previous, isChemicalEntity.get(index).toString());
-                result.append(featuresVector.printVector());
+                if (!FeaturesVectorSuperconductors.appendVector(result, token, null, previous, isChemicalEntity.get(index).toString())) {
+                    // printVector() returns null for the blank tokens, which ended up as "null" in the features
+                    result.append("null");
+                }
                 result.append("\n");
                 previous = token;
             }
@@ -446,12 +504,20 @@ public class SuperconductorsParser extends AbstractParser {
     }
 
     public List<List<Span>> extractParallelResults(List<List<LayoutToken>> tokens, List<String> results) {
+        return extractParallelResults(tokens, results, null);
+    }
+
+    /**
+     * Extract the results of a batch, when the conversion batch is not null, the conversions of formulas and names are
+     * collected and the material attributes are filled once the batch is resolved.
+     */
+    public List<List<Span>> extractParallelResults(List<List<LayoutToken>> tokens, List<String> results, ChemicalConversionBatch conversionBatch) {
         List<List<Span>> spans = new ArrayList<>();
         if (tokens.size() != results.size()) {
             throw new GrobidException("The input PDF does not contains valid characters (e.g. all spaces) and therefore cannot be parsed correctly.", GrobidExceptionStatus.BAD_INPUT_DATA);
         }
         for (int i = 0; i < tokens.size(); i++) {
-            spans.add(extractResults(tokens.get(i), results.get(i)));
+            spans.add(extractResults(tokens.get(i), results.get(i), conversionBatch));
         }
 
         return spans;
@@ -461,6 +527,14 @@ public class SuperconductorsParser extends AbstractParser {
      * Extract identified quantities from a labeled text.
      */
     public List<Span> extractResults(List<LayoutToken> tokens, String result) {
+        return extractResults(tokens, result, null);
+    }
+
+    /**
+     * Extract identified quantities from a labeled text. When the conversion batch is null, the conversions are
+     * resolved immediately.
+     */
+    public List<Span> extractResults(List<LayoutToken> tokens, String result, ChemicalConversionBatch conversionBatch) {
         List<Span> resultList = new ArrayList<>();
 
         TaggingTokenClusteror clusteror = new TaggingTokenClusteror(SuperconductorsModels.SUPERCONDUCTORS, result, tokens);
@@ -493,20 +567,13 @@ public class SuperconductorsParser extends AbstractParser {
 
             if (clusterLabel.equals(SUPERCONDUCTORS_MATERIAL)) {
                 superconductor.setType(SUPERCONDUCTORS_MATERIAL_LABEL);
-                boolean hasFormula = false;
-
-                List<Material> parsedMaterials = materialParser.process(theTokens);
-//                superconductor.getOriginalMaterials().addAll(parsedMaterials);
-                int i = 0;
-                for (Material parsedMaterial : parsedMaterials) {
-                    if (parsedMaterial.getFormula() != null && StringUtils.isNotBlank(parsedMaterial.getFormula().getRawValue())) {
-                        hasFormula = true;
-                    }
-                    superconductor.getAttributes().putAll(Material.asAttributeMap(parsedMaterial, "material" + i));
-                    i++;
+                if (conversionBatch == null) {
+                    List<Material> parsedMaterials = materialParser.process(theTokens);
+                    addMaterialAttributes(superconductor, parsedMaterials, clusterContent);
+                } else {
+                    List<Material> parsedMaterials = materialParser.process(theTokens, conversionBatch);
+                    conversionBatch.onResolved(() -> addMaterialAttributes(superconductor, parsedMaterials, clusterContent));
                 }
-                String rawMaterialString = hasFormula ? materialParser.postProcessFormula(clusterContent) : clusterContent;
-                superconductor.setText(rawMaterialString);
 
                 superconductor.setLayoutTokens(theTokens);
                 superconductor.setBoundingBoxes(boundingBoxes);
@@ -528,14 +595,11 @@ public class SuperconductorsParser extends AbstractParser {
                 superconductor.setFormattedText(getFormattedString(theTokens));
 
                 if (materialParser != null && materialParser.getChemicalMaterialParserClient() != null) {
-                    ChemicalComposition chemicalComposition = materialParser.getChemicalMaterialParserClient().convertNameToFormula(clusterContent);
-                    if (!chemicalComposition.isEmpty()) {
-                        Material classAsMaterial = new Material();
-                        classAsMaterial.setName(clusterContent);
-                        if (CollectionUtils.isNotEmpty(chemicalComposition.getComposition().keySet())) {
-                            classAsMaterial.setFormula(new Formula(chemicalComposition.getFormula(), chemicalComposition.getComposition()));
-                        }
-                        superconductor.getAttributes().putAll(Material.asAttributeMap(classAsMaterial, "class"));
+                    if (conversionBatch == null) {
+                        ChemicalComposition chemicalComposition = materialParser.getChemicalMaterialParserClient().convertNameToFormula(clusterContent);
+                        addClassAttributes(superconductor, chemicalComposition, clusterContent);
+                    } else {
+                        conversionBatch.addName(clusterContent, chemicalComposition -> addClassAttributes(superconductor, chemicalComposition, clusterContent));
                     }
                 }
                 resultList.add(superconductor);
@@ -590,4 +654,30 @@ public class SuperconductorsParser extends AbstractParser {
 
         return resultList;
     }
+
+    private void addMaterialAttributes(Span superconductor, List<Material> parsedMaterials, String clusterContent) {
+        boolean hasFormula = false;
+//                superconductor.getOriginalMaterials().addAll(parsedMaterials);
+        int i = 0;
+        for (Material parsedMaterial : parsedMaterials) {
+            if (parsedMaterial.getFormula() != null && StringUtils.isNotBlank(parsedMaterial.getFormula().getRawValue())) {
+                hasFormula = true;
+            }
+            superconductor.getAttributes().putAll(Material.asAttributeMap(parsedMaterial, "material" + i));
+            i++;
+        }
+        String rawMaterialString = hasFormula ? materialParser.postProcessFormula(clusterContent) : clusterContent;
+        superconductor.setText(rawMaterialString);
+    }
+
+    private void addClassAttributes(Span superconductor, ChemicalComposition chemicalComposition, String clusterContent) {
+        if (!chemicalComposition.isEmpty()) {
+            Material classAsMaterial = new Material();
+            classAsMaterial.setName(clusterContent);
+            if (CollectionUtils.isNotEmpty(chemicalComposition.getComposition().keySet())) {
+                classAsMaterial.setFormula(new Formula(chemicalComposition.getFormula(), chemicalComposition.getComposition()));
+            }
+            superconductor.getAttributes().putAll(Material.asAttributeMap(classAsMaterial, "class"));
+        }
+    }
 }
@@ -1,12 +1,13 @@
 package org.grobid.core.engines.linking;
 
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.grobid.core.GrobidModel;
-import org.grobid.core.analyzers.DeepAnalyzer;
 import org.grobid.core.data.document.Link;
+import org.grobid.core.data.document.NormalisedLayoutTokens;
 import org.grobid.core.data.document.Span;
 import org.grobid.core.data.external.chemDataExtractor.ChemicalSpan;
 import org.grobid.core.engines.SuperconductorsParser;
@@ -19,13 +20,15 @@ import org.grobid.core.tokenization.TaggingTokenClusteror;
 import org.grobid.core.utilities.AdditionalLayoutTokensUtil;
 import org.grobid.core.utilities.BoundingBoxCalculator;
 import org.grobid.core.utilities.LayoutTokensUtil;
-import org.grobid.core.utilities.UnicodeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
@@ -43,7 +46,7 @@ public class CRFBasedLinker {
     public static final String TCVALUE_PRESSURE_ID = "tcValue-pressure";
     public static final String TCVALUE_ME_METHOD_ID = "tcValue-me_method";
 
-    private Map<String, EntityLinker> annotationLinks = new HashMap<>();
+    private Map<String, EntityLinker> annotationLinks = new LinkedHashMap<>();
 
     public static CRFBasedLinker getInstance() {
         if (instance == null) {
@@ -68,82 +71,231 @@ public class CRFBasedLinker {
     }
 
     public List<Span> process(List<LayoutToken> layoutTokens, List<Span> annotations, String linkerType) {
-        
-        if (CollectionUtils.isEmpty(annotations)) {
-            return annotations;
-        }
+        return process(Collections.singletonList(layoutTokens), Collections.singletonList(annotations), linkerType).get(0);
+    }
 
+    /**
+     * Link the annotations of a batch of passages (e.g. all the passages of a document) with one linker.
+     * The features of all the passages are labelled with a single call to the model.
+     *
+     * @return for each passage, the copies of the annotations with their links
+     */
+    public List<List<Span>> process(List<List<LayoutToken>> layoutTokensBatch, List<List<Span>> annotationsBatch, String linkerType) {
         if (!this.annotationLinks.containsKey(linkerType)) {
             throw new RuntimeException("the linker type " + linkerType + "does not exists. ");
         }
 
-        EntityLinker linkingImplementation = this.annotationLinks.get(linkerType);
-        List<Span> taggedAnnotations = linkingImplementation.markLinkableEntities(annotations);
+        return link(layoutTokensOf(normalise(layoutTokensBatch, annotationsBatch), annotationsBatch), annotationsBatch, this.annotationLinks.get(linkerType));
+    }
+
+    /**
+     * Run all the registered linkers on a passage, see {@link #processAll(List, List)}
+     */
+    public Map<String, List<Link>> processAll(List<LayoutToken> layoutTokens, List<Span> annotations) {
+        return processAll(Collections.singletonList(layoutTokens), Collections.singletonList(annotations)).get(0);
+    }
+
+    /**
+     * Run all the registered linkers on a batch of passages. The layout tokens are normalised and retokenized once,
+     * shared by all the linkers, which are run concurrently, each one labelling the whole batch with a single call.
+     *
+     * @return for each passage, the links obtained by the linkers for each span id, merged in the order
+     * the linkers are registered
+     */
+    public List<Map<String, List<Link>>> processAll(List<List<LayoutToken>> layoutTokensBatch, List<List<Span>> annotationsBatch) {
+        return processAllNormalised(normalise(layoutTokensBatch, annotationsBatch), annotationsBatch);
+    }
 
-        List<Span> linkableAnnotations = taggedAnnotations.stream()
-            .filter(Span::isLinkable)
+    /**
+     * Run all the registered linkers on a batch of passages whose tokens have already been normalised,
+     * one after the other in the calling thread, see {@link #processAll(List, List)}
+     */
+    public List<Map<String, List<Link>>> processAllNormalised(List<NormalisedLayoutTokens> normalisedBatch, List<List<Span>> annotationsBatch) {
+        return processAllNormalised(normalisedBatch, annotationsBatch, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Run all the registered linkers on a batch of passages whose tokens have already been normalised,
+     * each linker being submitted to the executor, see {@link #processAll(List, List)}
+     */
+    public List<Map<String, List<Link>>> processAllNormalised(List<NormalisedLayoutTokens> normalisedBatch, List<List<Span>> annotationsBatch, Executor executor) {
+        List<List<LayoutToken>> layoutTokensNormalised = layoutTokensOf(normalisedBatch, annotationsBatch);
+
+        List<CompletableFuture<List<List<Span>>>> linkedSpansFutures = annotationLinks.values().stream()
+            .map(linker -> CompletableFuture.supplyAsync(() -> link(layoutTokensNormalised, annotationsBatch, linker).stream()
+                .map(linkedSpans -> linkedSpans.stream()
+                    .filter(s -> linker.getAnnotationsToBeLinked().contains(s.getType()))
+                    .filter(s -> isNotEmpty(s.getLinks()))
+                    .collect(Collectors.toList()))
+                .collect(Collectors.toList()), executor))
             .collect(Collectors.toList());
 
-        //Normalisation
-//        List<LayoutToken> layoutTokensNormalised = SuperconductorsParser.normalizeAndRetokenizeLayoutTokens(layoutTokens);
-        List<LayoutToken> layoutTokensPreNormalised = layoutTokens.stream()
-            .map(layoutToken -> {
-                    LayoutToken newOne = new LayoutToken(layoutToken);
-                    newOne.setText(UnicodeUtil.normaliseText(layoutToken.getText()));
-//                        .replaceAll("\\p{C}", " ")));
-                    return newOne;
+        List<List<List<Span>>> linkedSpansByLinker = new ArrayList<>();
+        for (CompletableFuture<List<List<Span>>> linkedSpansFuture : linkedSpansFutures) {
+            try {
+                linkedSpansByLinker.add(linkedSpansFuture.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
                 }
-            ).collect(Collectors.toList());
+                throw e;
+            }
+        }
 
-        List<LayoutToken> layoutTokensNormalised = DeepAnalyzer.getInstance()
-            .retokenizeLayoutTokens(layoutTokensPreNormalised);
+        List<Map<String, List<Link>>> mergedLinksBatch = new ArrayList<>();
+        for (int i = 0; i < annotationsBatch.size(); i++) {
+            Map<String, List<Link>> mergedLinks = new LinkedHashMap<>();
+            for (List<List<Span>> linkedSpansBatch : linkedSpansByLinker) {
+                for (Span linkedSpan : linkedSpansBatch.get(i)) {
+                    mergedLinks.computeIfAbsent(linkedSpan.getId(), k -> new ArrayList<>()).addAll(linkedSpan.getLinks());
+                }
+            }
+            mergedLinksBatch.add(mergedLinks);
+        }
 
-        if (isEmpty(layoutTokensNormalised))
-            return new ArrayList<>();
+        return mergedLinksBatch;
+    }
+
+    /**
+     * Normalise the passages having annotations, the ones without annotations are not linked and are left null
+     */
+    private static List<NormalisedLayoutTokens> normalise(List<List<LayoutToken>> layoutTokensBatch, List<List<Span>> annotationsBatch) {
+        List<NormalisedLayoutTokens> normalisedBatch = new ArrayList<>();
+        for (int i = 0; i < layoutTokensBatch.size(); i++) {
+            normalisedBatch.add(isEmpty(annotationsBatch.get(i)) ? null : NormalisedLayoutTokens.of(layoutTokensBatch.get(i)));
+        }
+        return normalisedBatch;
+    }
+
+    /**
+     * Return the normalised tokens of the passages having annotations, null for the others
+     */
+    private static List<List<LayoutToken>> layoutTokensOf(List<NormalisedLayoutTokens> normalisedBatch, List<List<Span>> annotationsBatch) {
+        List<List<LayoutToken>> layoutTokensNormalised = new ArrayList<>();
+        for (int i = 0; i < normalisedBatch.size(); i++) {
+            layoutTokensNormalised.add(isEmpty(annotationsBatch.get(i)) ? null : normalisedBatch.get(i).getLayoutTokens());
+        }
+        return layoutTokensNormalised;
+    }
+
+    /**
+     * Link the annotations of a batch of passages with one linker, the layout tokens are already normalised.
+     * The annotations are not modified, the returned spans are copies.
+     */
+    private List<List<Span>> link(List<List<LayoutToken>> layoutTokensBatch, List<List<Span>> annotationsBatch, EntityLinker linkingImplementation) {
+        List<List<Span>> taggedAnnotationsBatch = new ArrayList<>();
+        List<List<Span>> filteredAnnotationsBatch = new ArrayList<>();
+
+        // Passages to be labelled: index in the batch and features
+        List<Integer> labelledPassages = new ArrayList<>();
+        List<String> featuresBatch = new ArrayList<>();
 
         try {
-            List<Span> filteredAnnotations = linkableAnnotations.stream()
-                .filter(a -> linkingImplementation.getAnnotationsToBeLinked().contains(a.getType()))
-                .collect(Collectors.toList());
+            for (int i = 0; i < annotationsBatch.size(); i++) {
+                List<Span> annotations = annotationsBatch.get(i);
+                List<LayoutToken> layoutTokensNormalised = layoutTokensBatch.get(i);
 
-            List<ChemicalSpan> mentions = filteredAnnotations.stream()
-                .map(a -> new ChemicalSpan(a.getOffsetStart(), a.getOffsetEnd(), a.getType()))
-                .collect(Collectors.toList());
+                if (CollectionUtils.isEmpty(annotations)) {
+                    taggedAnnotationsBatch.add(annotations);
+                    filteredAnnotationsBatch.add(null);
+                    continue;
+                }
 
-            List<String> listAnnotations = synchroniseLayoutTokensWithMentions(layoutTokensNormalised, mentions);
+                if (isEmpty(layoutTokensNormalised)) {
+                    taggedAnnotationsBatch.add(new ArrayList<>());
+                    filteredAnnotationsBatch.add(null);
+                    continue;
+                }
 
-            // string representation of the feature matrix for CRF lib
-            String ress = linkingImplementation.addFeatures(layoutTokensNormalised, listAnnotations);
+                List<Span> taggedAnnotations = linkingImplementation.markLinkableEntities(annotations);
 
-            if (StringUtils.isEmpty(ress))
-                return new ArrayList<>();
+                List<Span> filteredAnnotations = taggedAnnotations.stream()
+                    .filter(Span::isLinkable)
+                    .filter(a -> linkingImplementation.getAnnotationsToBeLinked().contains(a.getType()))
+                    .collect(Collectors.toList());
 
-            // labeled result from CRF lib
-            String res = null;
-            try {
-                res = linkingImplementation.label(ress);
-            } catch (Exception e) {
-                throw new GrobidException("CRF labeling for superconductors parsing failed.", e);
+                List<ChemicalSpan> mentions = filteredAnnotations.stream()
+                    .map(a -> new ChemicalSpan(a.getOffsetStart(), a.getOffsetEnd(), a.getType()))
+                    .collect(Collectors.toList());
+
+                List<String> listAnnotations = synchroniseLayoutTokensWithMentions(layoutTokensNormalised, mentions);
+
+                // string representation of the feature matrix for CRF lib
+                String ress = linkingImplementation.addFeatures(layoutTokensNormalised, listAnnotations);
+
+                if (StringUtils.isEmpty(ress)) {
+                    taggedAnnotationsBatch.add(new ArrayList<>());
+                    filteredAnnotationsBatch.add(null);
+                    continue;
+                }
+
+                taggedAnnotationsBatch.add(taggedAnnotations);
+                filteredAnnotationsBatch.add(filteredAnnotations);
+                labelledPassages.add(i);
+                featuresBatch.add(ress);
             }
 
-            List<Span> localLinkedEntities = linkingImplementation.extractResults(layoutTokensNormalised, res, filteredAnnotations);
+            if (labelledPassages.isEmpty()) {
+                return taggedAnnotationsBatch;
+            }
 
-            //I modify the taggedAnnotations which are anyway a copy of the spans 
-            for (Span annot : taggedAnnotations) {
-                for (Span localEntity : localLinkedEntities) {
-                    if (localEntity.equals(annot) && isNotEmpty(localEntity.getLinks())) {
-                        annot.setLinks(localEntity.getLinks());
-                        annot.setLinkable(localEntity.isLinkable());
-                        break;
+            // labeled result from CRF lib
+            List<String> results = label(featuresBatch, linkingImplementation);
+
+            for (int j = 0; j < labelledPassages.size(); j++) {
+                int i = labelledPassages.get(j);
+                List<Span> taggedAnnotations = taggedAnnotationsBatch.get(i);
+                List<Span> localLinkedEntities = linkingImplementation.extractResults(layoutTokensBatch.get(i), results.get(j), filteredAnnotationsBatch.get(i));
+
+                //I modify the taggedAnnotations which are anyway a copy of the spans 
+                for (Span annot : taggedAnnotations) {
+                    for (Span localEntity : localLinkedEntities) {
+                        if (localEntity.equals(annot) && isNotEmpty(localEntity.getLinks())) {
+                            annot.setLinks(localEntity.getLinks());
+                            annot.setLinkable(localEntity.isLinkable());
+                            break;
+                        }
                     }
                 }
             }
 
+        } catch (GrobidException e) {
+            throw e;
         } catch (Exception e) {
             throw new GrobidException("An exception occurred while running Grobid.", e);
         }
 
-        return taggedAnnotations;
+        return taggedAnnotationsBatch;
+    }
+
+    /**
+     * Label the features of several passages with a single call, the passages are separated by an empty line
+     * like in {@link SuperconductorsParser#process(List)}. When the labelled output cannot be split back
+     * consistently, each passage is labelled separately.
+     */
+    private static List<String> label(List<String> featuresBatch, EntityLinker linkingImplementation) {
+        try {
+            if (featuresBatch.size() == 1) {
+                return Collections.singletonList(linkingImplementation.label(featuresBatch.get(0)));
+            }
+
+            List<String> features = featuresBatch.stream()
+                .map(f -> f + "\n")
+                .collect(Collectors.toList());
+            List<String> results = Arrays.asList(linkingImplementation.label(features).split("\n\n"));
+
+            if (results.size() == featuresBatch.size()) {
+                return results;
+            }
+
+            LOGGER.warn("The batch labelling returned " + results.size() + " results for " + featuresBatch.size()
+                + " passages, labelling them one by one. ");
+            return featuresBatch.stream()
+                .map(linkingImplementation::label)
+                .collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new GrobidException("CRF labeling for superconductors parsing failed.", e);
+        }
     }
 
     public List<Span> process(String text, List<Span> annotations, String linkerType) {
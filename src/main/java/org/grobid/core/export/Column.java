@@ -0,0 +1,52 @@
+package org.grobid.core.export;
+
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Column of the columnar export: name, encoding and how the value is obtained from a record
+ */
+public class Column<T> {
+    private final String name;
+    private final ColumnType type;
+    private final Function<T, String> stringValue;
+    private final ToIntFunction<T> intValue;
+
+    private Column(String name, ColumnType type, Function<T, String> stringValue, ToIntFunction<T> intValue) {
+        this.name = name;
+        this.type = type;
+        this.stringValue = stringValue;
+        this.intValue = intValue;
+    }
+
+    public static <T> Column<T> string(String name, Function<T, String> value) {
+        return new Column<>(name, ColumnType.STRING, value, null);
+    }
+
+    /**
+     * String column with few distinct values (e.g. material class, section, link type), dictionary-encoded
+     */
+    public static <T> Column<T> dictionary(String name, Function<T, String> value) {
+        return new Column<>(name, ColumnType.DICTIONARY, value, null);
+    }
+
+    public static <T> Column<T> integer(String name, ToIntFunction<T> value) {
+        return new Column<>(name, ColumnType.INT, null, value);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    String getString(T record) {
+        return stringValue.apply(record);
+    }
+
+    int getInt(T record) {
+        return intValue.applyAsInt(record);
+    }
+}
@@ -0,0 +1,21 @@
+package org.grobid.core.export;
+
+/**
+ * Encoding of a column in the columnar export, see {@link ColumnarWriter}
+ */
+public enum ColumnType {
+    /**
+     * UTF-8 strings, stored as an Arrow Utf8 vector
+     */
+    STRING,
+
+    /**
+     * UTF-8 strings with few distinct values, stored as the Int32 indexes in an Arrow dictionary of Utf8 values
+     */
+    DICTIONARY,
+
+    /**
+     * 32 bits integers, stored as an Arrow Int32 vector
+     */
+    INT
+}
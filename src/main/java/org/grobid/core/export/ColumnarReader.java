@@ -0,0 +1,171 @@
+package org.grobid.core.export;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads the streams written by {@link ColumnarWriter}, one batch at a time, decoding the dictionary-encoded columns.
+ * Any other Arrow IPC stream with string and int columns can be read as well.
+ * <p>
+ * A stream whose writer has not been closed (e.g. an interrupted export) has no end of stream marker: it's read
+ * up to its last complete batch, a truncated batch at the end is ignored. See {@link #isTerminated()}.
+ */
+public class ColumnarReader implements Closeable {
+
+    private final EndOfInputTrackingStream input;
+    private final BufferAllocator allocator;
+    private final ArrowStreamReader reader;
+    private final VectorSchemaRoot root;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<ColumnType> columnTypes = new ArrayList<>();
+    private boolean finished = false;
+    private boolean terminated = false;
+
+    public ColumnarReader(InputStream inputStream) throws IOException {
+        this.input = new EndOfInputTrackingStream(new BufferedInputStream(inputStream));
+        this.allocator = new RootAllocator();
+        this.reader = new ArrowStreamReader(input, allocator);
+        try {
+            this.root = reader.getVectorSchemaRoot();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+
+        for (Field field : root.getSchema().getFields()) {
+            columnNames.add(field.getName());
+            if (field.getDictionary() != null) {
+                columnTypes.add(ColumnType.DICTIONARY);
+            } else if (field.getType() instanceof ArrowType.Int) {
+                columnTypes.add(ColumnType.INT);
+            } else {
+                columnTypes.add(ColumnType.STRING);
+            }
+        }
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public List<ColumnType> getColumnTypes() {
+        return columnTypes;
+    }
+
+    /**
+     * Read the next batch, as the list of values of each column (String or Integer)
+     *
+     * @return the columns of the batch by name, or null when there are no more batches
+     */
+    public Map<String, List<Object>> nextBatch() throws IOException {
+        if (finished) {
+            return null;
+        }
+        try {
+            if (!reader.loadNextBatch()) {
+                finished = true;
+                // The end of stream marker is read without reaching the end of the input
+                terminated = !input.isEndReached();
+                return null;
+            }
+        } catch (IOException e) {
+            // Unterminated stream ending with a truncated batch
+            finished = true;
+            return null;
+        }
+
+        return readBatch();
+    }
+
+    /**
+     * Return true when the end of the stream has been read and it was terminated properly, false when the stream
+     * ended without end of stream marker, the batches following the last complete one being lost
+     */
+    public boolean isTerminated() {
+        return terminated;
+    }
+
+    private Map<String, List<Object>> readBatch() throws IOException {
+        int rowCount = root.getRowCount();
+        Map<String, List<Object>> batch = new LinkedHashMap<>();
+        for (int c = 0; c < columnNames.size(); c++) {
+            FieldVector vector = root.getVector(c);
+            List<Object> values = new ArrayList<>(rowCount);
+            switch (columnTypes.get(c)) {
+                case STRING:
+                    VarCharVector strings = (VarCharVector) vector;
+                    for (int i = 0; i < rowCount; i++) {
+                        values.add(strings.isNull(i) ? null : new String(strings.get(i), StandardCharsets.UTF_8));
+                    }
+                    break;
+                case DICTIONARY:
+                    Dictionary dictionary = reader.lookup(vector.getField().getDictionary().getId());
+                    VarCharVector entries = (VarCharVector) dictionary.getVector();
+                    IntVector indexes = (IntVector) vector;
+                    for (int i = 0; i < rowCount; i++) {
+                        values.add(indexes.isNull(i) ? null : new String(entries.get(indexes.get(i)), StandardCharsets.UTF_8));
+                    }
+                    break;
+                case INT:
+                    IntVector integers = (IntVector) vector;
+                    for (int i = 0; i < rowCount; i++) {
+                        values.add(integers.isNull(i) ? null : integers.get(i));
+                    }
+                    break;
+            }
+            batch.put(columnNames.get(c), values);
+        }
+
+        return batch;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } finally {
+            allocator.close();
+        }
+    }
+
+    /**
+     * Records whether the end of the input has been reached, to tell an unterminated stream from a terminated one
+     */
+    private static class EndOfInputTrackingStream extends FilterInputStream {
+        private boolean endReached = false;
+
+        EndOfInputTrackingStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            endReached |= read == -1;
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            endReached |= read == -1;
+            return read;
+        }
+
+        boolean isEndReached() {
+            return endReached;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.grobid.core.export;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.pojo.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes records in the Apache Arrow IPC streaming format, meant to be loaded by analytics tools
+ * (pyarrow, pandas, polars, DuckDB, Spark) without parsing text.
+ * <p>
+ * The records are written in record batches, each column of a batch being stored contiguously. The string
+ * columns with few distinct values (e.g. material class, section, link type) are dictionary-encoded: each batch
+ * is preceded by the dictionary of the values it uses, when it differs from the one of the previous batch
+ * (dictionary replacement), so that the dictionaries stay bounded by the batch size.
+ * <p>
+ * The records can be written one by one ({@link #write(Object)}), in which case they are batched
+ * automatically, or as a batch ({@link #appendBatch(Collection)}). The writer is thread-safe.
+ */
+public class ColumnarWriter<T> implements Closeable {
+
+    public static final String MEDIA_TYPE = "application/vnd.apache.arrow.stream";
+    public static final String EXTENSION = ".arrows";
+
+    static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private static final ArrowType.Int INT_32 = new ArrowType.Int(32, true);
+
+    private final OutputStream output;
+    private final List<Column<T>> columns;
+    private final int batchSize;
+
+    private final BufferAllocator allocator;
+    private final VectorSchemaRoot root;
+    private final ArrowStreamWriter writer;
+    // One dictionary for each column, null for the columns which are not dictionary-encoded
+    private final List<Dictionary> dictionaries = new ArrayList<>();
+
+    private final List<T> pending = new ArrayList<>();
+    private boolean closed = false;
+
+    public ColumnarWriter(OutputStream outputStream, List<Column<T>> columns) throws IOException {
+        this(outputStream, columns, DEFAULT_BATCH_SIZE);
+    }
+
+    public ColumnarWriter(OutputStream outputStream, List<Column<T>> columns, int batchSize) throws IOException {
+        this.output = new BufferedOutputStream(outputStream);
+        this.columns = columns;
+        this.batchSize = batchSize;
+        this.allocator = new RootAllocator();
+
+        DictionaryProvider.MapDictionaryProvider dictionaryProvider = new DictionaryProvider.MapDictionaryProvider();
+        List<Field> fields = new ArrayList<>();
+        for (int c = 0; c < columns.size(); c++) {
+            Column<T> column = columns.get(c);
+            switch (column.getType()) {
+                case STRING:
+                    fields.add(new Field(column.getName(), FieldType.nullable(ArrowType.Utf8.INSTANCE), null));
+                    dictionaries.add(null);
+                    break;
+                case DICTIONARY:
+                    DictionaryEncoding encoding = new DictionaryEncoding(c, false, INT_32);
+                    fields.add(new Field(column.getName(), new FieldType(true, INT_32, encoding), null));
+                    Dictionary dictionary = new Dictionary(new VarCharVector(column.getName() + "-dictionary", allocator), encoding);
+                    dictionaryProvider.put(dictionary);
+                    dictionaries.add(dictionary);
+                    break;
+                case INT:
+                    fields.add(new Field(column.getName(), FieldType.notNullable(INT_32), null));
+                    dictionaries.add(null);
+                    break;
+            }
+        }
+
+        this.root = VectorSchemaRoot.create(new Schema(fields), allocator);
+        this.writer = new ArrowStreamWriter(root, dictionaryProvider, output);
+        writer.start();
+    }
+
+    /**
+     * Add a record, the pending records are written as a batch once the batch size is reached
+     */
+    public synchronized void write(T record) throws IOException {
+        pending.add(record);
+        if (pending.size() >= batchSize) {
+            flushPending();
+        }
+    }
+
+    /**
+     * Write the pending records, then the records as one batch (e.g. all the records of a document)
+     */
+    public synchronized void appendBatch(Collection<T> records) throws IOException {
+        flushPending();
+        writeBatch(new ArrayList<>(records));
+    }
+
+    public synchronized void flush() throws IOException {
+        flushPending();
+        output.flush();
+    }
+
+    /**
+     * Write the pending records and the end of stream marker, then release the buffers and close the output stream
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushPending();
+            writer.close();
+        } finally {
+            root.close();
+            dictionaries.stream().filter(Objects::nonNull).forEach(d -> d.getVector().close());
+            allocator.close();
+        }
+    }
+
+    private void flushPending() throws IOException {
+        if (!pending.isEmpty()) {
+            writeBatch(pending);
+            pending.clear();
+        }
+    }
+
+    private void writeBatch(List<T> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        for (int c = 0; c < columns.size(); c++) {
+            Column<T> column = columns.get(c);
+            FieldVector vector = root.getVector(c);
+            vector.allocateNew();
+            switch (column.getType()) {
+                case STRING:
+                    fillStringVector((VarCharVector) vector, column, records);
+                    break;
+                case DICTIONARY:
+                    fillDictionaryVector((IntVector) vector, (VarCharVector) dictionaries.get(c).getVector(), column, records);
+                    break;
+                case INT:
+                    IntVector intVector = (IntVector) vector;
+                    for (int i = 0; i < records.size(); i++) {
+                        intVector.setSafe(i, column.getInt(records.get(i)));
+                    }
+                    break;
+            }
+            vector.setValueCount(records.size());
+        }
+        root.setRowCount(records.size());
+
+        writer.writeBatch();
+    }
+
+    private void fillStringVector(VarCharVector vector, Column<T> column, List<T> records) {
+        for (int i = 0; i < records.size(); i++) {
+            String value = column.getString(records.get(i));
+            if (value != null) {
+                vector.setSafe(i, value.getBytes(StandardCharsets.UTF_8));
+            } else {
+                vector.setNull(i);
+            }
+        }
+    }
+
+    /**
+     * Fill the indexes of the batch and the dictionary of the values used by the batch, in order of appearance
+     */
+    private void fillDictionaryVector(IntVector indexes, VarCharVector dictionaryVector, Column<T> column, List<T> records) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        dictionaryVector.allocateNew();
+        for (int i = 0; i < records.size(); i++) {
+            String value = column.getString(records.get(i));
+            if (value == null) {
+                indexes.setNull(i);
+                continue;
+            }
+            Integer index = dictionary.get(value);
+            if (index == null) {
+                index = dictionary.size();
+                dictionary.put(value, index);
+                dictionaryVector.setSafe(index, value.getBytes(StandardCharsets.UTF_8));
+            }
+            indexes.setSafe(i, index);
+        }
+        dictionaryVector.setValueCount(dictionary.size());
+    }
+}
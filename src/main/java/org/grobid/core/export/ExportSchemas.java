@@ -0,0 +1,54 @@
+package org.grobid.core.export;
+
+import org.grobid.core.data.SuperconEntry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Columns of the columnar export of the extracted entities ({@link SuperconEntry}) and of the spans ({@link SpanRecord})
+ */
+public class ExportSchemas {
+
+    public static final List<Column<SuperconEntry>> ENTRIES = Collections.unmodifiableList(Arrays.asList(
+        Column.string("id", SuperconEntry::getId),
+        Column.string("rawMaterial", SuperconEntry::getRawMaterial),
+        Column.string("materialId", SuperconEntry::getMaterialId),
+        Column.string("name", SuperconEntry::getName),
+        Column.string("formula", SuperconEntry::getFormula),
+        Column.string("doping", SuperconEntry::getDoping),
+        Column.string("shape", SuperconEntry::getShape),
+        Column.dictionary("materialClass", SuperconEntry::getMaterialClass),
+        Column.string("fabrication", SuperconEntry::getFabrication),
+        Column.string("substrate", SuperconEntry::getSubstrate),
+        Column.string("variables", SuperconEntry::getVariables),
+        Column.string("spaceGroup", SuperconEntry::getSpaceGroup),
+        Column.string("crystalStructure", SuperconEntry::getCrystalStructure),
+        Column.string("criticalTemperature", SuperconEntry::getCriticalTemperature),
+        Column.dictionary("criticalTemperatureMeasurementMethod", SuperconEntry::getCriticalTemperatureMeasurementMethod),
+        Column.string("appliedPressure", SuperconEntry::getAppliedPressure),
+        Column.dictionary("linkType", SuperconEntry::getLinkType),
+        Column.dictionary("section", SuperconEntry::getSection),
+        Column.dictionary("subsection", SuperconEntry::getSubsection),
+        Column.string("sentence", SuperconEntry::getSentence),
+        Column.dictionary("type", SuperconEntry::getType),
+        Column.dictionary("filename", SuperconEntry::getFilename)
+    ));
+
+    public static final List<Column<SpanRecord>> SPANS = Collections.unmodifiableList(Arrays.asList(
+        Column.dictionary("document", SpanRecord::getDocument),
+        Column.integer("passage", SpanRecord::getPassageIndex),
+        Column.dictionary("section", SpanRecord::getSection),
+        Column.dictionary("subsection", SpanRecord::getSubsection),
+        Column.string("id", r -> r.getSpan().getId()),
+        Column.string("text", r -> r.getSpan().getText()),
+        Column.dictionary("type", r -> r.getSpan().getType()),
+        Column.dictionary("source", r -> r.getSpan().getSource()),
+        Column.integer("offsetStart", r -> r.getSpan().getOffsetStart()),
+        Column.integer("offsetEnd", r -> r.getSpan().getOffsetEnd())
+    ));
+
+    private ExportSchemas() {
+    }
+}
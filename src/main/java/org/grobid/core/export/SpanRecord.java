@@ -0,0 +1,60 @@
+package org.grobid.core.export;
+
+import org.grobid.core.data.document.Span;
+import org.grobid.core.data.document.TextPassage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flat view of a span, with the document and the passage it belongs to, for the columnar export
+ */
+public class SpanRecord {
+    private final String document;
+    private final int passageIndex;
+    private final String section;
+    private final String subsection;
+    private final Span span;
+
+    public SpanRecord(String document, int passageIndex, String section, String subsection, Span span) {
+        this.document = document;
+        this.passageIndex = passageIndex;
+        this.section = section;
+        this.subsection = subsection;
+        this.span = span;
+    }
+
+    /**
+     * Flatten the spans of the passages of a document
+     */
+    public static List<SpanRecord> fromPassages(String document, List<TextPassage> passages) {
+        List<SpanRecord> records = new ArrayList<>();
+        for (int i = 0; i < passages.size(); i++) {
+            TextPassage passage = passages.get(i);
+            for (Span span : passage.getSpans()) {
+                records.add(new SpanRecord(document, i, passage.getSection(), passage.getSubSection(), span));
+            }
+        }
+        return records;
+    }
+
+    public String getDocument() {
+        return document;
+    }
+
+    public int getPassageIndex() {
+        return passageIndex;
+    }
+
+    public String getSection() {
+        return section;
+    }
+
+    public String getSubsection() {
+        return subsection;
+    }
+
+    public Span getSpan() {
+        return span;
+    }
+}
@@ -4,6 +4,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.grobid.core.layout.LayoutToken;
 import org.grobid.core.utilities.TextUtilities;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -45,38 +47,92 @@ public class FeaturesVectorSuperconductors {
 
     private boolean isNumberToken = false;
 
+    // Lexical part of the vector of the most recent token strings of each thread
+    private static final int LEXICAL_FEATURES_CACHE_SIZE = 20000;
+    private static final ThreadLocal<Map<String, String>> LEXICAL_FEATURES = ThreadLocal.withInitial(() ->
+        new LinkedHashMap<String, String>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > LEXICAL_FEATURES_CACHE_SIZE;
+            }
+        });
+
     public String printVector() {
         if (isBlank(string)) {
             return null;
         }
-        StringBuffer res = new StringBuffer();
+        StringBuilder res = new StringBuilder(128);
+        appendLexicalFeatures(res);
+        appendLayoutFeatures(res, fontStatus, fontSize, bold, italic, fontStyle, chemicalCompound, label);
+
+        return res.toString();
+    }
+
+    /**
+     * Write the features of the token directly to the output, without creating the features vector.
+     * The output is the same as {@code addFeatures(token, label, previousToken, compoundType).printVector()}, the
+     * features depending only on the text of the token are computed once per thread and reused.
+     *
+     * @return false if the token is blank and nothing has been written
+     */
+    public static boolean appendVector(StringBuilder output, LayoutToken token, String label,
+                                       LayoutToken previousToken, String compoundType) {
+        String string = token.getText();
+        if (isBlank(string)) {
+            return false;
+        }
+        output.append(LEXICAL_FEATURES.get().computeIfAbsent(string, FeaturesVectorSuperconductors::lexicalFeatures));
+        appendLayoutFeatures(output, fontStatus(token, previousToken), fontSize(token, previousToken),
+            token.isBold(), token.isItalic(), fontStyle(token), compoundType, label);
+
+        return true;
+    }
+
+    private static String lexicalFeatures(String string) {
+        FeaturesVectorSuperconductors featuresVector = new FeaturesVectorSuperconductors();
+        featuresVector.string = string;
+        setLexicalFeatures(featuresVector, string);
+
+        StringBuilder res = new StringBuilder(96);
+        featuresVector.appendLexicalFeatures(res);
+        return res.toString();
+    }
 
+    private void appendLexicalFeatures(StringBuilder res) {
         // token string (1)
         res.append(string);
 
         // lowercase string
-        res.append(" " + string.toLowerCase());
+        res.append(' ').append(string.toLowerCase());
 
         // prefix (4)
-        res.append(" ").append(TextUtilities.prefix(string, 1));
-        res.append(" ").append(TextUtilities.prefix(string, 2));
-        res.append(" ").append(TextUtilities.prefix(string, 3));
-        res.append(" ").append(TextUtilities.prefix(string, 4));
+        for (int i = 1; i <= 4; i++) {
+            res.append(' ');
+            if (string.length() <= i) {
+                res.append(string);
+            } else {
+                res.append(string, 0, i);
+            }
+        }
 
         // suffix (4)
-        res.append(" ").append(TextUtilities.suffix(string, 1));
-        res.append(" ").append(TextUtilities.suffix(string, 2));
-        res.append(" ").append(TextUtilities.suffix(string, 3));
-        res.append(" ").append(TextUtilities.suffix(string, 4));
+        for (int i = 1; i <= 4; i++) {
+            res.append(' ');
+            if (string.length() <= i) {
+                res.append(string);
+            } else {
+                res.append(string, string.length() - i, string.length());
+            }
+        }
 
         // capitalisation (1)
         if (digit.equals("ALLDIGIT"))
             res.append(" NOCAPS");
         else
-            res.append(" " + capitalisation);
+            res.append(' ').append(capitalisation);
 
         // digit information (1)
-        res.append(" " + digit);
+        res.append(' ').append(digit);
 
         // character information (1)
         if (singleChar)
@@ -85,42 +141,43 @@ public class FeaturesVectorSuperconductors {
             res.append(" 0");
 
         // punctuation information (1)
-        res.append(" " + punctType); // in case the token is a punctuation (NO otherwise)
+        res.append(' ').append(punctType); // in case the token is a punctuation (NO otherwise)
 
         // token length
         //res.append(" " + string.length());
 
         // shadow number
-        res.append(" " + shadowNumber);
+        res.append(' ').append(shadowNumber);
 
         // word shape
-        res.append(" " + wordShape);
+        res.append(' ').append(wordShape);
 
         // word shape trimmed
-        res.append(" " + wordShapeTrimmed);
+        res.append(' ').append(wordShapeTrimmed);
+    }
 
+    private static void appendLayoutFeatures(StringBuilder res, String fontStatus, String fontSize, boolean bold,
+                                             boolean italic, String fontStyle, String chemicalCompound, String label) {
         //Font status
-        res.append(" " + fontStatus);
+        res.append(' ').append(fontStatus);
 
         //Font size
-        res.append(" " + fontSize);
+        res.append(' ').append(fontSize);
 
-        res.append(" " + bold);
+        res.append(' ').append(bold);
 
-        res.append(" " + italic);
+        res.append(' ').append(italic);
 
-        res.append(" " + fontStyle);
+        res.append(' ').append(fontStyle);
 
         // value returned by a chemical recognitor
-        res.append(" " + chemicalCompound);
+        res.append(' ').append(chemicalCompound);
 
         // label - for training data (1)
         if (label != null)
-            res.append(" " + label + "");
+            res.append(' ').append(label);
         /*else
             res.append(" 0");*/
-
-        return res.toString();
     }
 
     /**
@@ -130,14 +187,32 @@ public class FeaturesVectorSuperconductors {
                                                             String label,
                                                             LayoutToken previousToken,
                                                             String compoundType) {
-        FeatureFactory featureFactory = FeatureFactory.getInstance();
-
         FeaturesVectorSuperconductors featuresVector = new FeaturesVectorSuperconductors();
         featuresVector.token = token;
         String string = token.getText();
         featuresVector.string = string;
         featuresVector.label = label;
 
+        setLexicalFeatures(featuresVector, string);
+
+        if (token.isBold())
+            featuresVector.bold = true;
+
+        if (token.isItalic())
+            featuresVector.italic = true;
+
+        featuresVector.fontStatus = fontStatus(token, previousToken);
+        featuresVector.fontSize = fontSize(token, previousToken);
+        featuresVector.fontStyle = fontStyle(token);
+
+        // Chemical compound
+        featuresVector.chemicalCompound = compoundType;
+
+        return featuresVector;
+    }
+
+    private static void setLexicalFeatures(FeaturesVectorSuperconductors featuresVector, String string) {
+        FeatureFactory featureFactory = FeatureFactory.getInstance();
 
         if (string.length() == 1) {
             featuresVector.singleChar = true;
@@ -185,51 +260,41 @@ public class FeaturesVectorSuperconductors {
         if (featuresVector.punctType == null)
             featuresVector.punctType = "NOPUNCT";
 
-        if (token.isBold())
-            featuresVector.bold = true;
+        featuresVector.shadowNumber = TextUtilities.shadowNumbers(string);
 
-        if (token.isItalic())
-            featuresVector.italic = true;
+        featuresVector.wordShape = TextUtilities.wordShape(string);
+
+        featuresVector.wordShapeTrimmed = TextUtilities.wordShapeTrimmed(string);
+    }
+
+    private static String fontStatus(LayoutToken token, LayoutToken previousToken) {
+        if (previousToken == null || StringUtils.equals(previousToken.getFont(), token.getFont())) {
+            return "SAMEFONT";
+        }
+        return "DIFFERENTFONT";
+    }
 
+    private static String fontSize(LayoutToken token, LayoutToken previousToken) {
         if (previousToken == null) {
-            featuresVector.fontStatus = "SAMEFONT";
-            featuresVector.fontSize = "SAMEFONTSIZE";
+            return "SAMEFONTSIZE";
+        }
+        if (previousToken.fontSize < token.fontSize) {
+            return "HIGHERFONT";
+        } else if (previousToken.fontSize == token.fontSize) {
+            return "SAMEFONTSIZE";
         } else {
-            if (StringUtils.equals(previousToken.getFont(), token.getFont())) {
-                featuresVector.fontStatus = "SAMEFONT";
-            } else {
-                featuresVector.fontStatus = "DIFFERENTFONT";
-            }
-
-            if (previousToken.fontSize < token.fontSize) {
-                featuresVector.fontSize = "HIGHERFONT";
-            } else if (previousToken.fontSize == token.fontSize) {
-                featuresVector.fontSize = "SAMEFONTSIZE";
-            } else {
-                featuresVector.fontSize = "LOWERFONT";
-            }
+            return "LOWERFONT";
         }
+    }
 
+    private static String fontStyle(LayoutToken token) {
         if (token.isSuperscript()) {
-            featuresVector.fontStyle = "SUPERSCRIPT";
+            return "SUPERSCRIPT";
         } else if (token.isSubscript()) {
-            featuresVector.fontStyle = "SUBSCRIPT";
+            return "SUBSCRIPT";
         } else {
-            featuresVector.fontStyle = "BASELINE";
+            return "BASELINE";
         }
-
-        featuresVector.shadowNumber = TextUtilities.shadowNumbers(string);
-
-        featuresVector.wordShape = TextUtilities.wordShape(string);
-
-        featuresVector.wordShapeTrimmed = TextUtilities.wordShapeTrimmed(string);
-
-        // Chemical compound
-        featuresVector.chemicalCompound = compoundType;
-
-        return featuresVector;
     }
 
 }
-
-	
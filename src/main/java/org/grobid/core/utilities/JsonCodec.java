@@ -0,0 +1,64 @@
+package org.grobid.core.utilities;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.grobid.core.data.document.DocumentResponse;
+import org.grobid.core.data.document.TextPassage;
+import org.grobid.core.data.external.chemDataExtractor.ChemicalSpan;
+import org.grobid.core.data.external.chemspot.Mention;
+import org.grobid.core.data.material.ChemicalComposition;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared JSON readers and writers used by the clients of the microservices and by the data classes.
+ * <p>
+ * The mapper is configured once (fail on unknown properties, allow single quotes), and the readers and writers
+ * are bound to their type upfront, so that the serializers and the introspection of the classes are built only
+ * the first time they are used. {@link ObjectReader} and {@link ObjectWriter} are immutable and can be shared
+ * between threads.
+ */
+public final class JsonCodec {
+
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true)
+        .configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
+
+    public static final ObjectReader TEXT_PASSAGES_READER = MAPPER.readerFor(new TypeReference<List<TextPassage>>() {
+    });
+    public static final ObjectWriter TEXT_PASSAGES_WRITER = MAPPER.writerFor(new TypeReference<List<TextPassage>>() {
+    });
+
+    public static final ObjectReader CHEMICAL_SPANS_READER = MAPPER.readerFor(new TypeReference<List<ChemicalSpan>>() {
+    });
+    public static final ObjectReader CHEMICAL_SPANS_BULK_READER = MAPPER.readerFor(new TypeReference<List<List<ChemicalSpan>>>() {
+    });
+
+    public static final ObjectReader CHEMICAL_COMPOSITION_READER = MAPPER.readerFor(ChemicalComposition.class);
+
+    public static final ObjectReader DOCUMENT_RESPONSE_READER = MAPPER.readerFor(DocumentResponse.class);
+
+    public static final ObjectReader MENTIONS_READER = MAPPER.readerFor(new TypeReference<List<Mention>>() {
+    });
+
+    public static final ObjectReader STRINGS_READER = MAPPER.readerFor(new TypeReference<List<String>>() {
+    });
+    public static final ObjectReader STRINGS_BULK_READER = MAPPER.readerFor(new TypeReference<List<List<String>>>() {
+    });
+    public static final ObjectWriter STRINGS_WRITER = MAPPER.writerFor(new TypeReference<List<String>>() {
+    });
+
+    public static final ObjectReader MAP_READER = MAPPER.readerFor(LinkedHashMap.class);
+
+    public static final TypeReference<Map<String, Object>> ATTRIBUTES_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    private JsonCodec() {
+    }
+}
@@ -0,0 +1,115 @@
+package org.grobid.core.utilities;
+
+import org.apache.commons.io.FileUtils;
+import org.grobid.service.configuration.UploadConfiguration;
+import org.grobid.service.exceptions.GrobidServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.Response;
+import java.io.*;
+
+/**
+ * Spools the uploaded documents to a file, which is needed by pdfalto, avoiding the disk for the small ones.
+ * <p>
+ * The upload is buffered in memory up to the memory threshold, then written at once in the memory-backed
+ * directory (tmpfs). When the upload goes over the threshold the buffer is flushed to the temporary directory
+ * on disk and the rest of the upload is streamed there. The upload is rejected as soon as it goes over the
+ * maximum size, without reading the rest of it.
+ */
+public class UploadSpooler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadSpooler.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PREFIX = "origin";
+    private static final String SUFFIX = ".pdf";
+
+    private final long maxSize;
+    private final long memoryThreshold;
+    private final File memoryDirectory;
+    private final String directory;
+
+    public UploadSpooler(UploadConfiguration configuration) {
+        this.maxSize = configuration.getMaxSize().toBytes();
+        this.memoryThreshold = Math.min(configuration.getMemoryThreshold().toBytes(), this.maxSize);
+
+        File memoryDirectory = configuration.getMemoryDirectory() != null ? new File(configuration.getMemoryDirectory()) : null;
+        if (memoryDirectory != null && !(memoryDirectory.isDirectory() && memoryDirectory.canWrite())) {
+            LOGGER.info("The memory directory " + memoryDirectory + " is not available, the uploads will be spooled to the temporary directory. ");
+            memoryDirectory = null;
+        }
+        this.memoryDirectory = memoryDirectory;
+        this.directory = configuration.getDirectory();
+    }
+
+    /**
+     * Spool the upload to a temporary file, which must be removed by the caller
+     *
+     * @throws GrobidServiceException when the upload is bigger than the maximum size
+     */
+    public File spool(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream memoryBuffer = new ByteArrayOutputStream(BUFFER_SIZE);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            memoryBuffer.write(buffer, 0, read);
+            if (memoryBuffer.size() > memoryThreshold) {
+                File file = File.createTempFile(PREFIX, SUFFIX, getDiskDirectory());
+                try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file))) {
+                    memoryBuffer.writeTo(outputStream);
+                    copy(inputStream, outputStream, memoryBuffer.size());
+                } catch (IOException | RuntimeException e) {
+                    FileUtils.deleteQuietly(file);
+                    throw e;
+                }
+                return file;
+            }
+        }
+
+        File file = File.createTempFile(PREFIX, SUFFIX, memoryDirectory != null ? memoryDirectory : getDiskDirectory());
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            memoryBuffer.writeTo(outputStream);
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * Copy the upload to the target file, checking the maximum size
+     *
+     * @throws GrobidServiceException when the upload is bigger than the maximum size
+     */
+    public void spool(InputStream inputStream, File target) throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(target))) {
+            copy(inputStream, outputStream, 0);
+        } catch (IOException | RuntimeException e) {
+            FileUtils.deleteQuietly(target);
+            throw e;
+        }
+    }
+
+    private void copy(InputStream inputStream, OutputStream outputStream, long alreadyCopied) throws IOException {
+        long total = alreadyCopied;
+        checkSize(total);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            total += read;
+            checkSize(total);
+            outputStream.write(buffer, 0, read);
+        }
+    }
+
+    private void checkSize(long size) {
+        if (size > maxSize) {
+            throw new GrobidServiceException("The uploaded document is bigger than the maximum size allowed (" + maxSize + " bytes). ",
+                Response.Status.REQUEST_ENTITY_TOO_LARGE);
+        }
+    }
+
+    private File getDiskDirectory() {
+        return directory != null ? new File(directory) : GrobidProperties.getTempPath();
+    }
+}
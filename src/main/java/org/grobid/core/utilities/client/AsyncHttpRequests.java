@@ -0,0 +1,99 @@
+package org.grobid.core.utilities.client;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Execution of the requests on the non-blocking clients of {@link ServiceHttpTransport}.
+ * The response is deserialised with the given reader, the future completes exceptionally when the request fails,
+ * the answer is not OK or cannot be deserialised, and with a {@link CircuitOpenException} when the circuit
+ * breaker of the service is open.
+ */
+final class AsyncHttpRequests {
+
+    private AsyncHttpRequests() {
+    }
+
+    static <T> CompletableFuture<T> execute(CloseableHttpAsyncClient client, CircuitBreaker circuitBreaker,
+                                            HttpEntityEnclosingRequestBase request, ObjectReader reader) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (!circuitBreaker.allowRequest()) {
+            result.completeExceptionally(new CircuitOpenException(circuitBreaker.getService()));
+            return result;
+        }
+
+        try {
+            // The multipart entities cannot be read as stream, they are buffered before being sent
+            if (request.getEntity() != null) {
+                request.setEntity(buffered(request.getEntity()));
+            }
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        client.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                if (CircuitBreakingHttpClient.isFailure(statusCode)) {
+                    circuitBreaker.recordFailure();
+                } else {
+                    circuitBreaker.recordSuccess();
+                }
+
+                if (statusCode != HttpURLConnection.HTTP_OK) {
+                    result.completeExceptionally(new HttpResponseException(statusCode, "Not OK answer. Status code: " + statusCode));
+                    return;
+                }
+                try {
+                    result.complete(reader.readValue(response.getEntity().getContent()));
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                circuitBreaker.recordFailure();
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                result.completeExceptionally(new CancellationException("The request " + request.getURI() + " has been cancelled. "));
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Return the cause of the failure of the future
+     */
+    static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+
+    private static HttpEntity buffered(HttpEntity entity) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        entity.writeTo(output);
+        ByteArrayEntity bufferedEntity = new ByteArrayEntity(output.toByteArray());
+        bufferedEntity.setContentType(entity.getContentType());
+
+        return bufferedEntity;
+    }
+}
@@ -1,18 +1,15 @@
 package org.grobid.core.utilities.client;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.grobid.core.data.external.chemDataExtractor.ChemicalSpan;
+import org.grobid.core.utilities.JsonCodec;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,10 +23,10 @@ import java.net.HttpURLConnection;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
-import static org.grobid.core.utilities.client.LinkingModuleClient.toJson_listOfString;
 
 @Singleton
 public class ChemDataExtractorClient {
@@ -38,72 +35,94 @@ public class ChemDataExtractorClient {
     private final String serverUrl;
     private GrobidSuperconductorsConfiguration configuration;
     private CloseableHttpClient httpClient;
+    private ServiceHttpTransport transport;
 
     public ChemDataExtractorClient(String serverUrl) {
         this.serverUrl = serverUrl;
-        this.httpClient = HttpClientBuilder.create().build();
+        this.transport = new ServiceHttpTransport(new GrobidSuperconductorsConfiguration());
+        this.httpClient = transport.getHttpClient(ServiceHttpTransport.CHEM_DATA_EXTRACTOR);
     }
 
-    @Inject
     public ChemDataExtractorClient(GrobidSuperconductorsConfiguration configuration) {
+        this(configuration, new ServiceHttpTransport(configuration));
+    }
+
+    @Inject
+    public ChemDataExtractorClient(GrobidSuperconductorsConfiguration configuration, ServiceHttpTransport transport) {
         this.configuration = configuration;
         this.serverUrl = configuration.getChemDataExtractorUrl();
-        this.httpClient = HttpClientBuilder.create().build();
+        this.transport = transport;
+        this.httpClient = transport.getHttpClient(ServiceHttpTransport.CHEM_DATA_EXTRACTOR);
     }
 
+    /**
+     * Annotate the passages, they are sent in chunks according to the bulk requests configuration.
+     * When a chunk fails, its passages have no mentions.
+     */
     public List<List<ChemicalSpan>> processBulk(List<String> texts) {
-        List<List<ChemicalSpan>> mentions = texts.stream()
-            .map(a -> new ArrayList<ChemicalSpan>())
-            .collect(Collectors.toList());
-
-        //Unless we are using wapiti or delft + FEATURES there is no need to call this client 
-        if (this.configuration.getModels()
-            .stream()
-            .anyMatch(m -> m.name.equals("superconductors")
-                && (m.engine.equals("delft")
-                && !m.delft.architecture.endsWith("FEATURES")))) {
+        return processBulkAsync(texts).join();
+    }
 
-            return mentions;
+    /**
+     * Same as {@link #processBulk(List)}, without blocking the calling thread. The future never completes
+     * exceptionally.
+     */
+    public CompletableFuture<List<List<ChemicalSpan>>> processBulkAsync(List<String> texts) {
+        if (!isChemicalAnnotationNeeded()) {
+            return CompletableFuture.completedFuture(emptyMentions(texts));
         }
 
+        return ChunkedBulkRequest.execute(texts, configuration.getBulkRequests(), this::requestBulk, ArrayList::new);
+    }
+
+    /**
+     * Send a single bulk request, the future completes exceptionally if the request fails
+     */
+    private CompletableFuture<List<List<ChemicalSpan>>> requestBulk(List<String> texts) {
         try {
-            final HttpPost request = new HttpPost(serverUrl + "/process/bulk");
-            request.setHeader("Accept", APPLICATION_JSON);
+            return transport.executeAsync(ServiceHttpTransport.CHEM_DATA_EXTRACTOR, bulkRequest(texts),
+                JsonCodec.CHEMICAL_SPANS_BULK_READER);
+        } catch (IOException e) {
+            CompletableFuture<List<List<ChemicalSpan>>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
 
-            MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-            builder.addTextBody("input", toJson_listOfString(texts));
+    private HttpPost bulkRequest(List<String> texts) throws IOException {
+        final HttpPost request = new HttpPost(serverUrl + "/process/bulk");
+        request.setHeader("Accept", APPLICATION_JSON);
 
-            HttpEntity multipart = builder.build();
-            request.setEntity(multipart);
+        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
+        builder.addBinaryBody("input", JsonCodec.STRINGS_WRITER.writeValueAsBytes(texts), ContentType.APPLICATION_JSON, null);
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                if (response.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_OK) {
-                    LOGGER.error("Not OK answer. Status code: " + response.getStatusLine().getStatusCode());
-                } else {
-                    List<List<ChemicalSpan>> respondedEntities = fromJsonBulk(response.getEntity().getContent());
-                    mentions = respondedEntities != null ? respondedEntities : mentions;
-                }
-            }
+        HttpEntity multipart = builder.build();
+        request.setEntity(multipart);
 
-        } catch (UnknownHostException | ConnectException e) {
-            LOGGER.warn("Chemdata extractor is unreachable. Ignoring it. ");
-        } catch (IOException e) {
-            LOGGER.error("Something generically bad happened. ", e);
-        }
+        return request;
+    }
 
-        return mentions;
+    private static List<List<ChemicalSpan>> emptyMentions(List<String> texts) {
+        return texts.stream()
+            .map(a -> new ArrayList<ChemicalSpan>())
+            .collect(Collectors.toList());
     }
-    
-    public List<ChemicalSpan> processText(String text) {
-        List<ChemicalSpan> mentions = new ArrayList<>();
 
-        //Unless we are using wapiti or delft + FEATURES there is no need to call this client 
-        if (this.configuration.getModels()
+    /**
+     * Unless we are using wapiti or delft + FEATURES there is no need to call this client
+     */
+    private boolean isChemicalAnnotationNeeded() {
+        return this.configuration.getModels()
             .stream()
-            .anyMatch(m -> m.name.equals("superconductors")
+            .noneMatch(m -> m.name.equals("superconductors")
                 && (m.engine.equals("delft")
-                && !m.delft.architecture.endsWith("FEATURES")))) {
+                && !m.delft.architecture.endsWith("FEATURES")));
+    }
+
+    public List<ChemicalSpan> processText(String text) {
+        List<ChemicalSpan> mentions = new ArrayList<>();
 
+        if (!isChemicalAnnotationNeeded()) {
             return mentions;
         }
 
@@ -142,11 +161,7 @@ public class ChemDataExtractorClient {
 
     public List<ChemicalSpan> fromJson(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<List<ChemicalSpan>>() {
-            });
+            return JsonCodec.CHEMICAL_SPANS_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
@@ -157,11 +172,7 @@ public class ChemDataExtractorClient {
 
     public static List<List<ChemicalSpan>> fromJsonBulk(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<List<List<ChemicalSpan>>>() {
-            });
+            return JsonCodec.CHEMICAL_SPANS_BULK_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
@@ -1,19 +1,17 @@
 package org.grobid.core.utilities.client;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
-import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.grobid.core.data.material.ChemicalComposition;
+import org.grobid.core.utilities.JsonCodec;
+import org.grobid.service.configuration.BulkRequestsConfiguration;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,10 +20,15 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -36,22 +39,61 @@ public class ChemicalMaterialParserClient {
     private final String serverUrl;
     private GrobidSuperconductorsConfiguration configuration;
     private CloseableHttpClient httpClient;
+    private ServiceResponseCache<ChemicalComposition> nameToFormulaCache;
+    private ServiceResponseCache<ChemicalComposition> formulaToCompositionCache;
+    private ServiceHttpTransport transport;
+    private BulkRequestsConfiguration concurrentRequests;
 
     public ChemicalMaterialParserClient(String serverUrl) {
         this.serverUrl = serverUrl;
-        this.httpClient = HttpClientBuilder.create().build();
+        this.transport = new ServiceHttpTransport(new GrobidSuperconductorsConfiguration());
+        this.httpClient = transport.getHttpClient(ServiceHttpTransport.CHEMICAL_MATERIAL_PARSER);
+        this.concurrentRequests = concurrentRequests(new GrobidSuperconductorsConfiguration());
+        initCaches(new ServiceResponseCaches(new GrobidSuperconductorsConfiguration()));
     }
 
-    @Inject
     public ChemicalMaterialParserClient(GrobidSuperconductorsConfiguration configuration) {
+        this(configuration, new ServiceHttpTransport(configuration), new ServiceResponseCaches(configuration));
+    }
+
+    @Inject
+    public ChemicalMaterialParserClient(GrobidSuperconductorsConfiguration configuration, ServiceHttpTransport transport,
+                                        ServiceResponseCaches caches) {
         this.configuration = configuration;
         this.serverUrl = configuration.getClassResolverUrl();
-        this.httpClient = HttpClientBuilder.create().build();
+        this.transport = transport;
+        this.httpClient = transport.getHttpClient(ServiceHttpTransport.CHEMICAL_MATERIAL_PARSER);
+        this.concurrentRequests = concurrentRequests(configuration);
+        initCaches(caches);
+    }
+
+    private void initCaches(ServiceResponseCaches caches) {
+        this.nameToFormulaCache = caches.get(ServiceResponseCaches.NAME_FORMULA,
+            new TypeReference<Map<String, ChemicalComposition>>() {
+            });
+        this.formulaToCompositionCache = caches.get(ServiceResponseCaches.FORMULA_COMPOSITION,
+            new TypeReference<Map<String, ChemicalComposition>>() {
+            });
     }
 
     public ChemicalComposition convertNameToFormula(String name) {
+        ChemicalComposition outputFormula = nameToFormulaCache.get(name, this::requestNameToFormula);
+
+        return outputFormula != null ? new ChemicalComposition(outputFormula) : new ChemicalComposition();
+    }
 
-        ChemicalComposition outputFormula = new ChemicalComposition();
+    public ChemicalComposition convertFormulaToComposition(String formula) {
+        ChemicalComposition outputComposition = formulaToCompositionCache.get(formula, this::requestFormulaToComposition);
+
+        return outputComposition != null ? new ChemicalComposition(outputComposition) : new ChemicalComposition();
+    }
+
+    /**
+     * Request the conversion name -> formula, returns null if the request failed
+     */
+    private ChemicalComposition requestNameToFormula(String name) {
+
+        ChemicalComposition outputFormula = null;
         try {
             final HttpPost request = new HttpPost(serverUrl + "/convert/name/formula");
             request.setHeader("Accept", APPLICATION_JSON);
@@ -73,7 +115,7 @@ public class ChemicalMaterialParserClient {
                 }
             }
 
-        } catch (UnknownHostException e) {
+        } catch (UnknownHostException | ConnectException e) {
             LOGGER.warn("The service is unreachable. Input: " + name + ". Ignoring it. ", e);
         } catch (IOException e) {
             LOGGER.error("Something generally bad happened. Input: " + name + ".", e);
@@ -82,9 +124,12 @@ public class ChemicalMaterialParserClient {
         return outputFormula;
     }
 
-    public ChemicalComposition convertFormulaToComposition(String formula) {
+    /**
+     * Request the conversion formula -> composition, returns null if the request failed
+     */
+    private ChemicalComposition requestFormulaToComposition(String formula) {
 
-        ChemicalComposition outputComposition = new ChemicalComposition();
+        ChemicalComposition outputComposition = null;
         try {
             final HttpPost request = new HttpPost(serverUrl + "/convert/formula/composition");
             request.setHeader("Accept", APPLICATION_JSON);
@@ -104,7 +149,7 @@ public class ChemicalMaterialParserClient {
                 }
             }
 
-        } catch (UnknownHostException e) {
+        } catch (UnknownHostException | ConnectException e) {
             LOGGER.warn("The service is unreachable. Input: " + formula + ".  Ignoring it. ", e);
         } catch (IOException e) {
             LOGGER.error("Something generally bad happened. ", e);
@@ -113,12 +158,82 @@ public class ChemicalMaterialParserClient {
         return outputComposition;
     }
 
+    /**
+     * Convert a list of names to formulas, the names which are not cached are requested concurrently.
+     */
+    public List<ChemicalComposition> convertNamesToFormulas(List<String> names) {
+        return convertConcurrently("/convert/name/formula", names, nameToFormulaCache);
+    }
+
+    /**
+     * Convert a list of formulas to compositions, the formulas which are not cached are requested concurrently.
+     */
+    public List<ChemicalComposition> convertFormulasToCompositions(List<String> formulas) {
+        return convertConcurrently("/convert/formula/composition", formulas, formulaToCompositionCache);
+    }
+
+    /**
+     * The service has no bulk endpoint: one request per input is sent with the non-blocking client, with at most
+     * as many requests in flight as connections to the service. A failed request only affects its input, which
+     * gets an empty composition and is not cached.
+     */
+    private List<ChemicalComposition> convertConcurrently(String path, List<String> inputs,
+                                                          ServiceResponseCache<ChemicalComposition> cache) {
+        Map<String, ChemicalComposition> results = cache.getAllPresent(inputs);
+
+        List<String> missingInputs = inputs.stream()
+            .filter(i -> !results.containsKey(i))
+            .distinct()
+            .collect(Collectors.toList());
+
+        if (!missingInputs.isEmpty()) {
+            List<ChemicalComposition> outputCompositions = ChunkedBulkRequest.<ChemicalComposition>execute(missingInputs,
+                concurrentRequests,
+                input -> requestAsync(path, input.get(0)).thenApply(Collections::singletonList),
+                () -> null).join();
+            LOGGER.debug("Converted " + missingInputs.size() + " inputs with " + path + ". ");
+
+            for (int i = 0; i < missingInputs.size(); i++) {
+                if (outputCompositions.get(i) != null) {
+                    cache.put(missingInputs.get(i), outputCompositions.get(i));
+                    results.put(missingInputs.get(i), outputCompositions.get(i));
+                }
+            }
+        }
+
+        return inputs.stream()
+            .map(i -> results.containsKey(i) && results.get(i) != null ? new ChemicalComposition(results.get(i)) : new ChemicalComposition())
+            .collect(Collectors.toList());
+    }
+
+    private CompletableFuture<ChemicalComposition> requestAsync(String path, String input) {
+        final HttpPost request = new HttpPost(serverUrl + path);
+        request.setHeader("Accept", APPLICATION_JSON);
+
+        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
+        builder.setCharset(StandardCharsets.UTF_8);
+        builder.addTextBody("input", input, ContentType.APPLICATION_JSON);
+        request.setEntity(builder.build());
+
+        return transport.executeAsync(ServiceHttpTransport.CHEMICAL_MATERIAL_PARSER, request, JsonCodec.CHEMICAL_COMPOSITION_READER);
+    }
+
+    /**
+     * Each input is sent alone, the concurrency is limited by the connections to the service
+     */
+    private static BulkRequestsConfiguration concurrentRequests(GrobidSuperconductorsConfiguration configuration) {
+        BulkRequestsConfiguration concurrentRequests = new BulkRequestsConfiguration();
+        concurrentRequests.setMaxPassages(1);
+        concurrentRequests.setMaxCharacters(Integer.MAX_VALUE);
+        concurrentRequests.setMaxConcurrentChunks(configuration.getHttpClient(ServiceHttpTransport.CHEMICAL_MATERIAL_PARSER).getMaxConnectionsPerRoute());
+        concurrentRequests.setMaxRetries(0);
+
+        return concurrentRequests;
+    }
+
     public String toJson(List<String> passage) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.writeValueAsString(passage);
+            return JsonCodec.STRINGS_WRITER.writeValueAsString(passage);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + passage + "\n ", e);
         } catch (IOException e) {
@@ -129,11 +244,7 @@ public class ChemicalMaterialParserClient {
 
     public List<String> fromJson(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<List<String>>() {
-            });
+            return JsonCodec.STRINGS_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
@@ -144,11 +255,7 @@ public class ChemicalMaterialParserClient {
 
     public static ChemicalComposition fromJsonToChemicalComposition(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<ChemicalComposition>() {
-            });
+            return JsonCodec.CHEMICAL_COMPOSITION_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
@@ -159,11 +266,7 @@ public class ChemicalMaterialParserClient {
 
     public List<List<String>> fromJsonMultiple(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<List<String>>() {
-            });
+            return JsonCodec.STRINGS_BULK_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
@@ -1,18 +1,14 @@
 package org.grobid.core.utilities.client;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.grobid.core.data.external.chemspot.Mention;
+import org.grobid.core.utilities.JsonCodec;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +17,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
@@ -38,14 +35,18 @@ public class ChemspotClient {
 
     public ChemspotClient(String chemspotUrl) {
         this.chemspotUrl = chemspotUrl;
-        this.httpClient = HttpClientBuilder.create().build();
+        this.httpClient = new ServiceHttpTransport(new GrobidSuperconductorsConfiguration()).getHttpClient(ServiceHttpTransport.CHEMSPOT);
     }
 
-    @Inject
     public ChemspotClient(GrobidSuperconductorsConfiguration configuration) {
+        this(configuration, new ServiceHttpTransport(configuration));
+    }
+
+    @Inject
+    public ChemspotClient(GrobidSuperconductorsConfiguration configuration, ServiceHttpTransport transport) {
         this.configuration = configuration;
         this.chemspotUrl = configuration.getChemspotUrl();
-        this.httpClient = HttpClientBuilder.create().build();
+        this.httpClient = transport.getHttpClient(ServiceHttpTransport.CHEMSPOT);
     }
 
     public List<Mention> processText(String text) {
@@ -74,7 +75,7 @@ public class ChemspotClient {
                 }
             }
 
-        } catch (UnknownHostException e) {
+        } catch (UnknownHostException | ConnectException e) {
             LOGGER.warn("Chemspot is unreachable. Ignoring it. ");
         } catch (IOException e) {
             LOGGER.error("Something generically bad happened. ", e);
@@ -85,11 +86,7 @@ public class ChemspotClient {
 
     public List<Mention> fromJson(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<List<Mention>>() {
-            });
+            return JsonCodec.MENTIONS_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
@@ -0,0 +1,162 @@
+package org.grobid.core.utilities.client;
+
+import org.grobid.service.configuration.BulkRequestsConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bulk request split in chunks, limited in number of inputs and total characters.
+ * At most `maxConcurrentChunks` chunks are requested at the same time, the next chunk is sent as soon as one
+ * completes. A chunk which fails, or whose result does not have one element per input, is retried on its own;
+ * when the retries are exhausted (or the service is unreachable) its inputs get the fallback result.
+ * <p>
+ * The results are reassembled in the same order as the inputs, the returned future never completes exceptionally.
+ */
+public class ChunkedBulkRequest<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkedBulkRequest.class);
+
+    private final List<String> inputs;
+    private final List<int[]> chunks;
+    private final Function<List<String>, CompletableFuture<List<T>>> request;
+    private final Supplier<T> fallback;
+    private final int maxConcurrentChunks;
+    private final int maxRetries;
+
+    private final Object[] results;
+    private final AtomicInteger nextChunk = new AtomicInteger();
+    private final AtomicInteger remainingChunks;
+    private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+
+    private ChunkedBulkRequest(List<String> inputs, BulkRequestsConfiguration configuration,
+                               Function<List<String>, CompletableFuture<List<T>>> request, Supplier<T> fallback) {
+        this.inputs = inputs;
+        this.chunks = split(inputs, configuration.getMaxPassages(), configuration.getMaxCharacters());
+        this.request = request;
+        this.fallback = fallback;
+        this.maxConcurrentChunks = Math.max(1, configuration.getMaxConcurrentChunks());
+        this.maxRetries = Math.max(0, configuration.getMaxRetries());
+        this.results = new Object[inputs.size()];
+        this.remainingChunks = new AtomicInteger(chunks.size());
+    }
+
+    /**
+     * Send the inputs in chunks with the request function, which receives the inputs of a chunk and returns one
+     * result for each of them
+     *
+     * @return the results of all the inputs, in the same order
+     */
+    public static <T> CompletableFuture<List<T>> execute(List<String> inputs, BulkRequestsConfiguration configuration,
+                                                         Function<List<String>, CompletableFuture<List<T>>> request,
+                                                         Supplier<T> fallback) {
+        ChunkedBulkRequest<T> bulkRequest = new ChunkedBulkRequest<>(inputs, configuration, request, fallback);
+        if (bulkRequest.chunks.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        LOGGER.debug("Sending " + inputs.size() + " inputs in " + bulkRequest.chunks.size() + " chunks. ");
+
+        int initialChunks = Math.min(bulkRequest.maxConcurrentChunks, bulkRequest.chunks.size());
+        for (int i = 0; i < initialChunks; i++) {
+            bulkRequest.sendNext();
+        }
+
+        return bulkRequest.result;
+    }
+
+    /**
+     * Split the inputs in consecutive chunks of at most maxInputs inputs and maxCharacters characters.
+     * An input longer than maxCharacters is put in a chunk alone.
+     *
+     * @return the boundaries (start inclusive, end exclusive) of each chunk
+     */
+    public static List<int[]> split(List<String> inputs, int maxInputs, int maxCharacters) {
+        List<int[]> chunks = new ArrayList<>();
+        int start = 0;
+        int characters = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            int length = inputs.get(i) != null ? inputs.get(i).length() : 0;
+            if (i > start && (i - start >= maxInputs || characters + length > maxCharacters)) {
+                chunks.add(new int[]{start, i});
+                start = i;
+                characters = 0;
+            }
+            characters += length;
+        }
+        if (start < inputs.size()) {
+            chunks.add(new int[]{start, inputs.size()});
+        }
+
+        return chunks;
+    }
+
+    private void sendNext() {
+        int index = nextChunk.getAndIncrement();
+        if (index < chunks.size()) {
+            send(index, 0);
+        }
+    }
+
+    private void send(int index, int attempt) {
+        int[] chunk = chunks.get(index);
+        List<String> chunkInputs = inputs.subList(chunk[0], chunk[1]);
+
+        CompletableFuture<List<T>> chunkResult;
+        try {
+            chunkResult = request.apply(chunkInputs);
+        } catch (RuntimeException e) {
+            chunkResult = new CompletableFuture<>();
+            chunkResult.completeExceptionally(e);
+        }
+
+        chunkResult.whenComplete((chunkResults, throwable) -> {
+            if (throwable == null && chunkResults != null && chunkResults.size() == chunkInputs.size()) {
+                for (int i = 0; i < chunkResults.size(); i++) {
+                    results[chunk[0] + i] = chunkResults.get(i);
+                }
+            } else {
+                Throwable cause = throwable != null ? AsyncHttpRequests.unwrap(throwable) : null;
+                boolean unreachable = cause instanceof UnknownHostException || cause instanceof ConnectException;
+
+                if (!unreachable && attempt < maxRetries) {
+                    LOGGER.debug("The chunk " + index + " (" + chunkInputs.size() + " inputs) failed, retrying. ");
+                    send(index, attempt + 1);
+                    return;
+                }
+
+                if (unreachable) {
+                    LOGGER.warn("The service is unreachable. Ignoring the chunk " + index + " (" + chunkInputs.size() + " inputs). ");
+                } else if (cause != null) {
+                    LOGGER.error("The chunk " + index + " (" + chunkInputs.size() + " inputs) failed after " + (attempt + 1) + " attempts. ", cause);
+                } else {
+                    LOGGER.error("The chunk " + index + " (" + chunkInputs.size() + " inputs) returned "
+                        + (chunkResults != null ? chunkResults.size() : 0) + " results, after " + (attempt + 1) + " attempts. ");
+                }
+                for (int i = chunk[0]; i < chunk[1]; i++) {
+                    results[i] = fallback.get();
+                }
+            }
+
+            if (remainingChunks.decrementAndGet() == 0) {
+                complete();
+            } else {
+                sendNext();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void complete() {
+        List<T> output = new ArrayList<>();
+        Arrays.stream(results).forEach(r -> output.add((T) r));
+        result.complete(output);
+    }
+}
@@ -0,0 +1,111 @@
+package org.grobid.core.utilities.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.grobid.service.configuration.CircuitBreakerConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of a microservice.
+ * <ul>
+ * <li>closed: the calls go through, the breaker opens after `failureThreshold` consecutive failures</li>
+ * <li>open: the calls are rejected immediately, after `openDuration` a single trial call is let through</li>
+ * <li>half-open: the trial call is running, it closes the breaker if it succeeds, or opens it again</li>
+ * </ul>
+ * The state and the number of rejected calls are registered in the metric registry under the name of the service.
+ */
+public class CircuitBreaker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String service;
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier clock;
+    private final Meter rejected;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    // When the breaker has been opened, or the last trial call let through
+    private long openedAt = 0;
+
+    public CircuitBreaker(String service, CircuitBreakerConfiguration configuration, MetricRegistry metricRegistry) {
+        this(service, configuration, metricRegistry, System::nanoTime);
+    }
+
+    CircuitBreaker(String service, CircuitBreakerConfiguration configuration, MetricRegistry metricRegistry, LongSupplier clock) {
+        this.service = service;
+        this.enabled = configuration.isEnabled() && configuration.getFailureThreshold() > 0;
+        this.failureThreshold = configuration.getFailureThreshold();
+        this.openDurationNanos = configuration.getOpenDuration().toNanoseconds();
+        this.clock = clock;
+
+        metricRegistry.register(MetricRegistry.name(service, "circuit-breaker", "state"), (Gauge<String>) () -> getState().name());
+        this.rejected = metricRegistry.meter(MetricRegistry.name(service, "circuit-breaker", "rejected"));
+    }
+
+    /**
+     * Return true if the call can be sent to the service, its outcome must then be recorded with
+     * {@link #recordSuccess()} or {@link #recordFailure()}
+     */
+    public synchronized boolean allowRequest() {
+        if (!enabled || state == State.CLOSED) {
+            return true;
+        }
+
+        long now = clock.getAsLong();
+        if (now - openedAt >= openDurationNanos) {
+            // The trial call: when its outcome is never recorded, another one is let through after the same time
+            if (state == State.OPEN) {
+                LOGGER.info("The circuit breaker of " + service + " is half-open, trying a call. ");
+            }
+            state = State.HALF_OPEN;
+            openedAt = now;
+            return true;
+        }
+
+        rejected.mark();
+        return false;
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            LOGGER.info("The circuit breaker of " + service + " is closed, the service is reachable again. ");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void recordFailure() {
+        if (!enabled) {
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            LOGGER.warn("The circuit breaker of " + service + " is open after " + consecutiveFailures
+                + " consecutive failures, the service is skipped. ");
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public long getRejectedCalls() {
+        return rejected.getCount();
+    }
+
+    public String getService() {
+        return service;
+    }
+}
@@ -0,0 +1,71 @@
+package org.grobid.core.utilities.client;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * HTTP client guarded by the circuit breaker of the service: the calls fail immediately with a
+ * {@link CircuitOpenException} while the breaker is open. The I/O errors and the gateway errors (502, 503, 504)
+ * count as failures, any other answer means the service is reachable.
+ */
+class CircuitBreakingHttpClient extends CloseableHttpClient {
+
+    private final CloseableHttpClient delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    CircuitBreakingHttpClient(CloseableHttpClient delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    static boolean isFailure(int statusCode) {
+        return statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) throws IOException, ClientProtocolException {
+        if (!circuitBreaker.allowRequest()) {
+            throw new CircuitOpenException(circuitBreaker.getService());
+        }
+
+        CloseableHttpResponse response;
+        try {
+            response = delegate.execute(target, request, context);
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.recordFailure();
+            throw e;
+        }
+
+        if (isFailure(response.getStatusLine().getStatusCode())) {
+            circuitBreaker.recordFailure();
+        } else {
+            circuitBreaker.recordSuccess();
+        }
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public HttpParams getParams() {
+        return delegate.getParams();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public ClientConnectionManager getConnectionManager() {
+        return delegate.getConnectionManager();
+    }
+}
@@ -0,0 +1,20 @@
+package org.grobid.core.utilities.client;
+
+import java.net.ConnectException;
+
+/**
+ * The call has not been sent because the circuit breaker of the service is open, the clients handle it
+ * as an unreachable service.
+ */
+public class CircuitOpenException extends ConnectException {
+
+    public CircuitOpenException(String service) {
+        super("The circuit breaker of " + service + " is open, the call has been skipped. ");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        // Thrown on every skipped call, the stack trace is not useful
+        return this;
+    }
+}
@@ -1,18 +1,15 @@
 package org.grobid.core.utilities.client;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
-import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.grobid.core.utilities.JsonCodec;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,11 +18,13 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -36,22 +35,45 @@ public class ClassResolverModuleClient {
     private final String serverUrl;
     private GrobidSuperconductorsConfiguration configuration;
     private CloseableHttpClient httpClient;
+    private ServiceResponseCache<List<String>> formulaToClassesCache;
 
     public ClassResolverModuleClient(String serverUrl) {
         this.serverUrl = serverUrl;
-        this.httpClient = HttpClientBuilder.create().build();
+        this.httpClient = new ServiceHttpTransport(new GrobidSuperconductorsConfiguration()).getHttpClient(ServiceHttpTransport.CLASS_RESOLVER);
+        initCache(new ServiceResponseCaches(new GrobidSuperconductorsConfiguration()));
     }
 
-    @Inject
     public ClassResolverModuleClient(GrobidSuperconductorsConfiguration configuration) {
+        this(configuration, new ServiceHttpTransport(configuration), new ServiceResponseCaches(configuration));
+    }
+
+    @Inject
+    public ClassResolverModuleClient(GrobidSuperconductorsConfiguration configuration, ServiceHttpTransport transport,
+                                     ServiceResponseCaches caches) {
         this.configuration = configuration;
         this.serverUrl = configuration.getClassResolverUrl();
-        this.httpClient = HttpClientBuilder.create().build();
+        this.httpClient = transport.getHttpClient(ServiceHttpTransport.CLASS_RESOLVER);
+        initCache(caches);
+    }
+
+    private void initCache(ServiceResponseCaches caches) {
+        this.formulaToClassesCache = caches.get(ServiceResponseCaches.FORMULA_CLASSES,
+            new TypeReference<Map<String, List<String>>>() {
+            });
     }
 
     public List<String> getClassesFromFormula(String formula) {
+        List<String> outputClasses = formulaToClassesCache.get(formula, this::requestClassesFromFormula);
+
+        return outputClasses != null ? new ArrayList<>(outputClasses) : new ArrayList<>();
+    }
 
-        List<String> outputClasses = new ArrayList<>();
+    /**
+     * Request the classes of the formula, returns null if the request failed
+     */
+    private List<String> requestClassesFromFormula(String formula) {
+
+        List<String> outputClasses = null;
         try {
             final HttpPost request = new HttpPost(serverUrl + "/classify/formula");
             request.setHeader("Accept", APPLICATION_JSON);
@@ -71,7 +93,7 @@ public class ClassResolverModuleClient {
                 }
             }
 
-        } catch (UnknownHostException e) {
+        } catch (UnknownHostException | ConnectException e) {
             LOGGER.warn("The service is unreachable. Ignoring it. ", e);
         } catch (IOException e) {
             LOGGER.error("Something generally bad happened. ", e);
@@ -89,7 +111,7 @@ public class ClassResolverModuleClient {
 
             MultipartEntityBuilder builder = MultipartEntityBuilder.create();
             builder.setCharset(StandardCharsets.UTF_8);
-            builder.addTextBody("input", toJson(formulas), ContentType.APPLICATION_JSON);
+            builder.addBinaryBody("input", JsonCodec.STRINGS_WRITER.writeValueAsBytes(formulas), ContentType.APPLICATION_JSON, null);
 
             HttpEntity multipart = builder.build();
             request.setEntity(multipart);
@@ -102,7 +124,7 @@ public class ClassResolverModuleClient {
                 }
             }
 
-        } catch (UnknownHostException e) {
+        } catch (UnknownHostException | ConnectException e) {
             LOGGER.warn("The service is unreachable. Ignoring it. ", e);
         } catch (IOException e) {
             LOGGER.error("Something generally bad happened. ", e);
@@ -114,10 +136,7 @@ public class ClassResolverModuleClient {
 
     public String toJson(List<String> passage) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.writeValueAsString(passage);
+            return JsonCodec.STRINGS_WRITER.writeValueAsString(passage);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + passage + "\n ", e);
         } catch (IOException e) {
@@ -128,11 +147,7 @@ public class ClassResolverModuleClient {
 
     public List<String> fromJson(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<List<String>>() {
-            });
+            return JsonCodec.STRINGS_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
@@ -143,11 +158,7 @@ public class ClassResolverModuleClient {
 
     public List<List<String>> fromJsonMultiple(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<List<String>>() {
-            });
+            return JsonCodec.STRINGS_BULK_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
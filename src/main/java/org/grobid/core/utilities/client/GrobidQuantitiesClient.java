@@ -1,18 +1,15 @@
 package org.grobid.core.utilities.client;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.Consts;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.BasicNameValuePair;
+import org.grobid.core.utilities.JsonCodec;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +18,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
@@ -40,14 +38,18 @@ public class GrobidQuantitiesClient {
 
     public GrobidQuantitiesClient(String grobidQuantitiesUrl) {
         this.grobidQuantitiesUrl = grobidQuantitiesUrl;
-        this.httpClient = HttpClientBuilder.create().build();
+        this.httpClient = new ServiceHttpTransport(new GrobidSuperconductorsConfiguration()).getHttpClient(ServiceHttpTransport.GROBID_QUANTITIES);
     }
 
-    @Inject
     public GrobidQuantitiesClient(GrobidSuperconductorsConfiguration configuration) {
+        this(configuration, new ServiceHttpTransport(configuration));
+    }
+
+    @Inject
+    public GrobidQuantitiesClient(GrobidSuperconductorsConfiguration configuration, ServiceHttpTransport transport) {
         this.configuration = configuration;
         this.grobidQuantitiesUrl = configuration.getGrobidQuantitiesUrl();
-        this.httpClient = HttpClientBuilder.create().build();
+        this.httpClient = transport.getHttpClient(ServiceHttpTransport.GROBID_QUANTITIES);
     }
 
     public LinkedHashMap<String, Object> processText(String text) {
@@ -76,7 +78,7 @@ public class GrobidQuantitiesClient {
                 }
             }
 
-        } catch (UnknownHostException e) {
+        } catch (UnknownHostException | ConnectException e) {
             LOGGER.warn("Grobid quantities is unreachable. Ignoring it. ");
         } catch (IOException e) {
             LOGGER.error("Something generically bad happened. ", e);
@@ -87,10 +89,7 @@ public class GrobidQuantitiesClient {
 
     public LinkedHashMap<String, Object> fromJson(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, LinkedHashMap.class);
+            return JsonCodec.MAP_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
@@ -1,19 +1,15 @@
 package org.grobid.core.utilities.client;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.grobid.core.data.document.TextPassage;
+import org.grobid.core.utilities.JsonCodec;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +18,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
@@ -39,14 +36,18 @@ public class LinkingModuleClient {
 
     public LinkingModuleClient(String serverUrl) {
         this.serverUrl = serverUrl;
-        this.httpClient = HttpClientBuilder.create().build();
+        this.httpClient = new ServiceHttpTransport(new GrobidSuperconductorsConfiguration()).getHttpClient(ServiceHttpTransport.LINKING_MODULE);
     }
 
-    @Inject
     public LinkingModuleClient(GrobidSuperconductorsConfiguration configuration) {
+        this(configuration, new ServiceHttpTransport(configuration));
+    }
+
+    @Inject
+    public LinkingModuleClient(GrobidSuperconductorsConfiguration configuration, ServiceHttpTransport transport) {
         this.configuration = configuration;
         this.serverUrl = configuration.getLinkingModuleUrl();
-        this.httpClient = HttpClientBuilder.create().build();
+        this.httpClient = transport.getHttpClient(ServiceHttpTransport.LINKING_MODULE);
     }
 
     public List<TextPassage> markCriticalTemperature(List<TextPassage> textPassage) {
@@ -58,7 +59,7 @@ public class LinkingModuleClient {
 
             MultipartEntityBuilder builder = MultipartEntityBuilder.create();
             builder.setCharset(StandardCharsets.UTF_8);
-            builder.addTextBody("input", toJson(textPassage), ContentType.APPLICATION_JSON);
+            builder.addBinaryBody("input", JsonCodec.TEXT_PASSAGES_WRITER.writeValueAsBytes(textPassage), ContentType.APPLICATION_JSON, null);
 
             HttpEntity multipart = builder.build();
             request.setEntity(multipart);
@@ -71,7 +72,7 @@ public class LinkingModuleClient {
                 }
             }
 
-        } catch (UnknownHostException e) {
+        } catch (UnknownHostException | ConnectException e) {
             LOGGER.warn("The service is unreachable. Ignoring it. ");
         } catch (IOException e) {
             LOGGER.error("Something generally bad happened. ", e);
@@ -87,7 +88,7 @@ public class LinkingModuleClient {
 
             MultipartEntityBuilder builder = MultipartEntityBuilder.create();
             builder.setCharset(StandardCharsets.UTF_8);
-            builder.addTextBody("input", toJson(textPassage), ContentType.APPLICATION_JSON);
+            builder.addBinaryBody("input", JsonCodec.TEXT_PASSAGES_WRITER.writeValueAsBytes(textPassage), ContentType.APPLICATION_JSON, null);
             builder.addTextBody("types", toJson_listOfString(linkTypes), ContentType.APPLICATION_JSON);
             builder.addTextBody("skip_classification", String.valueOf(skipClassification));
 
@@ -102,7 +103,7 @@ public class LinkingModuleClient {
                 }
             }
 
-        } catch (UnknownHostException e) {
+        } catch (UnknownHostException | ConnectException e) {
             LOGGER.warn("The service is unreachable. Ignoring it. ");
         } catch (IOException e) {
             LOGGER.error("Something generally bad happened. ", e);
@@ -114,10 +115,7 @@ public class LinkingModuleClient {
 
     public String toJson(List<TextPassage> passage) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.writeValueAsString(passage);
+            return JsonCodec.TEXT_PASSAGES_WRITER.writeValueAsString(passage);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + passage + "\n ", e);
         } catch (IOException e) {
@@ -128,10 +126,7 @@ public class LinkingModuleClient {
 
     public static String toJson_listOfString(List<String> linkTypes) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.writeValueAsString(linkTypes);
+            return JsonCodec.STRINGS_WRITER.writeValueAsString(linkTypes);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + linkTypes + "\n ", e);
         } catch (IOException e) {
@@ -142,11 +137,7 @@ public class LinkingModuleClient {
 
     public List<TextPassage> fromJson(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<List<TextPassage>>() {
-            });
+            return JsonCodec.TEXT_PASSAGES_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
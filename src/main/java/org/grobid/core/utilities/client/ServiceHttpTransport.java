@@ -0,0 +1,208 @@
+package org.grobid.core.utilities.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.httpclient.HttpClientMetricNameStrategies;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.client.HttpClientBuilder;
+import io.dropwizard.client.HttpClientConfiguration;
+import io.dropwizard.lifecycle.Managed;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.grobid.core.exceptions.GrobidException;
+import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+/**
+ * HTTP transport shared by the clients of the microservices.
+ * Each service gets its own pool of keep-alive connections, configured via the `httpClient` (defaults)
+ * and `httpClients` (per-service overrides) sections of the configuration.
+ * The pool usage (leased, available, pending connections) and the requests timers are
+ * registered in the metric registry under the name of the service, with one timer for each endpoint and method.
+ * <p>
+ * The services called concurrently have also a non-blocking client, whose requests are executed by a small pool of
+ * I/O dispatchers instead of blocking the calling thread. It shares the same configuration (timeouts and
+ * connections) as the blocking client of the service, and its requests and pool usage are registered in the same way.
+ * <p>
+ * The calls to each service, blocking or not, are guarded by its {@link CircuitBreaker}.
+ * The clients are closed when the application stops.
+ */
+@Singleton
+public class ServiceHttpTransport implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceHttpTransport.class);
+
+    public static final String CHEMSPOT = "chemspot";
+    public static final String CHEM_DATA_EXTRACTOR = "chemDataExtractor";
+    public static final String CHEMICAL_MATERIAL_PARSER = "chemicalMaterialParser";
+    public static final String CLASS_RESOLVER = "classResolver";
+    public static final String LINKING_MODULE = "linkingModule";
+    public static final String STRUCTURE_IDENTIFICATION = "structureIdentification";
+    public static final String GROBID_QUANTITIES = "grobidQuantities";
+
+    private final GrobidSuperconductorsConfiguration configuration;
+    private final MetricRegistry metricRegistry;
+    private final Map<String, CloseableHttpClient> httpClients = new ConcurrentHashMap<>();
+    private final Map<String, CloseableHttpAsyncClient> asyncHttpClients = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    @Inject
+    public ServiceHttpTransport(GrobidSuperconductorsConfiguration configuration, MetricRegistry metricRegistry) {
+        this.configuration = configuration;
+        this.metricRegistry = metricRegistry;
+    }
+
+    public ServiceHttpTransport(GrobidSuperconductorsConfiguration configuration) {
+        this(configuration, new MetricRegistry());
+    }
+
+    /**
+     * Return the pooled HTTP client of the service, the client is created the first time it's requested
+     */
+    public CloseableHttpClient getHttpClient(String service) {
+        return httpClients.computeIfAbsent(service, this::createHttpClient);
+    }
+
+    /**
+     * Return the circuit breaker of the service, shared by its blocking and non-blocking clients
+     */
+    public CircuitBreaker getCircuitBreaker(String service) {
+        return circuitBreakers.computeIfAbsent(service,
+            s -> new CircuitBreaker(s, configuration.getCircuitBreaker(), metricRegistry));
+    }
+
+    /**
+     * Return the state of the circuit breaker of each service called so far
+     */
+    public Map<String, CircuitBreaker.State> getCircuitBreakerStates() {
+        Map<String, CircuitBreaker.State> states = new TreeMap<>();
+        circuitBreakers.forEach((service, circuitBreaker) -> states.put(service, circuitBreaker.getState()));
+
+        return states;
+    }
+
+    /**
+     * Return the non-blocking HTTP client of the service, the client is created and started the first time it's requested
+     */
+    public CloseableHttpAsyncClient getAsyncHttpClient(String service) {
+        return asyncHttpClients.computeIfAbsent(service, this::createAsyncHttpClient);
+    }
+
+    /**
+     * Send the request with the non-blocking client of the service, the response is deserialised with the reader.
+     * The request is timed under the name of the service, the path and the method (e.g. `chemDataExtractor./process/bulk.POST`).
+     *
+     * @see AsyncHttpRequests#execute
+     */
+    public <T> CompletableFuture<T> executeAsync(String service, HttpEntityEnclosingRequestBase request, ObjectReader reader) {
+        Timer.Context timer = metricRegistry.timer(MetricRegistry.name(service, request.getURI().getPath(), request.getMethod())).time();
+
+        return AsyncHttpRequests.<T>execute(getAsyncHttpClient(service), getCircuitBreaker(service), request, reader)
+            .whenComplete((result, throwable) -> timer.stop());
+    }
+
+    @Override
+    public void start() throws Exception {
+    }
+
+    @Override
+    public void stop() throws Exception {
+        closeAll(asyncHttpClients);
+        closeAll(httpClients);
+    }
+
+    private static void closeAll(Map<String, ? extends Closeable> clients) {
+        clients.forEach((service, client) -> {
+            try {
+                client.close();
+            } catch (IOException e) {
+                LOGGER.warn("Cannot close the HTTP client of " + service, e);
+            }
+        });
+        clients.clear();
+    }
+
+    private CloseableHttpClient createHttpClient(String service) {
+        HttpClientConfiguration httpClientConfiguration = configuration.getHttpClient(service);
+        LOGGER.info("Creating the HTTP client for " + service + ": max connections " + httpClientConfiguration.getMaxConnectionsPerRoute()
+            + ", timeout " + httpClientConfiguration.getTimeout() + ", keep-alive " + httpClientConfiguration.getKeepAlive());
+
+        CloseableHttpClient httpClient = new HttpClientBuilder(metricRegistry)
+            .using(httpClientConfiguration)
+            .using(HttpClientMetricNameStrategies.QUERYLESS_URL_AND_METHOD)
+            .build(service);
+
+        return new CircuitBreakingHttpClient(httpClient, getCircuitBreaker(service));
+    }
+
+    private CloseableHttpAsyncClient createAsyncHttpClient(String service) {
+        HttpClientConfiguration httpClientConfiguration = configuration.getHttpClient(service);
+        LOGGER.info("Creating the async HTTP client for " + service + ": max connections " + httpClientConfiguration.getMaxConnectionsPerRoute()
+            + ", timeout " + httpClientConfiguration.getTimeout());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setSocketTimeout((int) httpClientConfiguration.getTimeout().toMilliseconds())
+            .setConnectTimeout((int) httpClientConfiguration.getConnectionTimeout().toMilliseconds())
+            .setConnectionRequestTimeout((int) httpClientConfiguration.getConnectionRequestTimeout().toMilliseconds())
+            .build();
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat(service + "-async-%d").setDaemon(true).build();
+        PoolingNHttpClientConnectionManager connectionManager;
+        try {
+            connectionManager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT, threadFactory));
+        } catch (IOReactorException e) {
+            throw new GrobidException("Cannot create the async HTTP client for " + service, e);
+        }
+        connectionManager.setMaxTotal(httpClientConfiguration.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(httpClientConfiguration.getMaxConnectionsPerRoute());
+        registerPoolGauges(service, connectionManager);
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+            .setDefaultRequestConfig(requestConfig)
+            .setConnectionManager(connectionManager)
+            .setThreadFactory(threadFactory)
+            .build();
+        client.start();
+
+        return client;
+    }
+
+    /**
+     * Same gauges as the pool of the blocking client, under the name of {@link NHttpClientConnectionManager}
+     */
+    private void registerPoolGauges(String service, PoolingNHttpClientConnectionManager connectionManager) {
+        registerPoolGauge(service, "available-connections", connectionManager, m -> m.getTotalStats().getAvailable());
+        registerPoolGauge(service, "leased-connections", connectionManager, m -> m.getTotalStats().getLeased());
+        registerPoolGauge(service, "max-connections", connectionManager, m -> m.getTotalStats().getMax());
+        registerPoolGauge(service, "pending-connections", connectionManager, m -> m.getTotalStats().getPending());
+    }
+
+    private void registerPoolGauge(String service, String gauge, PoolingNHttpClientConnectionManager connectionManager,
+                                   Function<PoolingNHttpClientConnectionManager, Integer> value) {
+        String name = MetricRegistry.name(NHttpClientConnectionManager.class, service, gauge);
+        metricRegistry.remove(name);
+        metricRegistry.register(name, (Gauge<Integer>) () -> value.apply(connectionManager));
+    }
+}
@@ -0,0 +1,158 @@
+package org.grobid.core.utilities.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.grobid.service.configuration.CacheConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Size and time bounded cache of the responses of a microservice, keyed on the normalised input
+ * (trimmed, whitespaces collapsed, unicode NFC).
+ * Only the successful responses should be stored, the loader can return null to indicate a failure that
+ * should not be cached.
+ * <p>
+ * Hits, misses, evictions and size are exposed as gauges in the metric registry.
+ */
+public class ServiceResponseCache<V> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceResponseCache.class);
+
+    private static final ObjectMapper SNAPSHOT_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final String name;
+    private final Cache<String, V> cache;
+    private final TypeReference<Map<String, V>> snapshotType;
+
+    public ServiceResponseCache(String name, CacheConfiguration configuration, MetricRegistry metricRegistry,
+                                TypeReference<Map<String, V>> snapshotType) {
+        this.name = name;
+        this.snapshotType = snapshotType;
+
+        if (configuration.isEnabled()) {
+            this.cache = CacheBuilder.newBuilder()
+                .maximumSize(configuration.getMaximumSize())
+                .expireAfterWrite(configuration.getTimeToLive().toMilliseconds(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+
+            metricRegistry.register(MetricRegistry.name(ServiceResponseCache.class, name, "hits"),
+                (Gauge<Long>) () -> cache.stats().hitCount());
+            metricRegistry.register(MetricRegistry.name(ServiceResponseCache.class, name, "misses"),
+                (Gauge<Long>) () -> cache.stats().missCount());
+            metricRegistry.register(MetricRegistry.name(ServiceResponseCache.class, name, "evictions"),
+                (Gauge<Long>) () -> cache.stats().evictionCount());
+            metricRegistry.register(MetricRegistry.name(ServiceResponseCache.class, name, "size"),
+                (Gauge<Long>) cache::size);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    public static String normalise(String input) {
+        if (input == null) {
+            return "";
+        }
+        return Normalizer.normalize(StringUtils.normalizeSpace(input), Normalizer.Form.NFC);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public V getIfPresent(String input) {
+        if (cache == null) {
+            return null;
+        }
+        return cache.getIfPresent(normalise(input));
+    }
+
+    public void put(String input, V value) {
+        if (cache == null || value == null) {
+            return;
+        }
+        cache.put(normalise(input), value);
+    }
+
+    /**
+     * Return the cached value or load it. When the loader returns null the result is not cached.
+     */
+    public V get(String input, Function<String, V> loader) {
+        V value = getIfPresent(input);
+        if (value != null) {
+            return value;
+        }
+
+        value = loader.apply(input);
+        put(input, value);
+
+        return value;
+    }
+
+    /**
+     * Return the values present in the cache, keyed by the original (not normalised) inputs
+     */
+    public Map<String, V> getAllPresent(Collection<String> inputs) {
+        Map<String, V> present = new LinkedHashMap<>();
+        for (String input : inputs) {
+            V value = getIfPresent(input);
+            if (value != null) {
+                present.put(input, value);
+            }
+        }
+        return present;
+    }
+
+    public long size() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    void writeSnapshot(File directory) {
+        if (cache == null) {
+            return;
+        }
+        File snapshot = new File(directory, name + ".json");
+        try {
+            SNAPSHOT_MAPPER.writeValue(snapshot, cache.asMap());
+            LOGGER.info("Saved " + cache.size() + " entries of the cache " + name + " in " + snapshot.getAbsolutePath());
+        } catch (IOException e) {
+            LOGGER.warn("Cannot save the snapshot of the cache " + name + " in " + snapshot.getAbsolutePath(), e);
+        }
+    }
+
+    void loadSnapshot(File directory) {
+        if (cache == null) {
+            return;
+        }
+        File snapshot = new File(directory, name + ".json");
+        if (!snapshot.exists()) {
+            return;
+        }
+        try {
+            Map<String, V> entries = SNAPSHOT_MAPPER.readValue(snapshot, snapshotType);
+            cache.putAll(entries);
+            LOGGER.info("Loaded " + entries.size() + " entries of the cache " + name + " from " + snapshot.getAbsolutePath());
+        } catch (IOException e) {
+            LOGGER.warn("Cannot load the snapshot of the cache " + name + " from " + snapshot.getAbsolutePath() + ". Starting with an empty cache. ", e);
+        }
+    }
+}
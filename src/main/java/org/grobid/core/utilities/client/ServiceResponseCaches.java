@@ -0,0 +1,83 @@
+package org.grobid.core.utilities.client;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.dropwizard.lifecycle.Managed;
+import org.grobid.service.configuration.CacheConfiguration;
+import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registry of the caches of the microservices responses. When a snapshot directory is configured, the caches are
+ * loaded from it when created and saved into it when the application stops.
+ */
+@Singleton
+public class ServiceResponseCaches implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceResponseCaches.class);
+
+    public static final String FORMULA_COMPOSITION = "formulaComposition";
+    public static final String NAME_FORMULA = "nameFormula";
+    public static final String FORMULA_CLASSES = "formulaClasses";
+
+    private final CacheConfiguration configuration;
+    private final MetricRegistry metricRegistry;
+    private final Map<String, ServiceResponseCache<?>> caches = new LinkedHashMap<>();
+
+    @Inject
+    public ServiceResponseCaches(GrobidSuperconductorsConfiguration configuration, MetricRegistry metricRegistry) {
+        this.configuration = configuration.getCache();
+        this.metricRegistry = metricRegistry;
+    }
+
+    public ServiceResponseCaches(GrobidSuperconductorsConfiguration configuration) {
+        this(configuration, new MetricRegistry());
+    }
+
+    /**
+     * Return the cache with the given name, creating it (and loading its snapshot) the first time
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <V> ServiceResponseCache<V> get(String name, TypeReference<Map<String, V>> snapshotType) {
+        ServiceResponseCache<V> cache = (ServiceResponseCache<V>) caches.get(name);
+        if (cache == null) {
+            cache = new ServiceResponseCache<>(name, configuration, metricRegistry, snapshotType);
+            File snapshotDirectory = getSnapshotDirectory();
+            if (snapshotDirectory != null) {
+                cache.loadSnapshot(snapshotDirectory);
+            }
+            caches.put(name, cache);
+        }
+        return cache;
+    }
+
+    private File getSnapshotDirectory() {
+        if (configuration.getSnapshotDirectory() == null) {
+            return null;
+        }
+        return new File(configuration.getSnapshotDirectory());
+    }
+
+    @Override
+    public void start() throws Exception {
+    }
+
+    @Override
+    public synchronized void stop() throws Exception {
+        File snapshotDirectory = getSnapshotDirectory();
+        if (snapshotDirectory == null) {
+            return;
+        }
+        if (!snapshotDirectory.exists() && !snapshotDirectory.mkdirs()) {
+            LOGGER.warn("Cannot create the snapshot directory " + snapshotDirectory.getAbsolutePath());
+            return;
+        }
+        caches.values().forEach(c -> c.writeSnapshot(snapshotDirectory));
+    }
+}
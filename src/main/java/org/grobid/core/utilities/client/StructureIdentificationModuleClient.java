@@ -1,19 +1,15 @@
 package org.grobid.core.utilities.client;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.grobid.core.data.external.chemDataExtractor.ChemicalSpan;
+import org.grobid.core.utilities.JsonCodec;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,11 +18,13 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -37,17 +35,24 @@ public class StructureIdentificationModuleClient {
     private final String serverUrl;
     private GrobidSuperconductorsConfiguration configuration;
     private CloseableHttpClient httpClient;
+    private ServiceHttpTransport transport;
 
     public StructureIdentificationModuleClient(String serverUrl) {
         this.serverUrl = serverUrl;
-        this.httpClient = HttpClientBuilder.create().build();
+        this.transport = new ServiceHttpTransport(new GrobidSuperconductorsConfiguration());
+        this.httpClient = transport.getHttpClient(ServiceHttpTransport.STRUCTURE_IDENTIFICATION);
     }
 
-    @Inject
     public StructureIdentificationModuleClient(GrobidSuperconductorsConfiguration configuration) {
+        this(configuration, new ServiceHttpTransport(configuration));
+    }
+
+    @Inject
+    public StructureIdentificationModuleClient(GrobidSuperconductorsConfiguration configuration, ServiceHttpTransport transport) {
         this.configuration = configuration;
         this.serverUrl = configuration.getLinkingModuleUrl();
-        this.httpClient = HttpClientBuilder.create().build();
+        this.transport = transport;
+        this.httpClient = transport.getHttpClient(ServiceHttpTransport.STRUCTURE_IDENTIFICATION);
     }
 
     public List<String> processStructure(String text) {
@@ -72,7 +77,7 @@ public class StructureIdentificationModuleClient {
                 }
             }
 
-        } catch (UnknownHostException e) {
+        } catch (UnknownHostException | ConnectException e) {
             LOGGER.warn("The service is unreachable. Ignoring it. ", e);
         } catch (IOException e) {
             LOGGER.error("Something generally bad happened. ", e);
@@ -85,15 +90,7 @@ public class StructureIdentificationModuleClient {
 
         List<List<ChemicalSpan>> outputStructures = new ArrayList<>();
         try {
-            final HttpPost request = new HttpPost(serverUrl + "/process/structure/text");
-            request.setHeader("Accept", APPLICATION_JSON);
-
-            MultipartEntityBuilder builder = MultipartEntityBuilder.create();
-            builder.setCharset(StandardCharsets.UTF_8);
-            builder.addTextBody("input", toJson(texts), ContentType.APPLICATION_JSON);
-
-            HttpEntity multipart = builder.build();
-            request.setEntity(multipart);
+            final HttpPost request = structuresRequest(texts);
 
             try (CloseableHttpResponse response = httpClient.execute(request)) {
                 if (response.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_OK) {
@@ -103,7 +100,7 @@ public class StructureIdentificationModuleClient {
                 }
             }
 
-        } catch (UnknownHostException e) {
+        } catch (UnknownHostException | ConnectException e) {
             LOGGER.warn("The service is unreachable. Ignoring it. ", e);
         } catch (IOException e) {
             LOGGER.error("Something generally bad happened. ", e);
@@ -112,13 +109,53 @@ public class StructureIdentificationModuleClient {
         return outputStructures;
     }
 
+    /**
+     * Same as {@link #extractStructuresMulti(List)}, without blocking the calling thread. The future never completes
+     * exceptionally, when the request fails no structures are returned.
+     */
+    public CompletableFuture<List<List<ChemicalSpan>>> extractStructuresMultiAsync(List<String> texts) {
+        final HttpPost request;
+        try {
+            request = structuresRequest(texts);
+        } catch (IOException e) {
+            LOGGER.error("Something generally bad happened. ", e);
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        return transport.<List<List<ChemicalSpan>>>executeAsync(ServiceHttpTransport.STRUCTURE_IDENTIFICATION,
+            request, JsonCodec.CHEMICAL_SPANS_BULK_READER)
+            .handle((outputStructures, throwable) -> {
+                if (throwable == null) {
+                    return outputStructures != null ? outputStructures : new ArrayList<>();
+                }
+                Throwable cause = AsyncHttpRequests.unwrap(throwable);
+                if (cause instanceof UnknownHostException) {
+                    LOGGER.warn("The service is unreachable. Ignoring it. ", cause);
+                } else {
+                    LOGGER.error("Something generally bad happened. ", cause);
+                }
+                return new ArrayList<>();
+            });
+    }
+
+    private HttpPost structuresRequest(List<String> texts) throws IOException {
+        final HttpPost request = new HttpPost(serverUrl + "/process/structure/text");
+        request.setHeader("Accept", APPLICATION_JSON);
+
+        MultipartEntityBuilder builder = MultipartEntityBuilder.create();
+        builder.setCharset(StandardCharsets.UTF_8);
+        builder.addBinaryBody("input", JsonCodec.STRINGS_WRITER.writeValueAsBytes(texts), ContentType.APPLICATION_JSON, null);
+
+        HttpEntity multipart = builder.build();
+        request.setEntity(multipart);
+
+        return request;
+    }
+
 
     public String toJson(List<String> passage) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.writeValueAsString(passage);
+            return JsonCodec.STRINGS_WRITER.writeValueAsString(passage);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + passage + "\n ", e);
         } catch (IOException e) {
@@ -129,11 +166,7 @@ public class StructureIdentificationModuleClient {
 
     public List<String> fromJson(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<List<String>>() {
-            });
+            return JsonCodec.STRINGS_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
@@ -144,11 +177,7 @@ public class StructureIdentificationModuleClient {
 
     public List<List<String>> fromJsonMultiple(InputStream inputLine) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-            mapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
-            return mapper.readValue(inputLine, new TypeReference<List<String>>() {
-            });
+            return JsonCodec.STRINGS_BULK_READER.readValue(inputLine);
         } catch (JsonGenerationException | JsonMappingException e) {
             LOGGER.error("The input line cannot be processed\n " + inputLine + "\n ", e);
         } catch (IOException e) {
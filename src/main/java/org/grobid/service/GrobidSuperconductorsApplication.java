@@ -53,6 +53,7 @@ public class GrobidSuperconductorsApplication extends Application<GrobidSupercon
         bootstrap.addCommand(new TrainingGenerationCommand());
         bootstrap.addCommand(new PrepareDelftTrainingCommand());
         bootstrap.addCommand(new PrepareMaterialParserTrainingCommand());
+        bootstrap.addCommand(new ProcessCorpusCommand());
     }
 
     @Override
@@ -14,6 +14,7 @@ import org.grobid.service.exceptions.mapper.GrobidExceptionMapper;
 import org.grobid.service.exceptions.mapper.GrobidExceptionsTranslationUtility;
 import org.grobid.service.exceptions.mapper.GrobidServiceExceptionMapper;
 import org.grobid.service.exceptions.mapper.WebApplicationExceptionMapper;
+import org.grobid.service.job.JobManager;
 
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
@@ -28,6 +29,8 @@ public class SuperconductorsServiceModule extends DropwizardAwareModule<GrobidSu
         binder.bind(HealthCheck.class);
 
         //Core services
+        binder.bind(ServiceHttpTransport.class);
+        binder.bind(ServiceResponseCaches.class);
         binder.bind(ChemspotClient.class);
         binder.bind(ChemDataExtractorClient.class);
         binder.bind(StructureIdentificationModuleClient.class);
@@ -40,12 +43,14 @@ public class SuperconductorsServiceModule extends DropwizardAwareModule<GrobidSu
         binder.bind(CRFBasedLinker.class);
         binder.bind(SuperconductorsParser.class);
         binder.bind(ModuleEngine.class);
+        binder.bind(JobManager.class);
 
         //REST
         binder.bind(AnnotationController.class);
         binder.bind(MaterialController.class);
         binder.bind(LinkerController.class);
         binder.bind(ServiceController.class);
+        binder.bind(AsyncJobController.class);
 
         //Exception Mappers
         binder.bind(GrobidServiceExceptionMapper.class);
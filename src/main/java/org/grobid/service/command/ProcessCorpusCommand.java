@@ -0,0 +1,273 @@
+package org.grobid.service.command;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.setup.Bootstrap;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.grobid.core.data.SuperconEntry;
+import org.grobid.core.data.document.DocumentResponse;
+import org.grobid.core.engines.ModuleEngine;
+import org.grobid.core.engines.ResponseProfile;
+import org.grobid.core.engines.TabularDataEngine;
+import org.grobid.core.export.ColumnarWriter;
+import org.grobid.core.export.ExportSchemas;
+import org.grobid.core.export.SpanRecord;
+import org.grobid.core.utilities.client.ServiceHttpTransport;
+import org.grobid.core.utilities.client.ServiceResponseCaches;
+import org.grobid.service.GrobidEngineInitialiser;
+import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Process a directory of PDF documents with the full extraction, writing one output (JSON or CSV) per document.
+ * With the columnar format the entities and the spans of the whole corpus are appended, one batch per document,
+ * to two Arrow IPC streams ({@link ColumnarWriter}) named after the start of the run.
+ * <p>
+ * The processed documents are recorded in a checkpoint file in the output directory, so that a run which
+ * has been interrupted resumes from where it stopped.
+ */
+public class ProcessCorpusCommand extends ConfiguredCommand<GrobidSuperconductorsConfiguration> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessCorpusCommand.class);
+    private final static String INPUT_DIRECTORY = "Input directory";
+    private final static String OUTPUT_DIRECTORY = "Output directory";
+    private final static String RECURSIVE = "recursive";
+    private final static String THREADS = "threads";
+    private final static String OUTPUT_FORMAT = "outputFormat";
+    private final static String DISABLE_LINKING = "disableLinking";
+
+    static final String CHECKPOINT_FILE = ".process-corpus.checkpoint";
+    static final String COLUMNAR = "columnar";
+
+    public ProcessCorpusCommand() {
+        super("process-corpus", "Extract superconductors information from a directory of PDF documents ");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+
+        subparser.addArgument("-dIn", "--input", "-i")
+            .dest(INPUT_DIRECTORY)
+            .type(Arguments.fileType().verifyCanRead().verifyIsDirectory())
+            .required(true)
+            .help("Input directory");
+
+        subparser.addArgument("-dOut", "--output", "-o")
+            .dest(OUTPUT_DIRECTORY)
+            .type(Arguments.fileType()
+                .verifyNotExists().verifyCanCreate()
+                .or()
+                .verifyIsDirectory().verifyCanWrite())
+            .required(true)
+            .help("Output directory");
+
+        subparser.addArgument("-n", "--threads")
+            .dest(THREADS)
+            .type(Integer.class)
+            .required(false)
+            .setDefault(Runtime.getRuntime().availableProcessors())
+            .help("Number of documents processed in parallel");
+
+        subparser.addArgument("-f", "--format")
+            .dest(OUTPUT_FORMAT)
+            .type(String.class)
+            .required(false)
+            .choices(Arrays.asList("json", "csv", COLUMNAR))
+            .setDefault("json")
+            .help("Output format (json, csv, columnar)");
+
+        subparser.addArgument("--disableLinking")
+            .dest(DISABLE_LINKING)
+            .type(Boolean.class)
+            .required(false)
+            .setDefault(false)
+            .help("Disable the linking")
+            .action(Arguments.storeTrue());
+
+        subparser.addArgument("-r", "--recursive")
+            .dest(RECURSIVE)
+            .type(Boolean.class)
+            .required(false)
+            .setDefault(false)
+            .help("Process recursively")
+            .action(Arguments.storeTrue());
+    }
+
+    @Override
+    protected void run(Bootstrap bootstrap, Namespace namespace, GrobidSuperconductorsConfiguration configuration) throws Exception {
+        File inputDirectory = namespace.get(INPUT_DIRECTORY);
+        File outputDirectory = namespace.get(OUTPUT_DIRECTORY);
+        int threads = namespace.get(THREADS);
+        String outputFormat = namespace.get(OUTPUT_FORMAT);
+        boolean disableLinking = namespace.get(DISABLE_LINKING);
+        boolean recursive = namespace.get(RECURSIVE);
+
+        // The Wapiti concurrency is aligned on the number of workers
+        configuration.setMaxParallelRequests(threads);
+        MetricRegistry metricRegistry = new MetricRegistry();
+
+        Injector injector = Guice.createInjector(binder -> {
+            binder.bind(GrobidSuperconductorsConfiguration.class).toInstance(configuration);
+            binder.bind(MetricRegistry.class).toInstance(metricRegistry);
+        });
+        ModuleEngine moduleEngine;
+        try {
+            injector.getInstance(GrobidEngineInitialiser.class);
+            moduleEngine = injector.getInstance(ModuleEngine.class);
+        } catch (final Exception exp) {
+            System.err.println("Grobid initialisation failed, cannot find Grobid Home. Maybe you forget to specify the config.yml in the command launch?");
+            exp.printStackTrace();
+
+            System.exit(-1);
+            return;
+        }
+
+        if (!outputDirectory.exists() && !outputDirectory.mkdirs()) {
+            throw new IOException("Cannot create the output directory " + outputDirectory.getAbsolutePath());
+        }
+
+        File checkpointFile = new File(outputDirectory, CHECKPOINT_FILE);
+        Set<String> processed = readCheckpoint(checkpointFile);
+        List<Path> documents = listDocuments(inputDirectory.toPath(), recursive).stream()
+            .filter(p -> !processed.contains(inputDirectory.toPath().relativize(p).toString()))
+            .collect(Collectors.toList());
+
+        System.out.println(documents.size() + " documents to process (" + processed.size() + " already processed), using " + threads + " threads. ");
+
+        ObjectMapper mapper = bootstrap.getObjectMapper();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+            new ThreadFactoryBuilder().setNameFormat("process-corpus-%d").build());
+
+        long start = System.currentTimeMillis();
+        boolean columnar = COLUMNAR.equals(outputFormat);
+        // A resumed run cannot append to the files of the previous one, each run writes its own files
+        String runSuffix = "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(start)) + ColumnarWriter.EXTENSION;
+        try (Writer checkpoint = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(checkpointFile, true), UTF_8));
+             ColumnarWriter<SuperconEntry> entriesWriter = columnar
+                 ? new ColumnarWriter<>(new FileOutputStream(new File(outputDirectory, "entries" + runSuffix)), ExportSchemas.ENTRIES) : null;
+             ColumnarWriter<SpanRecord> spansWriter = columnar
+                 ? new ColumnarWriter<>(new FileOutputStream(new File(outputDirectory, "spans" + runSuffix)), ExportSchemas.SPANS) : null) {
+            for (Path document : documents) {
+                executor.submit(() -> {
+                    String relativePath = inputDirectory.toPath().relativize(document).toString();
+                    try {
+                        if (columnar) {
+                            // The tokens are not used in the columnar output
+                            DocumentResponse response = moduleEngine.process(document.toFile(), disableLinking, ResponseProfile.COMPACT, null);
+                            List<SuperconEntry> entries = TabularDataEngine.extractEntities(response.getPassages());
+                            entries.forEach(e -> e.setFilename(relativePath));
+                            entriesWriter.appendBatch(entries);
+                            spansWriter.appendBatch(SpanRecord.fromPassages(relativePath, response.getPassages()));
+                            // The rows must be on disk before the document is marked as processed in the checkpoint
+                            entriesWriter.flush();
+                            spansWriter.flush();
+                        } else {
+                            DocumentResponse response = moduleEngine.process(document.toFile(), disableLinking, null);
+                            writeOutput(response, new File(outputDirectory, FilenameUtils.removeExtension(relativePath) + "." + outputFormat), outputFormat, mapper);
+                        }
+                        synchronized (checkpoint) {
+                            checkpoint.write(relativePath + "\n");
+                            checkpoint.flush();
+                        }
+                        int done = succeeded.incrementAndGet();
+                        if (done % 100 == 0) {
+                            printProgress(done, failed.get(), documents.size(), start);
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        LOGGER.error("Error when processing " + document, e);
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+
+        printProgress(succeeded.get(), failed.get(), documents.size(), start);
+        printStageTimings(moduleEngine);
+        moduleEngine.stop();
+
+        // Save the snapshot of the caches, if configured
+        injector.getInstance(ServiceResponseCaches.class).stop();
+        injector.getInstance(ServiceHttpTransport.class).stop();
+    }
+
+    static Set<String> readCheckpoint(File checkpointFile) throws IOException {
+        if (!checkpointFile.exists()) {
+            return new HashSet<>();
+        }
+        return FileUtils.readLines(checkpointFile, StandardCharsets.UTF_8).stream()
+            .filter(l -> !l.trim().isEmpty())
+            .collect(Collectors.toSet());
+    }
+
+    static List<Path> listDocuments(Path inputDirectory, boolean recursive) throws IOException {
+        try (Stream<Path> paths = Files.walk(inputDirectory, recursive ? Integer.MAX_VALUE : 1)) {
+            return paths
+                .filter(Files::isRegularFile)
+                .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".pdf"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static void writeOutput(DocumentResponse response, File outputFile, String format, ObjectMapper mapper) throws IOException {
+        File parent = outputFile.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create the directory " + parent.getAbsolutePath());
+        }
+        if ("csv".equals(format)) {
+            FileUtils.writeStringToFile(outputFile, response.toCsv(), UTF_8);
+        } else {
+            mapper.writeValue(outputFile, response);
+        }
+    }
+
+    private static void printProgress(int succeeded, int failed, int total, long start) {
+        double elapsedSeconds = (System.currentTimeMillis() - start) / 1000.0;
+        System.out.println(String.format("Processed %d/%d documents (%d failed) in %.1f s, %.2f docs/sec",
+            succeeded, total, failed, elapsedSeconds, elapsedSeconds > 0 ? (succeeded + failed) / elapsedSeconds : 0.0));
+    }
+
+    private static void printStageTimings(ModuleEngine moduleEngine) {
+        System.out.println("Stage timings (ms): ");
+        for (String stage : ModuleEngine.STAGES) {
+            Timer timer = moduleEngine.getStageTimer(stage);
+            Snapshot snapshot = timer.getSnapshot();
+            System.out.println(String.format("  %-12s calls=%d, mean=%.1f, p95=%.1f, max=%.1f", stage, timer.getCount(),
+                toMillis(snapshot.getMean()), toMillis(snapshot.get95thPercentile()), toMillis(snapshot.getMax())));
+        }
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
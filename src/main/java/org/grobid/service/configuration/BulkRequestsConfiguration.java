@@ -0,0 +1,52 @@
+package org.grobid.service.configuration;
+
+/**
+ * Limits of the bulk requests sent to the chemical annotation service: the passages of a document are split in
+ * chunks which are sent in parallel, and each failed chunk is retried on its own.
+ */
+public class BulkRequestsConfiguration {
+
+    // Maximum number of passages of each chunk
+    private int maxPassages = 100;
+
+    // Maximum number of characters of each chunk, a longer passage is sent alone
+    private int maxCharacters = 100000;
+
+    // Number of chunks of the same document sent at the same time
+    private int maxConcurrentChunks = 4;
+
+    // Number of times a failed chunk is sent again before its passages are ignored
+    private int maxRetries = 1;
+
+    public int getMaxPassages() {
+        return maxPassages;
+    }
+
+    public void setMaxPassages(int maxPassages) {
+        this.maxPassages = maxPassages;
+    }
+
+    public int getMaxCharacters() {
+        return maxCharacters;
+    }
+
+    public void setMaxCharacters(int maxCharacters) {
+        this.maxCharacters = maxCharacters;
+    }
+
+    public int getMaxConcurrentChunks() {
+        return maxConcurrentChunks;
+    }
+
+    public void setMaxConcurrentChunks(int maxConcurrentChunks) {
+        this.maxConcurrentChunks = maxConcurrentChunks;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+}
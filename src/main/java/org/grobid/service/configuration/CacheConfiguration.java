@@ -0,0 +1,53 @@
+package org.grobid.service.configuration;
+
+import io.dropwizard.util.Duration;
+
+/**
+ * Configuration of the in-process caches of the lookups towards the microservices
+ * (formula -> composition, name -> formula, formula -> material classes).
+ */
+public class CacheConfiguration {
+
+    private boolean enabled = true;
+
+    // Maximum number of entries for each cache
+    private long maximumSize = 50000;
+
+    // Time after which an entry expires
+    private Duration timeToLive = Duration.days(7);
+
+    // Directory where the caches are saved at shutdown and loaded at startup. When null the snapshot is disabled.
+    private String snapshotDirectory = null;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public String getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    public void setSnapshotDirectory(String snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+    }
+}
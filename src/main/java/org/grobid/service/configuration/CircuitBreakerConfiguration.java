@@ -0,0 +1,43 @@
+package org.grobid.service.configuration;
+
+import io.dropwizard.util.Duration;
+
+/**
+ * Configuration of the circuit breakers of the microservices: after a number of consecutive failures
+ * (service unreachable, timeout, gateway errors) the calls to the service fail immediately and the
+ * clients return their degraded result, until a trial call succeeds.
+ */
+public class CircuitBreakerConfiguration {
+
+    private boolean enabled = true;
+
+    // Number of consecutive failures after which the breaker opens
+    private int failureThreshold = 5;
+
+    // Time the breaker stays open before letting a trial call through
+    private Duration openDuration = Duration.seconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+}
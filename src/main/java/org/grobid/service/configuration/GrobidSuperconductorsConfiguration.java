@@ -2,6 +2,8 @@ package org.grobid.service.configuration;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.dropwizard.Configuration;
+import io.dropwizard.client.HttpClientConfiguration;
+import io.dropwizard.util.Duration;
 import org.apache.commons.io.IOUtils;
 import org.grobid.core.utilities.GrobidConfig;
 import org.grobid.core.utilities.GrobidProperties;
@@ -12,7 +14,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class GrobidSuperconductorsConfiguration extends Configuration {
 
@@ -49,6 +53,24 @@ public class GrobidSuperconductorsConfiguration extends Configuration {
 
     private boolean pythonRedirectOutput = false;
 
+    private PipelineConfiguration pipeline = new PipelineConfiguration();
+
+    // HTTP transport towards the microservices: defaults and per-service overrides
+    private HttpClientConfiguration httpClient = defaultHttpClientConfiguration();
+    private Map<String, HttpClientConfiguration> httpClients = new HashMap<>();
+
+    private CacheConfiguration cache = new CacheConfiguration();
+
+    private CircuitBreakerConfiguration circuitBreaker = new CircuitBreakerConfiguration();
+
+    private JobsConfiguration jobs = new JobsConfiguration();
+
+    private UploadConfiguration upload = new UploadConfiguration();
+
+    private LabellingConfiguration labelling = new LabellingConfiguration();
+
+    private BulkRequestsConfiguration bulkRequests = new BulkRequestsConfiguration();
+
     public String getGrobidHome() {
         return grobidHome;
     }
@@ -197,4 +219,94 @@ public class GrobidSuperconductorsConfiguration extends Configuration {
     public void setConsolidation(GrobidConfig.ConsolidationParameters consolidation) {
         this.consolidation = consolidation;
     }
+
+    public PipelineConfiguration getPipeline() {
+        return pipeline;
+    }
+
+    public void setPipeline(PipelineConfiguration pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    public HttpClientConfiguration getHttpClient() {
+        return httpClient;
+    }
+
+    public void setHttpClient(HttpClientConfiguration httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public Map<String, HttpClientConfiguration> getHttpClients() {
+        return httpClients;
+    }
+
+    public void setHttpClients(Map<String, HttpClientConfiguration> httpClients) {
+        this.httpClients = httpClients;
+    }
+
+    public CacheConfiguration getCache() {
+        return cache;
+    }
+
+    public void setCache(CacheConfiguration cache) {
+        this.cache = cache;
+    }
+
+    public CircuitBreakerConfiguration getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreakerConfiguration circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public JobsConfiguration getJobs() {
+        return jobs;
+    }
+
+    public void setJobs(JobsConfiguration jobs) {
+        this.jobs = jobs;
+    }
+
+    public UploadConfiguration getUpload() {
+        return upload;
+    }
+
+    public void setUpload(UploadConfiguration upload) {
+        this.upload = upload;
+    }
+
+    public LabellingConfiguration getLabelling() {
+        return labelling;
+    }
+
+    public void setLabelling(LabellingConfiguration labelling) {
+        this.labelling = labelling;
+    }
+
+    public BulkRequestsConfiguration getBulkRequests() {
+        return bulkRequests;
+    }
+
+    public void setBulkRequests(BulkRequestsConfiguration bulkRequests) {
+        this.bulkRequests = bulkRequests;
+    }
+
+    /**
+     * Return the HTTP client configuration of the service, or the default one when the service is not overridden
+     */
+    public HttpClientConfiguration getHttpClient(String service) {
+        return httpClients.getOrDefault(service, httpClient);
+    }
+
+    private static HttpClientConfiguration defaultHttpClientConfiguration() {
+        HttpClientConfiguration httpClientConfiguration = new HttpClientConfiguration();
+        httpClientConfiguration.setTimeout(Duration.minutes(2));
+        httpClientConfiguration.setConnectionTimeout(Duration.seconds(5));
+        httpClientConfiguration.setConnectionRequestTimeout(Duration.seconds(30));
+        httpClientConfiguration.setKeepAlive(Duration.seconds(30));
+        httpClientConfiguration.setMaxConnections(256);
+        httpClientConfiguration.setMaxConnectionsPerRoute(64);
+        return httpClientConfiguration;
+    }
 }
@@ -0,0 +1,55 @@
+package org.grobid.service.configuration;
+
+import io.dropwizard.util.Duration;
+
+/**
+ * Configuration of the asynchronous processing of the PDF documents (/process/pdf/async).
+ * The submitted documents and the status of the jobs are stored on disk, so that the queued jobs
+ * survive a restart of the service.
+ */
+public class JobsConfiguration {
+
+    // Number of documents processed in parallel. When 0 it will use the number of CPUs.
+    private int workers = 0;
+
+    // Maximum number of jobs waiting to be processed, beyond this limit the submissions are refused
+    private int maxQueueSize = 10000;
+
+    // Directory where the documents, the status and the results of the jobs are stored
+    private String directory = "tmp/jobs";
+
+    // Time after which a finished job (and its result) is removed
+    private Duration timeToLive = Duration.days(1);
+
+    public int getWorkers() {
+        return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public void setMaxQueueSize(int maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+}
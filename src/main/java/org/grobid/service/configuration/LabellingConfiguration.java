@@ -0,0 +1,43 @@
+package org.grobid.service.configuration;
+
+import io.dropwizard.util.Duration;
+
+/**
+ * Configuration of the coalescing of the labelling requests: the passages of concurrent requests are gathered
+ * and labelled with a single call to the sequence labelling model. This is meant for the DeLFT models, where the
+ * cost of each call dominates the small requests; with Wapiti the concurrent calls are usually faster.
+ */
+public class LabellingConfiguration {
+
+    private boolean batching = false;
+
+    // Number of passages after which the gathered passages are labelled without waiting further
+    private int maxBatchSize = 64;
+
+    // Maximum time a passage waits for other passages to be gathered with
+    private Duration maxWait = Duration.milliseconds(10);
+
+    public boolean isBatching() {
+        return batching;
+    }
+
+    public void setBatching(boolean batching) {
+        this.batching = batching;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+}
@@ -0,0 +1,83 @@
+package org.grobid.service.configuration;
+
+/**
+ * Configuration of the pipelined processing of the passages: passages are grouped in chunks which
+ * flow through the stages (NER, quantities, rule-based linking, CRF linking), each stage having
+ * its own pool of workers. The pools are shared by the concurrent requests.
+ * <p>
+ * The pipeline is disabled by default.
+ */
+public class PipelineConfiguration {
+
+    private static final int STAGES = 4;
+
+    // Number of passages in each chunk. When 0 the pipeline is disabled and the passages are processed
+    // sequentially in a single batch
+    private int chunkSize = 0;
+
+    // Number of workers for each stage. When 0 the CPUs are shared between the stages (number of CPUs / 4)
+    private int nerThreads = 0;
+    private int quantitiesThreads = 0;
+    private int ruleLinkingThreads = 0;
+    private int crfLinkingThreads = 0;
+
+    // Number of workers running the CRF linkers (material-tcValue, tcValue-pressure, tcValue-me_method)
+    // concurrently, independently of the pipeline. When 0 the linkers are run one after the other
+    private int crfLinkersThreads = 3;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean isEnabled() {
+        return chunkSize > 0;
+    }
+
+    public int getNerThreads() {
+        return threadsOrShareOfProcessors(nerThreads);
+    }
+
+    public void setNerThreads(int nerThreads) {
+        this.nerThreads = nerThreads;
+    }
+
+    public int getQuantitiesThreads() {
+        return threadsOrShareOfProcessors(quantitiesThreads);
+    }
+
+    public void setQuantitiesThreads(int quantitiesThreads) {
+        this.quantitiesThreads = quantitiesThreads;
+    }
+
+    public int getRuleLinkingThreads() {
+        return threadsOrShareOfProcessors(ruleLinkingThreads);
+    }
+
+    public void setRuleLinkingThreads(int ruleLinkingThreads) {
+        this.ruleLinkingThreads = ruleLinkingThreads;
+    }
+
+    public int getCrfLinkingThreads() {
+        return threadsOrShareOfProcessors(crfLinkingThreads);
+    }
+
+    public void setCrfLinkingThreads(int crfLinkingThreads) {
+        this.crfLinkingThreads = crfLinkingThreads;
+    }
+
+    public int getCrfLinkersThreads() {
+        return crfLinkersThreads;
+    }
+
+    public void setCrfLinkersThreads(int crfLinkersThreads) {
+        this.crfLinkersThreads = crfLinkersThreads;
+    }
+
+    private static int threadsOrShareOfProcessors(int threads) {
+        return threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / STAGES);
+    }
+}
@@ -0,0 +1,54 @@
+package org.grobid.service.configuration;
+
+import io.dropwizard.util.Size;
+
+/**
+ * Configuration of the spooling of the uploaded documents: the uploads smaller than the memory threshold are
+ * kept in memory and written to the memory directory (tmpfs), the bigger ones are written to the temporary directory.
+ */
+public class UploadConfiguration {
+
+    // Uploads bigger than this size are rejected
+    private Size maxSize = Size.megabytes(200);
+
+    // Uploads up to this size are buffered in memory
+    private Size memoryThreshold = Size.megabytes(16);
+
+    // Memory-backed directory (tmpfs) for the uploads below the threshold. When missing the temporary directory is used.
+    private String memoryDirectory = "/dev/shm";
+
+    // Directory for the uploads above the threshold. When null the grobid temporary directory is used.
+    private String directory = null;
+
+    public Size getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(Size maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Size getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    public void setMemoryThreshold(Size memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    public String getMemoryDirectory() {
+        return memoryDirectory;
+    }
+
+    public void setMemoryDirectory(String memoryDirectory) {
+        this.memoryDirectory = memoryDirectory;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+}
@@ -1,14 +1,22 @@
 package org.grobid.service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 import org.grobid.core.data.SuperconEntry;
 import org.grobid.core.data.document.DocumentResponse;
+import org.grobid.core.engines.DocumentListener;
 import org.grobid.core.engines.ModuleEngine;
+import org.grobid.core.engines.ProcessingTimings;
+import org.grobid.core.engines.ResponseProfile;
 import org.grobid.core.engines.TabularDataEngine;
+import org.grobid.core.export.ColumnarWriter;
+import org.grobid.core.export.ExportSchemas;
+import org.grobid.core.utilities.IOUtilities;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.grobid.service.exceptions.GrobidServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,21 +24,31 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
-import java.io.InputStream;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Singleton
 @Path("/")
 public class AnnotationController {
     private static final Logger LOGGER = LoggerFactory.getLogger(AnnotationController.class);
 
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    // Lower server-side quality, so that JSON stays the default when the client does not ask for NDJSON explicitly
+    private static final String APPLICATION_NDJSON_LOW_QUALITY = APPLICATION_NDJSON + ";qs=0.5";
+    private static final String APPLICATION_ARROW_STREAM_LOW_QUALITY = ColumnarWriter.MEDIA_TYPE + ";qs=0.5";
+
     private ModuleEngine moduleEngine;
+    private ObjectMapper mapper;
 
     @Inject
-    public AnnotationController(GrobidSuperconductorsConfiguration configuration, ModuleEngine moduleEngine) {
+    public AnnotationController(GrobidSuperconductorsConfiguration configuration, ModuleEngine moduleEngine, ObjectMapper mapper) {
         this.moduleEngine = moduleEngine;
+        this.mapper = mapper;
     }
 
     @Path("/annotations/feedback")
@@ -51,11 +69,14 @@ public class AnnotationController {
     @Produces(MediaType.APPLICATION_JSON)
     @POST
     public DocumentResponse processTextSuperconductors(@FormDataParam("text") String text,
-                                                       @FormDataParam("disableLinking") boolean disableLinking) {
+                                                       @FormDataParam("disableLinking") boolean disableLinking,
+                                                       @FormDataParam("timings") boolean timings,
+                                                       @FormDataParam("profile") ResponseProfile profile) {
         String textPreprocessed = text.replace("\r\n", "\n");
 
         long start = System.currentTimeMillis();
-        DocumentResponse extractedEntities = moduleEngine.process(textPreprocessed, disableLinking);
+        DocumentResponse extractedEntities = moduleEngine.process(textPreprocessed, disableLinking, orFull(profile),
+            timings ? new ProcessingTimings() : null);
         long end = System.currentTimeMillis();
 
         extractedEntities.setRuntime(end - start);
@@ -63,15 +84,31 @@ public class AnnotationController {
         return extractedEntities;
     }
 
+    @Path("/process/text")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces(APPLICATION_NDJSON_LOW_QUALITY)
+    @POST
+    public StreamingOutput processTextSuperconductorsNdjson(@FormDataParam("text") String text,
+                                                           @FormDataParam("disableLinking") boolean disableLinking,
+                                                           @FormDataParam("profile") ResponseProfile profile) {
+        String textPreprocessed = text.replace("\r\n", "\n");
+
+        return outputStream -> writeNdjson(outputStream,
+            listener -> moduleEngine.process(textPreprocessed, disableLinking, orFull(profile), null, listener));
+    }
+
     @Path("/process/pdf")
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     @Produces(MediaType.APPLICATION_JSON)
     @POST
     public DocumentResponse processPdfSuperconductors(@FormDataParam("input") InputStream uploadedInputStream,
                                                       @FormDataParam("input") FormDataContentDisposition fileDetail,
-                                                      @FormDataParam("disableLinking") boolean disableLinking) {
+                                                      @FormDataParam("disableLinking") boolean disableLinking,
+                                                      @FormDataParam("timings") boolean timings,
+                                                      @FormDataParam("profile") ResponseProfile profile) {
         long start = System.currentTimeMillis();
-        DocumentResponse response = moduleEngine.process(uploadedInputStream, disableLinking);
+        DocumentResponse response = moduleEngine.process(uploadedInputStream, disableLinking, orFull(profile),
+            timings ? new ProcessingTimings() : null);
         long end = System.currentTimeMillis();
 
         response.setRuntime(end - start);
@@ -79,6 +116,53 @@ public class AnnotationController {
         return response;
     }
 
+    /**
+     * The upload is spooled before the response starts, so that the oversized documents are rejected with the
+     * proper status, then the parts of the document are streamed as soon as they are available.
+     */
+    @Path("/process/pdf")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces(APPLICATION_NDJSON_LOW_QUALITY)
+    @POST
+    public StreamingOutput processPdfSuperconductorsNdjson(@FormDataParam("input") InputStream uploadedInputStream,
+                                                          @FormDataParam("input") FormDataContentDisposition fileDetail,
+                                                          @FormDataParam("disableLinking") boolean disableLinking,
+                                                          @FormDataParam("profile") ResponseProfile profile) {
+        File file;
+        try {
+            file = moduleEngine.spool(uploadedInputStream);
+        } catch (IOException e) {
+            throw new GrobidServiceException("Cannot read the uploaded file. ", e, Response.Status.INTERNAL_SERVER_ERROR);
+        }
+
+        return outputStream -> {
+            try {
+                writeNdjson(outputStream, listener -> moduleEngine.process(file, disableLinking, orFull(profile), null, listener));
+            } finally {
+                IOUtilities.removeTempFile(file);
+            }
+        };
+    }
+
+    private static ResponseProfile orFull(ResponseProfile profile) {
+        return profile != null ? profile : ResponseProfile.FULL;
+    }
+
+    private void writeNdjson(OutputStream outputStream, Consumer<DocumentListener> processing) throws IOException {
+        NdjsonDocumentWriter writer = new NdjsonDocumentWriter(outputStream, mapper);
+        try {
+            processing.accept(writer);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error when streaming the document. ", e);
+            try {
+                writer.onError(e);
+            } catch (UncheckedIOException ioe) {
+                // The client is gone
+                throw ioe.getCause();
+            }
+        }
+    }
+
     @Path("/process/pdf")
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     @Produces("text/csv")
@@ -88,7 +172,8 @@ public class AnnotationController {
                                                          @FormDataParam("disableLinking") boolean disableLinking,
                                                          @FormDataParam("extractAllEntities") boolean extractAllEntities) {
         long start = System.currentTimeMillis();
-        DocumentResponse documentResponse = processPdfSuperconductors(uploadedInputStream, fileDetail, disableLinking);
+        // The tokens are not used in the CSV output
+        DocumentResponse documentResponse = processPdfSuperconductors(uploadedInputStream, fileDetail, disableLinking, false, ResponseProfile.COMPACT);
         long end = System.currentTimeMillis();
 
         documentResponse.setRuntime(end - start);
@@ -106,6 +191,28 @@ public class AnnotationController {
         return Optional.of(csvOutput);
     }
 
+    @Path("/process/pdf")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces(APPLICATION_ARROW_STREAM_LOW_QUALITY)
+    @POST
+    public StreamingOutput processPdfSuperconductorsColumnar(@FormDataParam("input") InputStream uploadedInputStream,
+                                                             @FormDataParam("input") FormDataContentDisposition fileDetail,
+                                                             @FormDataParam("disableLinking") boolean disableLinking,
+                                                             @FormDataParam("extractAllEntities") boolean extractAllEntities) {
+        // The tokens are not used in the columnar output
+        DocumentResponse documentResponse = processPdfSuperconductors(uploadedInputStream, fileDetail, disableLinking, false, ResponseProfile.COMPACT);
+
+        List<SuperconEntry> superconEntries = extractAllEntities
+            ? TabularDataEngine.extractEntities(documentResponse.getPassages())
+            : TabularDataEngine.computeTabularData(documentResponse.getPassages());
+
+        return output -> {
+            try (ColumnarWriter<SuperconEntry> writer = new ColumnarWriter<>(output, ExportSchemas.ENTRIES)) {
+                writer.appendBatch(superconEntries);
+            }
+        };
+    }
+
     @Path("/process/json")
     @Consumes(MediaType.MULTIPART_FORM_DATA)
     @Produces(MediaType.APPLICATION_JSON)
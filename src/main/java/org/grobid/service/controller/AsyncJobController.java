@@ -0,0 +1,89 @@
+package org.grobid.service.controller;
+
+import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
+import org.glassfish.jersey.media.multipart.FormDataParam;
+import org.grobid.service.exceptions.GrobidServiceException;
+import org.grobid.service.job.Job;
+import org.grobid.service.job.JobManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Asynchronous processing of the PDF documents: the document is queued and the job id is returned immediately,
+ * the status and the result are then retrieved with the job id.
+ */
+@Singleton
+@Path("/process/pdf/async")
+public class AsyncJobController {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncJobController.class);
+
+    private JobManager jobManager;
+
+    @Inject
+    public AsyncJobController(JobManager jobManager) {
+        this.jobManager = jobManager;
+    }
+
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces(MediaType.APPLICATION_JSON)
+    @POST
+    public Response submit(@FormDataParam("input") InputStream uploadedInputStream,
+                           @FormDataParam("input") FormDataContentDisposition fileDetail,
+                           @FormDataParam("disableLinking") boolean disableLinking) {
+        if (uploadedInputStream == null) {
+            throw new GrobidServiceException("Missing input document", Response.Status.BAD_REQUEST);
+        }
+        String filename = fileDetail != null ? fileDetail.getFileName() : null;
+
+        Job job;
+        try {
+            job = jobManager.submit(uploadedInputStream, filename, disableLinking);
+        } catch (IOException e) {
+            throw new GrobidServiceException("Cannot store the input document", e, Response.Status.INTERNAL_SERVER_ERROR);
+        }
+        if (job == null) {
+            throw new GrobidServiceException("The job queue is full, retry later", Response.Status.SERVICE_UNAVAILABLE);
+        }
+        LOGGER.debug("Queued job " + job.getId() + " for " + filename);
+
+        return Response.status(Response.Status.ACCEPTED).entity(job).build();
+    }
+
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @GET
+    public Job getStatus(@PathParam("id") String id) {
+        Job job = jobManager.getJob(id);
+        if (job == null) {
+            throw new GrobidServiceException("Unknown job " + id, Response.Status.NOT_FOUND);
+        }
+        return job;
+    }
+
+    /**
+     * Return the DocumentResponse of the job when it's done, otherwise the job status with 202 (queued or running)
+     * or 500 (failed)
+     */
+    @Path("/{id}/result")
+    @Produces(MediaType.APPLICATION_JSON)
+    @GET
+    public Response getResult(@PathParam("id") String id) {
+        Job job = getStatus(id);
+        File result = jobManager.getResult(id);
+        if (result != null) {
+            return Response.ok(result, MediaType.APPLICATION_JSON_TYPE).build();
+        }
+
+        Response.Status status = job.isFinished() ? Response.Status.INTERNAL_SERVER_ERROR : Response.Status.ACCEPTED;
+        return Response.status(status).entity(job).build();
+    }
+}
@@ -1,5 +1,7 @@
 package org.grobid.service.controller;
 
+import org.grobid.core.utilities.client.CircuitBreaker;
+import org.grobid.core.utilities.client.ServiceHttpTransport;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
 
 import javax.inject.Inject;
@@ -8,6 +10,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Response;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 
@@ -19,18 +23,43 @@ public class HealthCheck extends com.codahale.metrics.health.HealthCheck {
     @Inject
     private GrobidSuperconductorsConfiguration configuration;
 
+    @Inject
+    private ServiceHttpTransport transport;
+
     @Inject
     public HealthCheck() {
     }
 
+    /**
+     * The service is alive, the body reports the state of the circuit breaker of each microservice
+     */
     @GET
     public Response alive() {
-        return Response.ok().build();
+        return Response.ok(transport.getCircuitBreakerStates()).build();
     }
 
+    /**
+     * A microservice whose circuit breaker is open does not make the service unhealthy, as the results are
+     * degraded but still produced, it is reported in the message and in the details.
+     */
     @Override
     protected Result check() throws Exception {
-        return configuration.getGrobidHome() != null ? Result.healthy() :
-            Result.unhealthy("Grobid home is null in the configuration");
+        if (configuration.getGrobidHome() == null) {
+            return Result.unhealthy("Grobid home is null in the configuration");
+        }
+
+        Map<String, CircuitBreaker.State> states = transport.getCircuitBreakerStates();
+        String openServices = states.entrySet().stream()
+            .filter(e -> e.getValue() != CircuitBreaker.State.CLOSED)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.joining(", "));
+
+        ResultBuilder result = Result.builder().healthy();
+        states.forEach((service, state) -> result.withDetail(service, state.name()));
+        if (!openServices.isEmpty()) {
+            result.withMessage("Degraded, skipped services: " + openServices);
+        }
+
+        return result.build();
     }
 }
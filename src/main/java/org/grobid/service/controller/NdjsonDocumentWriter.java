@@ -0,0 +1,73 @@
+package org.grobid.service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.grobid.core.data.document.BiblioInfo;
+import org.grobid.core.data.document.Page;
+import org.grobid.core.data.document.TextPassage;
+import org.grobid.core.data.material.Formula;
+import org.grobid.core.engines.DocumentListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the parts of a document as newline-delimited JSON, each line being flushed as soon as it's written:
+ * <pre>
+ * {"biblio": {...}}
+ * {"pages": [...]}
+ * {"passage": {...}}  (one line for each passage)
+ * {"aggregatedMaterials": {...}}
+ * </pre>
+ * When the processing fails once the response has started, the last line is {"error": "..."}.
+ */
+class NdjsonDocumentWriter implements DocumentListener {
+
+    private final OutputStream outputStream;
+    private final ObjectMapper mapper;
+
+    NdjsonDocumentWriter(OutputStream outputStream, ObjectMapper mapper) {
+        this.outputStream = outputStream;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void onBiblio(BiblioInfo biblio) {
+        if (biblio != null) {
+            writeLine("biblio", biblio);
+        }
+    }
+
+    @Override
+    public void onPages(List<Page> pages) {
+        writeLine("pages", pages);
+    }
+
+    @Override
+    public void onPassage(TextPassage passage) {
+        writeLine("passage", passage);
+    }
+
+    @Override
+    public void onAggregatedMaterials(Map<Formula, List<String>> aggregatedMaterials) {
+        writeLine("aggregatedMaterials", aggregatedMaterials);
+    }
+
+    void onError(Exception e) {
+        writeLine("error", e.getMessage());
+    }
+
+    private void writeLine(String name, Object value) {
+        try {
+            // the mapper would close the output stream when writing to it directly
+            outputStream.write(mapper.writeValueAsBytes(Collections.singletonMap(name, value)));
+            outputStream.write('\n');
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
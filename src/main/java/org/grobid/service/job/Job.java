@@ -0,0 +1,100 @@
+package org.grobid.service.job;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Status of a document submitted to the asynchronous processing.
+ * The status, the timestamps and the error are updated by the worker and read by the request threads.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Job {
+    private String id;
+    private volatile JobStatus status;
+    private String filename;
+    private boolean disableLinking;
+    private long submitted;
+    private volatile Long started;
+    private volatile Long finished;
+    private volatile String error;
+
+    public Job() {
+    }
+
+    public Job(String id, String filename, boolean disableLinking) {
+        this.id = id;
+        this.filename = filename;
+        this.disableLinking = disableLinking;
+        this.status = JobStatus.QUEUED;
+        this.submitted = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public boolean isDisableLinking() {
+        return disableLinking;
+    }
+
+    public void setDisableLinking(boolean disableLinking) {
+        this.disableLinking = disableLinking;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public void setSubmitted(long submitted) {
+        this.submitted = submitted;
+    }
+
+    public Long getStarted() {
+        return started;
+    }
+
+    public void setStarted(Long started) {
+        this.started = started;
+    }
+
+    public Long getFinished() {
+        return finished;
+    }
+
+    public void setFinished(Long finished) {
+        this.finished = finished;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status != null && status.isFinished();
+    }
+}
@@ -0,0 +1,262 @@
+package org.grobid.service.job;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import org.apache.commons.io.FileUtils;
+import org.grobid.core.data.document.DocumentResponse;
+import org.grobid.core.engines.ModuleEngine;
+import org.grobid.core.utilities.UploadSpooler;
+import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.grobid.service.configuration.JobsConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.*;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs the PDF documents submitted via /process/pdf/async on a bounded pool of workers.
+ * <p>
+ * For each job the uploaded document ({id}.pdf), the status ({id}.json) and, once processed,
+ * the result ({id}.result.json) are stored in the jobs directory. At startup the jobs which were
+ * queued or running when the service stopped are queued again, and the finished jobs are removed
+ * once they are older than the configured time to live.
+ */
+@Singleton
+public class JobManager implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobManager.class);
+
+    private static final String INPUT_SUFFIX = ".pdf";
+    private static final String STATUS_SUFFIX = ".json";
+    private static final String RESULT_SUFFIX = ".result.json";
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final JobsConfiguration configuration;
+    private final ModuleEngine moduleEngine;
+    private final UploadSpooler uploadSpooler;
+    private final File directory;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService cleaner;
+
+    @Inject
+    public JobManager(GrobidSuperconductorsConfiguration configuration, ModuleEngine moduleEngine) {
+        this.configuration = configuration.getJobs();
+        this.moduleEngine = moduleEngine;
+        this.uploadSpooler = new UploadSpooler(configuration.getUpload());
+        this.directory = new File(this.configuration.getDirectory());
+    }
+
+    @Override
+    public void start() throws Exception {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create the jobs directory " + directory.getAbsolutePath());
+        }
+
+        int workers = configuration.getWorkers();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(configuration.getMaxQueueSize()),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("job-worker-%d").build());
+
+        recover();
+
+        cleaner = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("job-cleaner-%d").build());
+        cleaner.scheduleWithFixedDelay(this::removeExpiredJobs, 1, 1, TimeUnit.HOURS);
+
+        LOGGER.info("Asynchronous jobs: " + workers + " workers, " + jobs.size() + " jobs recovered from " + directory.getAbsolutePath());
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (cleaner != null) {
+            cleaner.shutdownNow();
+        }
+        if (executor != null) {
+            // The jobs still queued or running are left on disk with their status and recovered at the next startup:
+            // the queued ones are not started, the running ones have some time to finish before being interrupted
+            List<Runnable> notStarted = new ArrayList<>();
+            executor.getQueue().drainTo(notStarted);
+            executor.shutdown();
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("The running jobs did not finish in " + SHUTDOWN_TIMEOUT_SECONDS + " seconds, interrupting them. "
+                    + "They will be processed again at the next startup. ");
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Store the document and queue it for processing.
+     *
+     * @return the queued job, or null when the queue is full
+     */
+    public Job submit(InputStream inputStream, String filename, boolean disableLinking) throws IOException {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            return null;
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), filename, disableLinking);
+        uploadSpooler.spool(inputStream, getInputFile(job.getId()));
+        writeStatus(job);
+        jobs.put(job.getId(), job);
+
+        if (!enqueue(job)) {
+            jobs.remove(job.getId());
+            deleteFiles(job.getId());
+            return null;
+        }
+        return job;
+    }
+
+    public Job getJob(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Return the file containing the JSON result of the job, or null if the job is not done
+     */
+    public File getResult(String id) {
+        Job job = jobs.get(id);
+        if (job == null || job.getStatus() != JobStatus.DONE) {
+            return null;
+        }
+        File result = getResultFile(id);
+        return result.exists() ? result : null;
+    }
+
+    private boolean enqueue(Job job) {
+        try {
+            executor.execute(() -> run(job));
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("The job queue is full, cannot queue the job " + job.getId());
+            return false;
+        }
+    }
+
+    void run(Job job) {
+        job.setStatus(JobStatus.RUNNING);
+        job.setStarted(System.currentTimeMillis());
+        writeStatus(job);
+
+        try {
+            DocumentResponse response = moduleEngine.process(getInputFile(job.getId()), job.isDisableLinking(), null);
+            job.setFinished(System.currentTimeMillis());
+            response.setRuntime(job.getFinished() - job.getStarted());
+            MAPPER.writeValue(getResultFile(job.getId()), response);
+            job.setStatus(JobStatus.DONE);
+        } catch (Exception e) {
+            if (isInterrupted(e)) {
+                // Stopping: the status stays RUNNING and the input is kept, so the job is recovered at the next startup
+                LOGGER.info("The job " + job.getId() + " has been interrupted, it will be processed again at the next startup. ");
+                return;
+            }
+            LOGGER.error("Error when processing the job " + job.getId() + " (" + job.getFilename() + ")", e);
+            job.setFinished(System.currentTimeMillis());
+            job.setStatus(JobStatus.FAILED);
+            job.setError(e.getMessage());
+        }
+
+        writeStatus(job);
+        FileUtils.deleteQuietly(getInputFile(job.getId()));
+    }
+
+    private boolean isInterrupted(Exception e) {
+        if (Thread.currentThread().isInterrupted() || executor != null && executor.isShutdown()) {
+            return true;
+        }
+        return Throwables.getCausalChain(e).stream()
+            .anyMatch(t -> t instanceof InterruptedException || t instanceof InterruptedIOException || t instanceof ClosedByInterruptException);
+    }
+
+    /**
+     * Load the jobs stored in the directory, queue again the ones which were not finished
+     */
+    void recover() {
+        File[] statusFiles = directory.listFiles((dir, name) -> name.endsWith(STATUS_SUFFIX) && !name.endsWith(RESULT_SUFFIX));
+        if (statusFiles == null) {
+            return;
+        }
+
+        List<Job> pending = new ArrayList<>();
+        for (File statusFile : statusFiles) {
+            try {
+                Job job = MAPPER.readValue(statusFile, Job.class);
+                jobs.put(job.getId(), job);
+                if (!job.isFinished()) {
+                    pending.add(job);
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Cannot read the job status " + statusFile.getAbsolutePath() + ", ignoring it. ", e);
+            }
+        }
+
+        pending.sort(Comparator.comparingLong(Job::getSubmitted));
+        for (Job job : pending) {
+            if (!getInputFile(job.getId()).exists()) {
+                job.setStatus(JobStatus.FAILED);
+                job.setError("The input document is missing");
+                writeStatus(job);
+                continue;
+            }
+            job.setStatus(JobStatus.QUEUED);
+            job.setStarted(null);
+            writeStatus(job);
+            if (!enqueue(job)) {
+                job.setStatus(JobStatus.FAILED);
+                job.setError("The job queue is full");
+                writeStatus(job);
+            }
+        }
+    }
+
+    void removeExpiredJobs() {
+        long limit = System.currentTimeMillis() - configuration.getTimeToLive().toMilliseconds();
+        for (Job job : new ArrayList<>(jobs.values())) {
+            if (job.isFinished() && job.getFinished() != null && job.getFinished() < limit) {
+                jobs.remove(job.getId());
+                deleteFiles(job.getId());
+            }
+        }
+    }
+
+    private void writeStatus(Job job) {
+        File statusFile = new File(directory, job.getId() + STATUS_SUFFIX);
+        File tmpFile = new File(directory, job.getId() + STATUS_SUFFIX + ".tmp");
+        try {
+            MAPPER.writeValue(tmpFile, job);
+            Files.move(tmpFile.toPath(), statusFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write the status of the job " + job.getId(), e);
+        }
+    }
+
+    private void deleteFiles(String id) {
+        FileUtils.deleteQuietly(getInputFile(id));
+        FileUtils.deleteQuietly(getResultFile(id));
+        FileUtils.deleteQuietly(new File(directory, id + STATUS_SUFFIX));
+    }
+
+    private File getInputFile(String id) {
+        return new File(directory, id + INPUT_SUFFIX);
+    }
+
+    private File getResultFile(String id) {
+        return new File(directory, id + RESULT_SUFFIX);
+    }
+}
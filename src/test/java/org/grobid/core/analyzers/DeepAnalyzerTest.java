@@ -5,7 +5,12 @@ import org.grobid.core.utilities.LayoutTokensUtil;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.StringTokenizer;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThan;
@@ -75,4 +80,62 @@ public class DeepAnalyzerTest {
         System.out.println(tokenize);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testTokenize_shouldMatchStringTokenizerAndRegexSplit() throws Exception {
+        List<String> inputs = new ArrayList<>(Arrays.asList(
+            "",
+            "La2\u2212xSrxCuO4 (LSCO)",
+            "1m74 at 39K, Tc=26K; Ba1-xKxFe2As2 (x = 0.4)",
+            "YBa2Cu3O7-δ at 92\u00A0K",
+            "α2β3 \uD835\uDC65 2\uD835\uDC65 é5 5é",
+            "   ",
+            "((2))"
+        ));
+
+        // Random strings mixing delimiters, letters, digits, non-ASCII letters and surrogate pairs
+        String alphabet = "aZx019 \n\t-−.,()=δéα\u00A0\uD835\uDC65";
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(30);
+            for (int j = 0; j < length; j++) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            inputs.add(input.toString());
+        }
+
+        for (String input : inputs) {
+            List<String> expected = referenceTokenize(input);
+            assertThat(input, target.tokenize(input), is(expected));
+
+            List<LayoutToken> layoutTokens = target.tokenizeWithLayoutToken(input);
+            assertThat(layoutTokens.stream().map(LayoutToken::getText).collect(Collectors.toList()), is(expected));
+
+            LayoutToken chunk = new LayoutToken(input);
+            chunk.setFont("Arial");
+            chunk.setOffset(100);
+            List<LayoutToken> subTokens = target.tokenize(chunk, 100);
+            assertThat(subTokens.stream().map(LayoutToken::getText).collect(Collectors.toList()), is(expected));
+
+            int offset = 100;
+            for (int i = 0; i < subTokens.size(); i++) {
+                assertThat(layoutTokens.get(i).getOffset(), is(offset - 100));
+                assertThat(subTokens.get(i).getOffset(), is(offset));
+                assertThat(subTokens.get(i).getFont(), is("Arial"));
+                offset += subTokens.get(i).getText().length();
+            }
+        }
+    }
+
+    /**
+     * The tokenization as it was implemented before the single-pass scanner
+     */
+    private static List<String> referenceTokenize(String text) {
+        List<String> result = new ArrayList<>();
+        StringTokenizer st = new StringTokenizer(text, DeepAnalyzer.DELIMITERS, true);
+        while (st.hasMoreTokens()) {
+            result.addAll(Arrays.asList(st.nextToken().split("(?<=[a-zA-Z])(?=\\d)|(?<=\\d)(?=\\D)")));
+        }
+        return result;
+    }
+}
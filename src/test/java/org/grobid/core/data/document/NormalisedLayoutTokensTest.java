@@ -0,0 +1,60 @@
+package org.grobid.core.data.document;
+
+import org.grobid.core.analyzers.DeepAnalyzer;
+import org.grobid.core.engines.SuperconductorsParser;
+import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.LayoutTokensUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class NormalisedLayoutTokensTest {
+
+    @Test
+    public void testOf_shouldMapTheRetokenizedTokensToTheOriginalOnes() {
+        // Tokens produced by another tokenizer, "1m74" is split by the normalisation
+        List<LayoutToken> original = Arrays.asList(new LayoutToken("Height"), new LayoutToken(" "), new LayoutToken("1m74"));
+        original.get(0).setOffset(10);
+        original.get(1).setOffset(16);
+        original.get(2).setOffset(17);
+
+        NormalisedLayoutTokens normalised = NormalisedLayoutTokens.of(original);
+
+        assertThat(normalised.size(), is(5));
+        assertThat(LayoutTokensUtil.toText(normalised.getLayoutTokens()), is("Height 1m74"));
+        assertThat(normalised.getLayoutTokens().get(3).getText(), is("m"));
+        assertThat(normalised.getLayoutTokens().get(3).getOffset(), is(18));
+        assertThat(normalised.getOriginalIndex(0), is(0));
+        assertThat(normalised.getOriginalIndex(1), is(1));
+        assertThat(normalised.getOriginalIndex(2), is(2));
+        assertThat(normalised.getOriginalIndex(4), is(2));
+
+        // The original tokens are not modified
+        assertThat(original.get(2).getText(), is("1m74"));
+    }
+
+    @Test
+    public void testOf_shouldMatchTheParserNormalisation() {
+        List<LayoutToken> tokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken("La2−xSrxCuO4 shows Tc = 38 K");
+
+        List<String> expected = Arrays.asList(SuperconductorsParser.normalizeLayoutTokens(tokens).stream()
+            .flatMap(t -> DeepAnalyzer.getInstance().tokenize(t, t.getOffset()).stream())
+            .map(LayoutToken::getText)
+            .toArray(String[]::new));
+
+        assertThat(Arrays.asList(NormalisedLayoutTokens.of(tokens).getLayoutTokens().stream()
+            .map(LayoutToken::getText).toArray(String[]::new)), is(expected));
+    }
+
+    @Test
+    public void testGetNormalisedTokens_shouldBeComputedOncePerPassage() {
+        RawPassage passage = new RawPassage(DeepAnalyzer.getInstance().tokenizeWithLayoutToken("MgB2 at 39 K"));
+
+        assertThat(passage.getNormalisedTokens(), is(sameInstance(passage.getNormalisedTokens())));
+    }
+}
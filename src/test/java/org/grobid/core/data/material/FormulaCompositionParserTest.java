@@ -0,0 +1,77 @@
+package org.grobid.core.data.material;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class FormulaCompositionParserTest {
+
+    @Test
+    void testParse_simpleFormula() {
+        ChemicalComposition composition = FormulaCompositionParser.parse("MgB2");
+
+        assertThat(composition.getFormula()).isEqualTo("MgB2");
+        assertThat(composition.getComposition()).containsExactly(entry("Mg", "1"), entry("B", "2"));
+    }
+
+    @Test
+    void testParse_decimalAmountsInParenthesis() {
+        ChemicalComposition composition = FormulaCompositionParser.parse("La(O0.9F0.1)FeAs");
+
+        assertThat(composition.getComposition())
+            .containsExactly(entry("La", "1"), entry("O", "0.9"), entry("F", "0.1"), entry("Fe", "1"), entry("As", "1"));
+    }
+
+    @Test
+    void testParse_nestedGroups_shouldMultiplyAndMerge() {
+        ChemicalComposition composition = FormulaCompositionParser.parse("Ca2[Fe(CN)6]2O");
+
+        assertThat(composition.getComposition())
+            .containsExactly(entry("Ca", "2"), entry("Fe", "2"), entry("C", "12"), entry("N", "12"), entry("O", "1"));
+    }
+
+    @Test
+    void testParse_spacesAndTrailingZeros() {
+        ChemicalComposition composition = FormulaCompositionParser.parse(" Li 0.10 (NH 3 ) 0.9 Fe 2 Se 2.00 ");
+
+        assertThat(composition.getFormula()).isEqualTo("Li 0.10 (NH 3 ) 0.9 Fe 2 Se 2.00");
+        assertThat(composition.getComposition())
+            .containsExactly(entry("Li", "0.1"), entry("N", "0.9"), entry("H", "2.7"), entry("Fe", "2"), entry("Se", "2"));
+    }
+
+    @Test
+    void testParse_twoLettersSymbolsAreCaseSensitive() {
+        assertThat(FormulaCompositionParser.parse("CO").getComposition()).containsExactly(entry("C", "1"), entry("O", "1"));
+        assertThat(FormulaCompositionParser.parse("Co").getComposition()).containsExactly(entry("Co", "1"));
+    }
+
+    @Test
+    void testParse_familyShorthands_shouldReturnNull() {
+        assertThat(FormulaCompositionParser.parse("Bi2212")).isNull();
+        assertThat(FormulaCompositionParser.parse("Y123")).isNull();
+        assertThat(FormulaCompositionParser.parse("Hg1223")).isNull();
+        assertThat(FormulaCompositionParser.parse("Bi 2223")).isNull();
+        assertThat(FormulaCompositionParser.parse("LaFeAsO1111")).isNull();
+    }
+
+    @Test
+    void testParse_twoDigitsAndDecimalAmounts_shouldBeParsed() {
+        assertThat(FormulaCompositionParser.parse("LaH10").getComposition()).containsExactly(entry("La", "1"), entry("H", "10"));
+        assertThat(FormulaCompositionParser.parse("C60").getComposition()).containsExactly(entry("C", "60"));
+        assertThat(FormulaCompositionParser.parse("Fe0.125Se").getComposition()).containsExactly(entry("Fe", "0.125"), entry("Se", "1"));
+    }
+
+    @Test
+    void testParse_unsupportedFormulas_shouldReturnNull() {
+        assertThat(FormulaCompositionParser.parse("La(O1-xFx)FeAs")).isNull();
+        assertThat(FormulaCompositionParser.parse("YBa2Cu3O7-δ")).isNull();
+        assertThat(FormulaCompositionParser.parse("(Sr, Na)Fe2As2")).isNull();
+        assertThat(FormulaCompositionParser.parse("Xy2")).isNull();
+        assertThat(FormulaCompositionParser.parse("La(O0.9F0.1FeAs")).isNull();
+        assertThat(FormulaCompositionParser.parse("Fe()2")).isNull();
+        assertThat(FormulaCompositionParser.parse("MgB0")).isNull();
+        assertThat(FormulaCompositionParser.parse("")).isNull();
+        assertThat(FormulaCompositionParser.parse(null)).isNull();
+    }
+}
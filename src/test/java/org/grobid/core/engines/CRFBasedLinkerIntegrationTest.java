@@ -15,11 +15,13 @@ import org.grobid.core.utilities.client.ChemDataExtractorClient;
 import org.grobid.core.utilities.GrobidProperties;
 import org.grobid.core.utilities.client.StructureIdentificationModuleClient;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
@@ -54,14 +56,19 @@ public class CRFBasedLinkerIntegrationTest {
         this.moduleEngine = new ModuleEngine(new GrobidSuperconductorsConfiguration(), superParser, QuantityParser.getInstance(true), null, null);
     }
 
+    @After
+    public void tearDown() throws Exception {
+        moduleEngine.stop();
+    }
+
     @Test
     @Ignore()
     public void testRealCase_shouldExtract1Link() throws Exception {
         String input = "MgB 2 was discovered to be a superconductor in 2001, and it has a remarkably high critical temperature (T c ) around 40 K with a simple hexagonal structure.";
         List<LayoutToken> layoutTokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken(input);
 
-        EasyMock.expect(mockChemdataExtractorClient.processBulk(EasyMock.anyObject())).andReturn(Arrays.asList(new ArrayList<>()));
-        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMulti(EasyMock.anyObject())).andReturn(new ArrayList<>());
+        EasyMock.expect(mockChemdataExtractorClient.processBulkAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(Arrays.asList(new ArrayList<>())));
+        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMultiAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(new ArrayList<>()));
         EasyMock.replay(mockChemdataExtractorClient, mockSpaceGroupsClient);
         
         List<TextPassage> passages = moduleEngine.process(Arrays.asList(new RawPassage(layoutTokens)), true);
@@ -95,8 +102,8 @@ public class CRFBasedLinkerIntegrationTest {
         String input = "The crystal structure of (Sr, Na)Fe 2 As 2 has been refined for polycrystalline samples in the range of 0 ⩽ x ⩽ 0.42 with a maximum T c of 26 K .";
         List<LayoutToken> layoutTokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken(input);
 
-        EasyMock.expect(mockChemdataExtractorClient.processBulk(EasyMock.anyObject())).andReturn(Arrays.asList(new ArrayList<>()));
-        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMulti(EasyMock.anyObject())).andReturn(new ArrayList<>());
+        EasyMock.expect(mockChemdataExtractorClient.processBulkAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(Arrays.asList(new ArrayList<>())));
+        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMultiAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(new ArrayList<>()));
         EasyMock.replay(mockChemdataExtractorClient, mockSpaceGroupsClient);
 
         List<TextPassage> paragraphs = moduleEngine.process(Arrays.asList(new RawPassage(layoutTokens)), true);
@@ -129,8 +136,8 @@ public class CRFBasedLinkerIntegrationTest {
         String input = "Previous studies have shown that pressure of 1 GPa can reduce T c , but only by less than 2 K in MgB 2 .";
         List<LayoutToken> layoutTokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken(input);
 
-        EasyMock.expect(mockChemdataExtractorClient.processBulk(EasyMock.anyObject())).andReturn(Arrays.asList(new ArrayList<>()));
-        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMulti(EasyMock.anyObject())).andReturn(new ArrayList<>());
+        EasyMock.expect(mockChemdataExtractorClient.processBulkAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(Arrays.asList(new ArrayList<>())));
+        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMultiAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(new ArrayList<>()));
         EasyMock.replay(mockChemdataExtractorClient, mockSpaceGroupsClient);
         
         List<TextPassage> paragraphs = moduleEngine.process(Arrays.asList(new RawPassage(layoutTokens)), true);
@@ -153,8 +160,8 @@ public class CRFBasedLinkerIntegrationTest {
         String input = "Theory-oriented experiments show that the compressed hydride of Group VI (hydrogen sulfide, H 3 S) exhibits a superconducting state at 203 K. ";
         List<LayoutToken> layoutTokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken(input);
 
-        EasyMock.expect(mockChemdataExtractorClient.processBulk(EasyMock.anyObject())).andReturn(Arrays.asList(new ArrayList<>()));
-        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMulti(EasyMock.anyObject())).andReturn(new ArrayList<>());
+        EasyMock.expect(mockChemdataExtractorClient.processBulkAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(Arrays.asList(new ArrayList<>())));
+        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMultiAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(new ArrayList<>()));
         EasyMock.replay(mockChemdataExtractorClient, mockSpaceGroupsClient);
 
         List<TextPassage> paragraphs = moduleEngine.process(Arrays.asList(new RawPassage(layoutTokens)), true);
@@ -183,8 +190,8 @@ public class CRFBasedLinkerIntegrationTest {
         String input = "Moreover, a Group V hydride (phosphorus hydride, PH 3 ) has also been studied and its T c reached a maximum of 103 K.";
         List<LayoutToken> layoutTokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken(input);
 
-        EasyMock.expect(mockChemdataExtractorClient.processBulk(EasyMock.anyObject())).andReturn(Arrays.asList(new ArrayList<>()));
-        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMulti(EasyMock.anyObject())).andReturn(new ArrayList<>());
+        EasyMock.expect(mockChemdataExtractorClient.processBulkAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(Arrays.asList(new ArrayList<>())));
+        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMultiAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(new ArrayList<>()));
         EasyMock.replay(mockChemdataExtractorClient, mockSpaceGroupsClient);
 
         List<TextPassage> paragraphs = moduleEngine.process(Arrays.asList(new RawPassage(layoutTokens)), true);
@@ -214,8 +221,8 @@ public class CRFBasedLinkerIntegrationTest {
         String input = "The experimental realisation of the superconductivity in H 3 S and PH 3 inspired us to search for other hydride superconductors.";
         List<LayoutToken> layoutTokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken(input);
 
-        EasyMock.expect(mockChemdataExtractorClient.processBulk(EasyMock.anyObject())).andReturn(Arrays.asList(new ArrayList<>()));
-        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMulti(EasyMock.anyObject())).andReturn(new ArrayList<>());
+        EasyMock.expect(mockChemdataExtractorClient.processBulkAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(Arrays.asList(new ArrayList<>())));
+        EasyMock.expect(mockSpaceGroupsClient.extractStructuresMultiAsync(EasyMock.anyObject())).andReturn(CompletableFuture.completedFuture(new ArrayList<>()));
         EasyMock.replay(mockChemdataExtractorClient, mockSpaceGroupsClient);
         
         List<TextPassage> paragraphs = moduleEngine.process(Collections.singletonList(new RawPassage(layoutTokens)), true);
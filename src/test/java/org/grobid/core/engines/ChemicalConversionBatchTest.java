@@ -0,0 +1,118 @@
+package org.grobid.core.engines;
+
+import org.easymock.EasyMock;
+import org.grobid.core.data.material.ChemicalComposition;
+import org.grobid.core.data.material.Formula;
+import org.grobid.core.utilities.client.ChemicalMaterialParserClient;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ChemicalConversionBatchTest {
+
+    ChemicalConversionBatch target;
+    ChemicalMaterialParserClient mockChemicalMaterialParserClient;
+
+    @Before
+    public void setUp() throws Exception {
+        mockChemicalMaterialParserClient = EasyMock.createMock(ChemicalMaterialParserClient.class);
+        target = new ChemicalConversionBatch();
+    }
+
+    @Test
+    public void testResolve_shouldUseOneRequestAndScatterResults() throws Exception {
+        Formula formula1 = new Formula("MgB2");
+        Formula formula2 = new Formula("MgB2");
+        Formula formula3 = new Formula("La(O1-xFx)FeAs");
+        Formula formula4 = new Formula("La(O1-xFx)FeAs");
+
+        target.addFormula("La(O1-xFx)FeAs", formula3);
+        target.addFormula("MgB2", formula1);
+        target.addFormula("La(O1-xFx)FeAs", formula4);
+        target.addFormula("MgB2", formula2);
+
+        List<ChemicalComposition> names = new ArrayList<>();
+        target.addName("lanthanum hydride", names::add);
+
+        List<String> events = new ArrayList<>();
+        target.onResolved(() -> events.add("resolved " + names.size()));
+
+        EasyMock.expect(mockChemicalMaterialParserClient.convertFormulasToCompositions(Arrays.asList("La(O1-xFx)FeAs")))
+            .andReturn(Arrays.asList(composition(null, "La", "1", "O", "1-x", "F", "x", "Fe", "1", "As", "1")));
+        EasyMock.expect(mockChemicalMaterialParserClient.convertNamesToFormulas(Arrays.asList("lanthanum hydride")))
+            .andReturn(Arrays.asList(composition("LaH", "La", "1", "H", "1")));
+
+        EasyMock.replay(mockChemicalMaterialParserClient);
+
+        target.resolve(mockChemicalMaterialParserClient);
+
+        EasyMock.verify(mockChemicalMaterialParserClient);
+
+        assertThat(formula1.getFormulaComposition().get("B"), is("2"));
+        assertThat(formula2.getFormulaComposition().get("B"), is("2"));
+        assertThat(formula3.getFormulaComposition().get("O"), is("1-x"));
+        assertThat(formula4.getFormulaComposition().get("F"), is("x"));
+        assertThat(names.size(), is(1));
+        assertThat(names.get(0).getFormula(), is("LaH"));
+        assertThat(events, is(Arrays.asList("resolved 1")));
+        assertThat(target.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testResolve_missingClient_shouldOnlyParseLocallyAndRunTheActions() throws Exception {
+        Formula formula = new Formula("MgB2");
+        Formula formulaWithVariables = new Formula("La(O1-xFx)FeAs");
+        target.addFormula("MgB2", formula);
+        target.addFormula("La(O1-xFx)FeAs", formulaWithVariables);
+
+        List<ChemicalComposition> names = new ArrayList<>();
+        target.addName("lanthanum hydride", names::add);
+
+        List<String> events = new ArrayList<>();
+        target.onResolved(() -> events.add("resolved"));
+
+        target.resolve(null);
+
+        assertThat(formula.getFormulaComposition().get("B"), is("2"));
+        assertThat(formulaWithVariables.getFormulaComposition().size(), is(0));
+        assertThat(names.size(), is(0));
+        assertThat(events, is(Arrays.asList("resolved")));
+    }
+
+    @Test
+    public void testResolve_allFormulasParsedLocally_shouldNotCallTheClient() throws Exception {
+        Formula formula1 = new Formula("MgB2");
+        Formula formula2 = new Formula("La(O0.9F0.1)FeAs");
+        target.addFormula("MgB2", formula1);
+        target.addFormula("La(O0.9F0.1)FeAs", formula2);
+
+        EasyMock.replay(mockChemicalMaterialParserClient);
+
+        target.resolve(mockChemicalMaterialParserClient);
+
+        EasyMock.verify(mockChemicalMaterialParserClient);
+
+        assertThat(formula1.getFormulaComposition().get("Mg"), is("1"));
+        assertThat(formula2.getFormulaComposition().get("O"), is("0.9"));
+        assertThat(formula2.getFormulaComposition().get("F"), is("0.1"));
+    }
+
+    private static ChemicalComposition composition(String formula, String... elementsAndAmounts) {
+        ChemicalComposition chemicalComposition = new ChemicalComposition();
+        chemicalComposition.setFormula(formula);
+        Map<String, String> composition = new LinkedHashMap<>();
+        for (int i = 0; i < elementsAndAmounts.length; i += 2) {
+            composition.put(elementsAndAmounts[i], elementsAndAmounts[i + 1]);
+        }
+        chemicalComposition.setComposition(composition);
+        return chemicalComposition;
+    }
+}
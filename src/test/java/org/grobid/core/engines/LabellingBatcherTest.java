@@ -0,0 +1,120 @@
+package org.grobid.core.engines;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class LabellingBatcherTest {
+
+    private LabellingBatcher target;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final Function<List<String>, List<String>> upperCase = passages -> {
+        calls.incrementAndGet();
+        return passages.stream().map(String::toUpperCase).collect(Collectors.toList());
+    };
+
+    @After
+    public void tearDown() {
+        if (target != null) {
+            target.close();
+        }
+    }
+
+    @Test
+    public void testLabel_concurrentRequests_shouldBeLabelledInSingleCall() throws Exception {
+        // The batch is full once the four requests are gathered, the wait never expires
+        target = new LabellingBatcher("test", upperCase, 4, 1, TimeUnit.MINUTES);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String passage = "passage " + i;
+                results.add(executor.submit(() -> target.label(Collections.singletonList(passage))));
+            }
+
+            for (int i = 0; i < 4; i++) {
+                assertThat(results.get(i).get(10, TimeUnit.SECONDS), is(Collections.singletonList("PASSAGE " + i)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void testLabel_singleRequest_shouldBeLabelledAfterMaxWait() {
+        target = new LabellingBatcher("test", upperCase, 64, 10, TimeUnit.MILLISECONDS);
+
+        assertThat(target.label(Arrays.asList("a", "b")), is(Arrays.asList("A", "B")));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void testLabel_resultsMismatch_shouldLabelSeparately() throws Exception {
+        // Return a single result when more than one passage is labelled
+        target = new LabellingBatcher("test", passages -> {
+            calls.incrementAndGet();
+            return passages.size() > 1 ? Collections.singletonList("wrong") : upperCase.apply(passages);
+        }, 2, 1, TimeUnit.MINUTES);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<String>> first = executor.submit(() -> target.label(Collections.singletonList("a")));
+            Future<List<String>> second = executor.submit(() -> target.label(Collections.singletonList("b")));
+
+            assertThat(first.get(10, TimeUnit.SECONDS), is(Collections.singletonList("A")));
+            assertThat(second.get(10, TimeUnit.SECONDS), is(Collections.singletonList("B")));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLabel_labellerFails_shouldThrowToCaller() {
+        target = new LabellingBatcher("test", passages -> {
+            throw new IllegalStateException("model not loaded");
+        }, 64, 1, TimeUnit.MILLISECONDS);
+
+        try {
+            target.label(Collections.singletonList("a"));
+            fail();
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("model not loaded"));
+        }
+    }
+
+    @Test
+    public void testLabel_labellerThrowsError_shouldThrowToCallerAndKeepDispatching() {
+        AtomicInteger attempts = new AtomicInteger();
+        target = new LabellingBatcher("test", passages -> {
+            if (attempts.getAndIncrement() == 0) {
+                throw new UnsatisfiedLinkError("native library not loaded");
+            }
+            return upperCase.apply(passages);
+        }, 64, 1, TimeUnit.MILLISECONDS);
+
+        try {
+            target.label(Collections.singletonList("a"));
+            fail();
+        } catch (UnsatisfiedLinkError e) {
+            assertThat(e.getMessage(), is("native library not loaded"));
+        }
+
+        assertThat(target.label(Collections.singletonList("b")), is(Collections.singletonList("B")));
+    }
+}
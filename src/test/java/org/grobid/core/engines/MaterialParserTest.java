@@ -122,6 +122,29 @@ public class MaterialParserTest {
     }
 
 
+    @Test
+    public void testProcess_formulaWithoutClient_shouldParseTheCompositionLocally() {
+        String text = "Polycrystalline MgB2";
+        List<LayoutToken> layoutTokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken(text);
+
+        List<Triple<String, Integer, Integer>> labels = Arrays.asList(
+            Triple.of("<shape>", 0, 1),
+            Triple.of("<formula>", 2, 3)
+        );
+
+        List<String> features = generateFeatures(layoutTokens);
+        String results = getWapitiResult(features, labels);
+
+        ChemicalConversionBatch batch = new ChemicalConversionBatch();
+        List<Material> materials = target.extractResults(layoutTokens, results, batch);
+        target.resolve(batch);
+
+        assertThat(materials, hasSize(1));
+        assertThat(materials.get(0).getFormula().getRawValue(), is("MgB2"));
+        assertThat(materials.get(0).getFormula().getFormulaComposition().get("Mg"), is("1"));
+        assertThat(materials.get(0).getFormula().getFormulaComposition().get("B"), is("2"));
+    }
+
     @Test
     public void testExtractResults_singleMaterial() {
         String text = "Polycrystalline Hydrated sulfide";
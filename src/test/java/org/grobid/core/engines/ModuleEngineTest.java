@@ -1,5 +1,7 @@
 package org.grobid.core.engines;
 
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.easymock.EasyMock;
 import org.grobid.core.analyzers.DeepAnalyzer;
@@ -10,12 +12,14 @@ import org.grobid.core.data.document.Span;
 import org.grobid.core.data.document.TextPassage;
 import org.grobid.core.engines.label.SuperconductorsTaggingLabels;
 import org.grobid.core.engines.linking.CRFBasedLinker;
+import org.grobid.core.layout.BoundingBox;
 import org.grobid.core.layout.LayoutToken;
 import org.grobid.core.lexicon.Lexicon;
 import org.grobid.core.utilities.GrobidConfig;
 import org.grobid.core.utilities.GrobidProperties;
 import org.grobid.core.utilities.UnitUtilities;
 import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -29,8 +33,11 @@ import java.sql.Array;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
+import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 
@@ -62,6 +69,11 @@ public class ModuleEngineTest {
         target = new ModuleEngine(new GrobidSuperconductorsConfiguration(), mockSuperconductorsParser, mockQuantityParser, null, mockCRFBasedLinker);
     }
 
+    @After
+    public void tearDown() throws Exception {
+        target.stop();
+    }
+
     @Test
     public void testAggregation() throws Exception {
         String text = "The Tc of the BaClE2 is 30K";
@@ -84,9 +96,7 @@ public class ModuleEngineTest {
         quantity.setLayoutTokens(Arrays.asList(tokens.get(13), tokens.get(14)));
         temperature.setAtomicQuantity(quantity);
 
-        List<List<LayoutToken>> aggregatedTokens = Arrays.asList(tokens);
-
-        EasyMock.expect(mockSuperconductorsParser.process(aggregatedTokens)).andReturn(Arrays.asList(Arrays.asList(superconductor)));
+        EasyMock.expect(mockSuperconductorsParser.processNormalised(EasyMock.anyObject(), EasyMock.anyObject(StageRecorder.class))).andReturn(Arrays.asList(Arrays.asList(superconductor)));
         EasyMock.expect(mockQuantityParser.process(tokens)).andReturn(Arrays.asList(temperature));
 //        EasyMock.expect(mockEntityLinkerParser.process((List<LayoutToken>) EasyMock.anyObject(), EasyMock.anyObject())).andReturn(new ArrayList<>());
 
@@ -98,6 +108,75 @@ public class ModuleEngineTest {
 
     }
 
+    @Test
+    public void testProcess_pipelined_shouldPreserveOrder() throws Exception {
+        GrobidSuperconductorsConfiguration configuration = new GrobidSuperconductorsConfiguration();
+        configuration.getPipeline().setChunkSize(1);
+        ModuleEngine pipelinedTarget = new ModuleEngine(configuration, mockSuperconductorsParser, mockQuantityParser, null, mockCRFBasedLinker);
+
+        List<String> sentences = Arrays.asList("The Tc of the BaClE2 is 30K", "This is a short sentence", "And another one");
+        List<RawPassage> passages = new ArrayList<>();
+        for (String sentence : sentences) {
+            List<LayoutToken> tokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken(sentence);
+            passages.add(new RawPassage(tokens));
+
+            EasyMock.expect(mockSuperconductorsParser.processNormalised(EasyMock.anyObject(), EasyMock.anyObject(StageRecorder.class)))
+                .andReturn(Collections.singletonList(new ArrayList<>()));
+            EasyMock.expect(mockQuantityParser.process(tokens)).andReturn(new ArrayList<>());
+        }
+
+        EasyMock.replay(mockSuperconductorsParser, mockQuantityParser);
+
+        List<TextPassage> response;
+        try {
+            response = pipelinedTarget.process(passages, true);
+        } finally {
+            pipelinedTarget.stop();
+        }
+
+        EasyMock.verify(mockSuperconductorsParser, mockQuantityParser);
+
+        assertThat(response, hasSize(3));
+        assertThat(response.stream().map(TextPassage::getText).collect(Collectors.toList()), is(sentences));
+    }
+
+    @Test
+    public void testProcess_withTimings_shouldRecordTheStages() throws Exception {
+        List<LayoutToken> tokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken("The Tc of the BaClE2 is 30K");
+
+        EasyMock.expect(mockSuperconductorsParser.processNormalised(EasyMock.anyObject(), EasyMock.anyObject(StageRecorder.class)))
+            .andReturn(Collections.singletonList(new ArrayList<>()));
+        EasyMock.expect(mockQuantityParser.process(tokens)).andReturn(new ArrayList<>());
+        EasyMock.replay(mockSuperconductorsParser, mockQuantityParser);
+
+        ProcessingTimings timings = new ProcessingTimings();
+        target.process(Collections.singletonList(new RawPassage(tokens)), true, timings);
+
+        EasyMock.verify(mockSuperconductorsParser, mockQuantityParser);
+
+        assertThat(timings.asMillis().keySet(), is(new LinkedHashSet<>(Arrays.asList(ModuleEngine.STAGE_NER, ModuleEngine.STAGE_QUANTITIES))));
+        assertThat(target.getStageTimer(ModuleEngine.STAGE_NER).getCount(), is(1L));
+    }
+
+    @Test
+    public void testProcess_compactProfile_shouldNotReturnTheTokens() throws Exception {
+        List<LayoutToken> tokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken("The Tc of the BaClE2 is 30K");
+
+        EasyMock.expect(mockSuperconductorsParser.processNormalised(EasyMock.anyObject(), EasyMock.anyObject(StageRecorder.class)))
+            .andReturn(Collections.singletonList(new ArrayList<>())).times(2);
+        EasyMock.expect(mockQuantityParser.process(tokens)).andReturn(new ArrayList<>()).times(2);
+        EasyMock.replay(mockSuperconductorsParser, mockQuantityParser);
+
+        List<TextPassage> compact = target.process(Collections.singletonList(new RawPassage(tokens)), true, ResponseProfile.COMPACT, null);
+        List<TextPassage> full = target.process(Collections.singletonList(new RawPassage(tokens)), true, ResponseProfile.FULL, null);
+
+        EasyMock.verify(mockSuperconductorsParser, mockQuantityParser);
+
+        assertThat(compact.get(0).getTokens(), hasSize(0));
+        assertThat(compact.get(0).getText(), is(full.get(0).getText()));
+        assertThat(full.get(0).getTokens(), hasSize(tokens.size()));
+    }
+
     @Test
     public void testGetExtremitiesIndex_short_nearBeginning() {
 
@@ -228,4 +307,102 @@ public class ModuleEngineTest {
         assertThat(output.get(0).getText(), is("4:6 K"));
         assertThat(output.get(0).getSource(), is("quantities"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPruneOverlapping_duplicatedSpans_shouldKeepOne() {
+        List<Span> list = new ArrayList<>();
+
+        list.add(new Span("MgB2", "<material>", "superconductors", 10, 14, 2, 3));
+        list.add(new Span("MgB2", "<material>", "superconductors", 10, 14, 2, 3));
+
+        List<Span> output = ModuleEngine.pruneOverlappingAnnotations(list);
+
+        assertThat(output, hasSize(1));
+        assertThat(output.get(0), is(sameInstance(list.get(1))));
+    }
+
+    @Test
+    public void testPruneOverlapping_randomSpans_shouldMatchThePairwiseRemoval() {
+        Random random = new Random(7);
+        List<String> types = Arrays.asList("<material>", "<tcValue>", "<tc>");
+        List<String> sources = Arrays.asList("superconductors", "quantities", "rules");
+
+        for (int iteration = 0; iteration < 1000; iteration++) {
+            int size = random.nextInt(12);
+            long seed = random.nextLong();
+
+            List<Span> expected = prunePairwiseWithRemoveAll(randomSpans(new Random(seed), size, types, sources));
+            List<Span> actual = ModuleEngine.pruneOverlappingAnnotations(randomSpans(new Random(seed), size, types, sources));
+
+            assertThat(describe(actual), is(describe(expected)));
+        }
+    }
+
+    /**
+     * Spans with overlapping offsets, all different (the token start is unique), some with bounding boxes
+     */
+    private static List<Span> randomSpans(Random random, int size, List<String> types, List<String> sources) {
+        List<Span> spans = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int start = random.nextInt(30);
+            int length = 1 + random.nextInt(6);
+            Span span = new Span(StringUtils.repeat('x', length), types.get(random.nextInt(types.size())),
+                sources.get(random.nextInt(sources.size())), start, start + length, i, i + 1);
+            if (random.nextBoolean()) {
+                span.setBoundingBoxes(Collections.singletonList(BoundingBox.fromPointAndDimensions(1, i, i, 1, 1)));
+            }
+            spans.add(span);
+        }
+        return spans;
+    }
+
+    private static List<String> describe(List<Span> spans) {
+        return spans.stream()
+            .map(s -> s.getTokenStart() + ":" + s.getType() + ":" + s.getSource() + ":" + s.getBoundingBoxes().size())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * The previous implementation of the pruning, collecting the losers and removing them with CollectionUtils.removeAll
+     */
+    private static List<Span> prunePairwiseWithRemoveAll(List<Span> spanList) {
+        List<Span> sortedEntities = spanList.stream()
+            .sorted(Comparator.comparingInt(Span::getOffsetStart))
+            .collect(Collectors.toList());
+
+        if (spanList.size() <= 1) {
+            return sortedEntities;
+        }
+
+        List<Span> toBeRemoved = new ArrayList<>();
+        Span previous = null;
+        for (Span current : sortedEntities) {
+            if (previous != null && (current.getOffsetEnd() < previous.getOffsetEnd() || previous.getOffsetEnd() > current.getOffsetStart())) {
+                int previousLength = StringUtils.length(previous.getText());
+                int currentLength = StringUtils.length(current.getText());
+                boolean sameType = current.getType().equals(previous.getType());
+
+                if (sameType ? previousLength > currentLength : previousLength < currentLength) {
+                    toBeRemoved.add(current);
+                } else if (sameType ? previousLength < currentLength : previousLength > currentLength) {
+                    toBeRemoved.add(previous);
+                } else if (current.getSource().equals("superconductors")) {
+                    if (isEmpty(current.getBoundingBoxes()) && isNotEmpty(previous.getBoundingBoxes())) {
+                        current.setBoundingBoxes(previous.getBoundingBoxes());
+                    }
+                    toBeRemoved.add(previous);
+                } else if (previous.getSource().equals("superconductors")) {
+                    if (isEmpty(previous.getBoundingBoxes()) && isNotEmpty(current.getBoundingBoxes())) {
+                        previous.setBoundingBoxes(current.getBoundingBoxes());
+                    }
+                    toBeRemoved.add(current);
+                } else {
+                    toBeRemoved.add(previous);
+                }
+            }
+            previous = current;
+        }
+
+        return (List<Span>) CollectionUtils.removeAll(sortedEntities, toBeRemoved);
+    }
+}
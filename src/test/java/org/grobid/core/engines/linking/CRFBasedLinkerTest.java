@@ -0,0 +1,181 @@
+package org.grobid.core.engines.linking;
+
+import org.grobid.core.analyzers.DeepAnalyzer;
+import org.grobid.core.data.document.Link;
+import org.grobid.core.data.document.NormalisedLayoutTokens;
+import org.grobid.core.data.document.Span;
+import org.grobid.core.layout.LayoutToken;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.grobid.core.engines.label.SuperconductorsTaggingLabels.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+
+public class CRFBasedLinkerTest {
+
+    private CRFBasedLinker target;
+    private FakeEntityLinker materialTcLinker;
+    private FakeEntityLinker tcPressureLinker;
+
+    @Before
+    public void setUp() throws Exception {
+        materialTcLinker = new FakeEntityLinker(Arrays.asList(SUPERCONDUCTORS_MATERIAL_LABEL, SUPERCONDUCTORS_TC_VALUE_LABEL), "material-tc");
+        tcPressureLinker = new FakeEntityLinker(Arrays.asList(SUPERCONDUCTORS_TC_VALUE_LABEL, SUPERCONDUCTORS_PRESSURE_LABEL), "tc-pressure");
+
+        Map<String, EntityLinker> linkers = new LinkedHashMap<>();
+        linkers.put(CRFBasedLinker.MATERIAL_TCVALUE_ID, materialTcLinker);
+        linkers.put(CRFBasedLinker.TCVALUE_PRESSURE_ID, tcPressureLinker);
+        target = new CRFBasedLinker(linkers);
+    }
+
+    @Test
+    public void testProcessAll_shouldMergeTheLinksOfAllLinkers() throws Exception {
+        String text = "MgB2 has Tc of 39 K at 2 GPa";
+        List<LayoutToken> tokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken(text);
+        List<Span> annotations = Arrays.asList(
+            new Span("m1", "MgB2", SUPERCONDUCTORS_MATERIAL_LABEL),
+            new Span("t1", "39 K", SUPERCONDUCTORS_TC_VALUE_LABEL),
+            new Span("p1", "2 GPa", SUPERCONDUCTORS_PRESSURE_LABEL)
+        );
+
+        Map<String, List<Link>> links = target.processAll(tokens, annotations);
+
+        assertThat(materialTcLinker.calls.get(), is(1));
+        assertThat(tcPressureLinker.calls.get(), is(1));
+        assertThat(links.keySet(), is(new HashSet<>(Arrays.asList("m1", "t1", "p1"))));
+        assertThat(links.get("t1").stream().map(Link::getType).collect(Collectors.toList()),
+            is(Arrays.asList("material-tc", "tc-pressure")));
+
+        // The input spans are not modified
+        assertThat(annotations.get(1).getLinks(), hasSize(0));
+    }
+
+    @Test
+    public void testProcessAll_noAnnotations_shouldReturnEmpty() throws Exception {
+        List<LayoutToken> tokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken("This is a sentence");
+
+        assertThat(target.processAll(tokens, new ArrayList<>()).size(), is(0));
+        assertThat(materialTcLinker.calls.get(), is(0));
+    }
+
+    @Test
+    public void testProcessAll_batch_shouldLabelAllThePassagesWithASingleCall() throws Exception {
+        List<LayoutToken> tokens1 = DeepAnalyzer.getInstance().tokenizeWithLayoutToken("MgB2 has Tc of 39 K");
+        List<LayoutToken> tokens2 = DeepAnalyzer.getInstance().tokenizeWithLayoutToken("No entities here");
+        List<LayoutToken> tokens3 = DeepAnalyzer.getInstance().tokenizeWithLayoutToken("Tc of 10 K at 2 GPa");
+        List<Span> annotations1 = Arrays.asList(
+            new Span("m1", "MgB2", SUPERCONDUCTORS_MATERIAL_LABEL),
+            new Span("t1", "39 K", SUPERCONDUCTORS_TC_VALUE_LABEL)
+        );
+        List<Span> annotations3 = Arrays.asList(
+            new Span("t3", "10 K", SUPERCONDUCTORS_TC_VALUE_LABEL),
+            new Span("p3", "2 GPa", SUPERCONDUCTORS_PRESSURE_LABEL)
+        );
+
+        List<Map<String, List<Link>>> links = target.processAll(Arrays.asList(tokens1, tokens2, tokens3),
+            Arrays.asList(annotations1, new ArrayList<>(), annotations3));
+
+        assertThat(materialTcLinker.calls.get(), is(1));
+        assertThat(tcPressureLinker.calls.get(), is(1));
+        assertThat(links, hasSize(3));
+        assertThat(links.get(0).keySet(), is(new HashSet<>(Arrays.asList("m1", "t1"))));
+        assertThat(links.get(1).size(), is(0));
+        assertThat(links.get(2).keySet(), is(new HashSet<>(Arrays.asList("t3", "p3"))));
+        assertThat(links.get(2).get("t3").stream().map(Link::getType).collect(Collectors.toList()),
+            is(Arrays.asList("material-tc", "tc-pressure")));
+    }
+
+    @Test
+    public void testProcessAllNormalised_executor_shouldSubmitEachLinker() throws Exception {
+        List<LayoutToken> tokens = DeepAnalyzer.getInstance().tokenizeWithLayoutToken("MgB2 has Tc of 39 K at 2 GPa");
+        List<Span> annotations = Arrays.asList(
+            new Span("m1", "MgB2", SUPERCONDUCTORS_MATERIAL_LABEL),
+            new Span("t1", "39 K", SUPERCONDUCTORS_TC_VALUE_LABEL),
+            new Span("p1", "2 GPa", SUPERCONDUCTORS_PRESSURE_LABEL)
+        );
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicInteger submitted = new AtomicInteger();
+
+        try {
+            List<Map<String, List<Link>>> links = target.processAllNormalised(
+                Collections.singletonList(NormalisedLayoutTokens.of(tokens)), Collections.singletonList(annotations),
+                command -> {
+                    submitted.incrementAndGet();
+                    executor.execute(command);
+                });
+
+            assertThat(submitted.get(), is(2));
+            assertThat(links.get(0).get("t1").stream().map(Link::getType).collect(Collectors.toList()),
+                is(Arrays.asList("material-tc", "tc-pressure")));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Link every annotation of the supported types with a link of the given type, without model
+     */
+    private static class FakeEntityLinker implements EntityLinker {
+        private final List<String> annotationsToBeLinked;
+        private final String linkType;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FakeEntityLinker(List<String> annotationsToBeLinked, String linkType) {
+            this.annotationsToBeLinked = annotationsToBeLinked;
+            this.linkType = linkType;
+        }
+
+        @Override
+        public String addFeatures(List<LayoutToken> tokens, List<String> annotations) {
+            return tokens.stream().map(LayoutToken::getText).collect(Collectors.joining("\n"));
+        }
+
+        @Override
+        public List<String> getAnnotationsToBeLinked() {
+            return annotationsToBeLinked;
+        }
+
+        @Override
+        public String label(Iterable<String> data) {
+            calls.incrementAndGet();
+            // Like Wapiti, the passages are joined by new lines
+            return String.join("\n", data);
+        }
+
+        @Override
+        public String label(String data) {
+            calls.incrementAndGet();
+            return data;
+        }
+
+        @Override
+        public List<Span> extractResults(List<LayoutToken> tokens, String result, List<Span> annotations) {
+            return annotations.stream()
+                .map(a -> {
+                    Span linked = new Span(a);
+                    linked.getLinks().add(new Link("target", "target", "type", linkType));
+                    return linked;
+                })
+                .collect(Collectors.toList());
+        }
+
+        @Override
+        public List<Span> markLinkableEntities(List<Span> rawAnnotations) {
+            return rawAnnotations.stream()
+                .map(s -> {
+                    Span n = new Span(s);
+                    n.setLinkable(true);
+                    return n;
+                })
+                .collect(Collectors.toList());
+        }
+    }
+}
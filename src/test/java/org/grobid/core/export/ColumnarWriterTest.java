@@ -0,0 +1,126 @@
+package org.grobid.core.export;
+
+import org.grobid.core.data.SuperconEntry;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+
+public class ColumnarWriterTest {
+
+    @Test
+    public void testRoundTrip_shouldPreserveValuesAndNulls() throws Exception {
+        List<Column<String[]>> columns = Arrays.asList(
+            Column.string("material", r -> r[0]),
+            Column.dictionary("class", r -> r[1]),
+            Column.integer("length", r -> r[0] != null ? r[0].length() : -1)
+        );
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ColumnarWriter<String[]> writer = new ColumnarWriter<>(output, columns)) {
+            writer.appendBatch(Arrays.asList(
+                new String[]{"MgB2", "Alloys"},
+                new String[]{"La2−xSrxCuO4", "Cuprates"},
+                new String[]{null, null}
+            ));
+        }
+
+        try (ColumnarReader reader = new ColumnarReader(new ByteArrayInputStream(output.toByteArray()))) {
+            assertThat(reader.getColumnNames(), is(Arrays.asList("material", "class", "length")));
+            Map<String, List<Object>> batch = reader.nextBatch();
+
+            assertThat(batch.get("material"), is(Arrays.asList("MgB2", "La2−xSrxCuO4", null)));
+            assertThat(batch.get("class"), is(Arrays.asList("Alloys", "Cuprates", null)));
+            assertThat(batch.get("length"), is(Arrays.asList(4, 12, -1)));
+            assertThat(reader.nextBatch(), is(nullValue()));
+            assertThat(reader.isTerminated(), is(true));
+        }
+    }
+
+    @Test
+    public void testDictionary_shouldBeReplacedBetweenBatches() throws Exception {
+        List<Column<SuperconEntry>> columns = Arrays.asList(
+            Column.dictionary("materialClass", SuperconEntry::getMaterialClass),
+            Column.dictionary("section", SuperconEntry::getSection)
+        );
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ColumnarWriter<SuperconEntry> writer = new ColumnarWriter<>(output, columns, 2)) {
+            writer.write(entry("Cuprates", "body"));
+            writer.write(entry("Alloys", "body"));
+            writer.write(entry("Cuprates", "header"));
+        }
+
+        try (ColumnarReader reader = new ColumnarReader(new ByteArrayInputStream(output.toByteArray()))) {
+            Map<String, List<Object>> first = reader.nextBatch();
+            assertThat(first.get("materialClass"), is(Arrays.asList("Cuprates", "Alloys")));
+
+            Map<String, List<Object>> second = reader.nextBatch();
+            assertThat(second.get("materialClass"), hasSize(1));
+            assertThat(second.get("materialClass").get(0), is("Cuprates"));
+            assertThat(second.get("section").get(0), is("header"));
+
+            assertThat(reader.nextBatch(), is(nullValue()));
+            assertThat(reader.getColumnTypes(), is(Arrays.asList(ColumnType.DICTIONARY, ColumnType.DICTIONARY)));
+        }
+    }
+
+    @Test
+    public void testEmptyStream_shouldHaveTheSchema() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new ColumnarWriter<>(output, ExportSchemas.SPANS).close();
+
+        try (ColumnarReader reader = new ColumnarReader(new ByteArrayInputStream(output.toByteArray()))) {
+            assertThat(reader.getColumnNames(), hasSize(ExportSchemas.SPANS.size()));
+            assertThat(reader.getColumnTypes().get(1), is(ColumnType.INT));
+            assertThat(reader.nextBatch(), is(nullValue()));
+            assertThat(reader.isTerminated(), is(true));
+        }
+    }
+
+    @Test
+    public void testUnterminatedFile_shouldReadUpToTheLastCompleteBatch() throws Exception {
+        List<Column<String[]>> columns = Arrays.asList(Column.string("material", r -> r[0]));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ColumnarWriter<String[]> writer = new ColumnarWriter<>(output, columns);
+        writer.appendBatch(Arrays.<String[]>asList(new String[]{"MgB2"}, new String[]{"LaH10"}));
+        writer.flush();
+        int endOfFirstBatch = output.size();
+        writer.appendBatch(Arrays.<String[]>asList(new String[]{"YBa2Cu3O7"}));
+        writer.flush();
+
+        // Interrupted while writing the second batch
+        byte[] truncated = Arrays.copyOf(output.toByteArray(), output.size() - 3);
+
+        try (ColumnarReader reader = new ColumnarReader(new ByteArrayInputStream(truncated))) {
+            assertThat(reader.nextBatch().get("material"), is(Arrays.asList("MgB2", "LaH10")));
+            assertThat(reader.nextBatch(), is(nullValue()));
+            assertThat(reader.isTerminated(), is(false));
+        }
+
+        // Interrupted between two batches
+        byte[] atBoundary = Arrays.copyOf(output.toByteArray(), endOfFirstBatch);
+
+        try (ColumnarReader reader = new ColumnarReader(new ByteArrayInputStream(atBoundary))) {
+            assertThat(reader.nextBatch().get("material"), hasSize(2));
+            assertThat(reader.nextBatch(), is(nullValue()));
+            assertThat(reader.isTerminated(), is(false));
+        }
+    }
+
+    private static SuperconEntry entry(String materialClass, String section) {
+        SuperconEntry entry = new SuperconEntry();
+        entry.setMaterialClass(materialClass);
+        entry.setSection(section);
+        return entry;
+    }
+}
@@ -1,10 +1,15 @@
 package org.grobid.core.features;
 
 import org.grobid.core.layout.LayoutToken;
+import org.grobid.core.utilities.TextUtilities;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.grobid.core.engines.SuperconductorsParser.NONE_CHEMSPOT_TYPE;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -43,4 +48,54 @@ public class FeaturesVectorSuperconductorsTest {
 
         assertThat(features.printVector(), is("token1 token1 t to tok toke 1 n1 en1 ken1 NOCAPS CONTAINDIGIT 0 NOPUNCT tokenX xxxd xd SAMEFONT SAMEFONTSIZE true false BASELINE NONE bao"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAppendVector_shouldBeIdenticalToPrintVector() {
+        List<LayoutToken> tokens = new ArrayList<>();
+        for (String text : Arrays.asList("La", "2", "−", "x", "SrxCuO4", "(", "Tc", "=", "39", "K", ")", "MgB2", "superconductivity", ".")) {
+            LayoutToken token = new LayoutToken(text);
+            token.fontSize = text.length() % 3;
+            token.setFont(text.length() % 2 == 0 ? "Arial" : "Times");
+            token.setBold(text.startsWith("S"));
+            token.setSubscript(text.equals("2"));
+            token.setSuperscript(text.equals("−"));
+            tokens.add(token);
+        }
+
+        StringBuilder expected = new StringBuilder();
+        StringBuilder actual = new StringBuilder();
+        // Twice, so that the second pass uses the cached lexical features
+        for (int pass = 0; pass < 2; pass++) {
+            LayoutToken previous = null;
+            for (LayoutToken token : tokens) {
+                expected.append(FeaturesVectorSuperconductors.addFeatures(token, "<other>", previous, NONE_CHEMSPOT_TYPE).printVector()).append("\n");
+                FeaturesVectorSuperconductors.appendVector(actual, token, "<other>", previous, NONE_CHEMSPOT_TYPE);
+                actual.append("\n");
+                previous = token;
+            }
+        }
+
+        assertThat(actual.toString(), is(expected.toString()));
+    }
+
+    @Test
+    public void testPrintVector_prefixesAndSuffixes_shouldMatchTextUtilities() {
+        for (String text : Arrays.asList("a", "ab", "abc", "abcd", "abcdefg")) {
+            String[] features = FeaturesVectorSuperconductors.addFeatures(new LayoutToken(text), null, null, NONE_CHEMSPOT_TYPE)
+                .printVector().split(" ");
+
+            for (int i = 1; i <= 4; i++) {
+                assertThat(features[1 + i], is(TextUtilities.prefix(text, i)));
+                assertThat(features[5 + i], is(TextUtilities.suffix(text, i)));
+            }
+        }
+    }
+
+    @Test
+    public void testAppendVector_blankToken_shouldWriteNothing() {
+        StringBuilder output = new StringBuilder();
+
+        assertThat(FeaturesVectorSuperconductors.appendVector(output, new LayoutToken("\t"), null, null, NONE_CHEMSPOT_TYPE), is(false));
+        assertThat(output.length(), is(0));
+    }
+}
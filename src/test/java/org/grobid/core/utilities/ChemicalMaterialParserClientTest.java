@@ -26,4 +26,4 @@ public class ChemicalMaterialParserClientTest {
         assertThat(chemicalComposition.getComposition().keySet(), hasSize(3));
         assertThat(chemicalComposition.getComposition().get("La"), is("3"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package org.grobid.core.utilities;
+
+import io.dropwizard.util.Size;
+import org.apache.commons.io.FileUtils;
+import org.grobid.service.configuration.UploadConfiguration;
+import org.grobid.service.exceptions.GrobidServiceException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class UploadSpoolerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File memoryDirectory;
+    private File diskDirectory;
+    private UploadConfiguration configuration;
+
+    @Before
+    public void setUp() throws Exception {
+        memoryDirectory = temporaryFolder.newFolder("memory");
+        diskDirectory = temporaryFolder.newFolder("disk");
+
+        configuration = new UploadConfiguration();
+        configuration.setMemoryThreshold(Size.bytes(100));
+        configuration.setMaxSize(Size.bytes(1000));
+        configuration.setMemoryDirectory(memoryDirectory.getAbsolutePath());
+        configuration.setDirectory(diskDirectory.getAbsolutePath());
+    }
+
+    @Test
+    public void testSpool_smallUpload_shouldBeWrittenInTheMemoryDirectory() throws Exception {
+        byte[] content = new byte[50];
+
+        File file = new UploadSpooler(configuration).spool(new ByteArrayInputStream(content));
+
+        assertThat(file.getParentFile(), is(memoryDirectory));
+        assertThat(FileUtils.readFileToByteArray(file), is(content));
+    }
+
+    @Test
+    public void testSpool_bigUpload_shouldBeWrittenOnDisk() throws Exception {
+        byte[] content = new byte[500];
+        content[499] = 1;
+
+        File file = new UploadSpooler(configuration).spool(new ByteArrayInputStream(content));
+
+        assertThat(file.getParentFile(), is(diskDirectory));
+        assertThat(FileUtils.readFileToByteArray(file), is(content));
+    }
+
+    @Test
+    public void testSpool_missingMemoryDirectory_shouldUseTheDisk() throws Exception {
+        configuration.setMemoryDirectory(new File(temporaryFolder.getRoot(), "missing").getAbsolutePath());
+
+        File file = new UploadSpooler(configuration).spool(new ByteArrayInputStream(new byte[50]));
+
+        assertThat(file.getParentFile(), is(diskDirectory));
+    }
+
+    @Test
+    public void testSpool_tooLarge_shouldBeRejected() throws Exception {
+        try {
+            new UploadSpooler(configuration).spool(new ByteArrayInputStream(new byte[1001]));
+            fail();
+        } catch (GrobidServiceException e) {
+            assertThat(e.getResponseCode(), is(Response.Status.REQUEST_ENTITY_TOO_LARGE));
+        }
+
+        assertThat(diskDirectory.list().length, is(0));
+        assertThat(memoryDirectory.list().length, is(0));
+    }
+}
@@ -0,0 +1,121 @@
+package org.grobid.core.utilities.client;
+
+import org.grobid.service.configuration.BulkRequestsConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ChunkedBulkRequestTest {
+
+    private BulkRequestsConfiguration configuration;
+
+    @Before
+    public void setUp() throws Exception {
+        configuration = new BulkRequestsConfiguration();
+        configuration.setMaxPassages(3);
+        configuration.setMaxCharacters(10);
+        configuration.setMaxConcurrentChunks(2);
+        configuration.setMaxRetries(1);
+    }
+
+    @Test
+    public void testSplit_byCount() throws Exception {
+        List<int[]> chunks = ChunkedBulkRequest.split(Arrays.asList("a", "b", "c", "d", "e", "f", "g"), 3, 100);
+
+        assertThat(chunks.size(), is(3));
+        assertThat(Arrays.toString(chunks.get(0)), is("[0, 3]"));
+        assertThat(Arrays.toString(chunks.get(1)), is("[3, 6]"));
+        assertThat(Arrays.toString(chunks.get(2)), is("[6, 7]"));
+    }
+
+    @Test
+    public void testSplit_byCharacters_longInputAlone() throws Exception {
+        List<int[]> chunks = ChunkedBulkRequest.split(Arrays.asList("aaaa", "bbbb", "cccccccccccc", "dd", "ee"), 10, 10);
+
+        assertThat(chunks.size(), is(3));
+        assertThat(Arrays.toString(chunks.get(0)), is("[0, 2]"));
+        assertThat(Arrays.toString(chunks.get(1)), is("[2, 3]"));
+        assertThat(Arrays.toString(chunks.get(2)), is("[3, 5]"));
+    }
+
+    @Test
+    public void testSplit_empty() throws Exception {
+        assertThat(ChunkedBulkRequest.split(new ArrayList<>(), 3, 10).size(), is(0));
+    }
+
+    @Test
+    public void testExecute_shouldReassembleInOrder() throws Exception {
+        List<String> inputs = IntStream.range(0, 10).mapToObj(String::valueOf).collect(Collectors.toList());
+
+        List<String> results = ChunkedBulkRequest.<String>execute(inputs, configuration,
+            chunk -> CompletableFuture.supplyAsync(() -> chunk.stream().map(i -> "r" + i).collect(Collectors.toList())),
+            () -> "fallback").join();
+
+        assertThat(results, is(inputs.stream().map(i -> "r" + i).collect(Collectors.toList())));
+    }
+
+    @Test
+    public void testExecute_failedChunk_shouldBeRetriedAlone() throws Exception {
+        List<String> inputs = Arrays.asList("a", "b", "c", "d", "e");
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        List<String> results = ChunkedBulkRequest.<String>execute(inputs, configuration, chunk -> {
+            calls.incrementAndGet();
+            if (chunk.contains("d") && failures.getAndIncrement() == 0) {
+                return failed(new IOException("Not OK answer"));
+            }
+            return CompletableFuture.completedFuture(new ArrayList<>(chunk));
+        }, () -> "fallback").join();
+
+        assertThat(results, is(inputs));
+        assertThat(calls.get(), is(3));
+    }
+
+    @Test
+    public void testExecute_retriesExhausted_shouldUseTheFallbackForTheChunk() throws Exception {
+        List<String> inputs = Arrays.asList("a", "b", "c", "d", "e");
+
+        List<String> results = ChunkedBulkRequest.<String>execute(inputs, configuration, chunk -> {
+            if (chunk.contains("d")) {
+                return CompletableFuture.completedFuture(Collections.singletonList("wrong size"));
+            }
+            return CompletableFuture.completedFuture(new ArrayList<>(chunk));
+        }, () -> "fallback").join();
+
+        assertThat(results, is(Arrays.asList("a", "b", "c", "fallback", "fallback")));
+    }
+
+    @Test
+    public void testExecute_unreachable_shouldNotRetry() throws Exception {
+        List<String> inputs = Arrays.asList("a", "b");
+        AtomicInteger calls = new AtomicInteger();
+
+        List<String> results = ChunkedBulkRequest.<String>execute(inputs, configuration, chunk -> {
+            calls.incrementAndGet();
+            return failed(new ConnectException("Connection refused"));
+        }, () -> "fallback").join();
+
+        assertThat(results, is(Arrays.asList("fallback", "fallback")));
+        assertThat(calls.get(), is(1));
+    }
+
+    private static CompletableFuture<List<String>> failed(Throwable throwable) {
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+}
@@ -0,0 +1,109 @@
+package org.grobid.core.utilities.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.Duration;
+import org.grobid.service.configuration.CircuitBreakerConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CircuitBreakerTest {
+
+    private AtomicLong clock;
+    private MetricRegistry metricRegistry;
+    private CircuitBreaker target;
+
+    @Before
+    public void setUp() throws Exception {
+        CircuitBreakerConfiguration configuration = new CircuitBreakerConfiguration();
+        configuration.setFailureThreshold(3);
+        configuration.setOpenDuration(Duration.seconds(30));
+
+        clock = new AtomicLong();
+        metricRegistry = new MetricRegistry();
+        target = new CircuitBreaker("test", configuration, metricRegistry, clock::get);
+    }
+
+    @Test
+    public void testConsecutiveFailures_shouldOpen() throws Exception {
+        target.recordFailure();
+        target.recordFailure();
+        assertThat(target.getState(), is(CircuitBreaker.State.CLOSED));
+
+        target.recordFailure();
+        assertThat(target.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(target.allowRequest(), is(false));
+        assertThat(target.getRejectedCalls(), is(1L));
+    }
+
+    @Test
+    public void testSuccess_shouldResetTheFailures() throws Exception {
+        target.recordFailure();
+        target.recordFailure();
+        target.recordSuccess();
+        target.recordFailure();
+
+        assertThat(target.getState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(target.allowRequest(), is(true));
+    }
+
+    @Test
+    public void testOpenDurationElapsed_shouldLetASingleTrialThrough() throws Exception {
+        openTheBreaker();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThat(target.allowRequest(), is(true));
+        assertThat(target.getState(), is(CircuitBreaker.State.HALF_OPEN));
+        assertThat(target.allowRequest(), is(false));
+
+        target.recordSuccess();
+        assertThat(target.getState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(target.allowRequest(), is(true));
+    }
+
+    @Test
+    public void testFailedTrial_shouldOpenAgain() throws Exception {
+        openTheBreaker();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThat(target.allowRequest(), is(true));
+        target.recordFailure();
+
+        assertThat(target.getState(), is(CircuitBreaker.State.OPEN));
+        assertThat(target.allowRequest(), is(false));
+    }
+
+    @Test
+    public void testDisabled_shouldNeverOpen() throws Exception {
+        CircuitBreakerConfiguration configuration = new CircuitBreakerConfiguration();
+        configuration.setEnabled(false);
+        target = new CircuitBreaker("disabled", configuration, metricRegistry, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            target.recordFailure();
+        }
+
+        assertThat(target.getState(), is(CircuitBreaker.State.CLOSED));
+        assertThat(target.allowRequest(), is(true));
+    }
+
+    @Test
+    public void testStateGauge() throws Exception {
+        openTheBreaker();
+
+        Gauge gauge = metricRegistry.getGauges().get("test.circuit-breaker.state");
+        assertThat(gauge.getValue(), is("OPEN"));
+    }
+
+    private void openTheBreaker() {
+        for (int i = 0; i < 3; i++) {
+            target.recordFailure();
+        }
+    }
+}
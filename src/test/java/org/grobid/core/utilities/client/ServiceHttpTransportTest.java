@@ -0,0 +1,54 @@
+package org.grobid.core.utilities.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ServiceHttpTransportTest {
+
+    private GrobidSuperconductorsConfiguration configuration;
+    private MetricRegistry metricRegistry;
+    private ServiceHttpTransport target;
+
+    @Before
+    public void setUp() throws Exception {
+        configuration = new GrobidSuperconductorsConfiguration();
+        metricRegistry = new MetricRegistry();
+        target = new ServiceHttpTransport(configuration, metricRegistry);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        target.stop();
+    }
+
+    @Test
+    public void testAsyncHttpClient_shouldRegisterThePoolGauges() throws Exception {
+        target.getAsyncHttpClient(ServiceHttpTransport.CHEM_DATA_EXTRACTOR);
+
+        Gauge maxConnections = metricRegistry.getGauges()
+            .get("org.apache.http.nio.conn.NHttpClientConnectionManager.chemDataExtractor.max-connections");
+        Gauge leasedConnections = metricRegistry.getGauges()
+            .get("org.apache.http.nio.conn.NHttpClientConnectionManager.chemDataExtractor.leased-connections");
+
+        assertThat(maxConnections.getValue(), is(configuration.getHttpClient(ServiceHttpTransport.CHEM_DATA_EXTRACTOR).getMaxConnections()));
+        assertThat(leasedConnections.getValue(), is(0));
+    }
+
+    @Test
+    public void testStop_shouldCloseTheAsyncClients() throws Exception {
+        CloseableHttpAsyncClient client = target.getAsyncHttpClient(ServiceHttpTransport.STRUCTURE_IDENTIFICATION);
+        assertThat(client.isRunning(), is(true));
+
+        target.stop();
+
+        assertThat(client.isRunning(), is(false));
+    }
+}
@@ -0,0 +1,126 @@
+package org.grobid.core.utilities.client;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.grobid.core.data.material.ChemicalComposition;
+import org.grobid.service.configuration.CacheConfiguration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ServiceResponseCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MetricRegistry metricRegistry;
+    private ServiceResponseCache<ChemicalComposition> target;
+
+    @Before
+    public void setUp() throws Exception {
+        metricRegistry = new MetricRegistry();
+        target = new ServiceResponseCache<>("test", new CacheConfiguration(), metricRegistry,
+            new TypeReference<Map<String, ChemicalComposition>>() {
+            });
+    }
+
+    @Test
+    public void testGet_normalisedInput_shouldHitTheCache() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        target.get("MgB2", i -> {
+            calls.incrementAndGet();
+            return composition("MgB2");
+        });
+        ChemicalComposition cached = target.get("  MgB2 ", i -> {
+            calls.incrementAndGet();
+            return composition("MgB2");
+        });
+
+        assertThat(calls.get(), is(1));
+        assertThat(cached.getFormula(), is("MgB2"));
+        assertThat(gauge("hits"), is(1L));
+        assertThat(gauge("misses"), is(1L));
+    }
+
+    @Test
+    public void testGet_failedLoad_shouldNotBeCached() throws Exception {
+        assertThat(target.get("MgB2", i -> null), is(nullValue()));
+        assertThat(target.size(), is(0L));
+    }
+
+    @Test
+    public void testGet_maximumSize_shouldEvict() throws Exception {
+        CacheConfiguration configuration = new CacheConfiguration();
+        configuration.setMaximumSize(1);
+        ServiceResponseCache<ChemicalComposition> smallCache = new ServiceResponseCache<>("small", configuration, metricRegistry,
+            new TypeReference<Map<String, ChemicalComposition>>() {
+            });
+
+        smallCache.put("MgB2", composition("MgB2"));
+        smallCache.put("LaH10", composition("LaH10"));
+
+        assertThat(smallCache.size(), is(1L));
+        assertThat(metricRegistry.getGauges().get(MetricRegistry.name(ServiceResponseCache.class, "small", "evictions")).getValue(), is(1L));
+    }
+
+    @Test
+    public void testGet_disabled_shouldAlwaysLoad() throws Exception {
+        CacheConfiguration configuration = new CacheConfiguration();
+        configuration.setEnabled(false);
+        ServiceResponseCache<ChemicalComposition> disabledCache = new ServiceResponseCache<>("disabled", configuration, metricRegistry,
+            new TypeReference<Map<String, ChemicalComposition>>() {
+            });
+        AtomicInteger calls = new AtomicInteger();
+
+        disabledCache.get("MgB2", i -> {
+            calls.incrementAndGet();
+            return composition("MgB2");
+        });
+        disabledCache.get("MgB2", i -> {
+            calls.incrementAndGet();
+            return composition("MgB2");
+        });
+
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void testSnapshot_shouldRestoreTheEntries() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        target.put("MgB2", composition("MgB2"));
+        target.put("LaH10", composition("LaH10"));
+
+        target.writeSnapshot(directory);
+
+        ServiceResponseCache<ChemicalComposition> restored = new ServiceResponseCache<>("test", new CacheConfiguration(), new MetricRegistry(),
+            new TypeReference<Map<String, ChemicalComposition>>() {
+            });
+        restored.loadSnapshot(directory);
+
+        assertThat(restored.size(), is(2L));
+        assertThat(restored.getAllPresent(Arrays.asList("LaH10", "YBa2Cu3O7")).keySet(), hasItem("LaH10"));
+        assertThat(restored.getIfPresent("MgB2").getFormula(), is("MgB2"));
+    }
+
+    private Object gauge(String name) {
+        Gauge gauge = metricRegistry.getGauges().get(MetricRegistry.name(ServiceResponseCache.class, "test", name));
+        return gauge.getValue();
+    }
+
+    private static ChemicalComposition composition(String formula) {
+        ChemicalComposition chemicalComposition = new ChemicalComposition();
+        chemicalComposition.setFormula(formula);
+        return chemicalComposition;
+    }
+}
@@ -1,16 +1,26 @@
 package org.grobid.service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.squarespace.jersey2.guice.JerseyGuiceUtils;
 import io.dropwizard.testing.junit.ResourceTestRule;
 import org.glassfish.jersey.media.multipart.FormDataMultiPart;
 import org.glassfish.jersey.media.multipart.MultiPart;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
+import org.grobid.core.data.document.TextPassage;
+import org.grobid.core.engines.DocumentListener;
+import org.grobid.core.engines.ModuleEngine;
+import org.grobid.core.engines.ResponseProfile;
 import org.junit.ClassRule;
 import org.junit.Test;
 
 import javax.ws.rs.client.Entity;
+import java.util.HashMap;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+import static org.easymock.EasyMock.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
 
 public class AnnotationControllerTest {
 
@@ -18,9 +28,11 @@ public class AnnotationControllerTest {
         JerseyGuiceUtils.install((s, serviceLocator) -> null);
     }
 
+    private static final ModuleEngine mockModuleEngine = createMock(ModuleEngine.class);
+
     @ClassRule
     public static final ResourceTestRule RULE = ResourceTestRule.builder()
-        .addResource(new AnnotationController(null, null))
+        .addResource(new AnnotationController(null, mockModuleEngine, new ObjectMapper()))
         .addProvider(MultiPartFeature.class)
         .build();
 
@@ -38,4 +50,35 @@ public class AnnotationControllerTest {
         System.out.println(s);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testProcessTextNdjson_shouldWriteOneLinePerPart() {
+        reset(mockModuleEngine);
+        mockModuleEngine.process(eq("MgB2 is a superconductor."), eq(false), eq(ResponseProfile.FULL), isNull(), anyObject(DocumentListener.class));
+        expectLastCall().andAnswer(() -> {
+            DocumentListener listener = (DocumentListener) getCurrentArguments()[4];
+            TextPassage passage = new TextPassage();
+            passage.setText("MgB2 is a superconductor.");
+            listener.onPassage(passage);
+            listener.onPassage(new TextPassage());
+            listener.onAggregatedMaterials(new HashMap<>());
+            return null;
+        });
+        replay(mockModuleEngine);
+
+        final MultiPart multiPartEntity = new FormDataMultiPart()
+            .field("text", "MgB2 is a superconductor.");
+
+        String response = RULE.client().target("/process/text")
+            .register(MultiPartFeature.class).request(AnnotationController.APPLICATION_NDJSON)
+            .post(Entity.entity(multiPartEntity, multiPartEntity.getMediaType()))
+            .readEntity(String.class);
+
+        String[] lines = response.split("\n");
+        assertThat(lines.length, is(3));
+        assertThat(lines[0], startsWith("{\"passage\":{\"text\":\"MgB2 is a superconductor.\""));
+        assertThat(lines[1], startsWith("{\"passage\":"));
+        assertThat(lines[2], is("{\"aggregatedMaterials\":{}}"));
+        verify(mockModuleEngine);
+    }
+
+}
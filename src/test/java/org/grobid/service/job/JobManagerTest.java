@@ -0,0 +1,157 @@
+package org.grobid.service.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.util.Duration;
+import io.dropwizard.util.Size;
+import org.apache.commons.io.FileUtils;
+import org.grobid.core.data.document.DocumentResponse;
+import org.grobid.core.engines.ModuleEngine;
+import org.grobid.service.configuration.GrobidSuperconductorsConfiguration;
+import org.grobid.service.exceptions.GrobidServiceException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.easymock.EasyMock.*;
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class JobManagerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private GrobidSuperconductorsConfiguration configuration;
+    private ModuleEngine mockModuleEngine;
+    private JobManager target;
+
+    @Before
+    public void setUp() throws Exception {
+        configuration = new GrobidSuperconductorsConfiguration();
+        configuration.getJobs().setWorkers(1);
+        configuration.getJobs().setDirectory(temporaryFolder.getRoot().getAbsolutePath());
+
+        mockModuleEngine = createMock(ModuleEngine.class);
+        expect(mockModuleEngine.process(anyObject(File.class), eq(false), isNull())).andReturn(new DocumentResponse()).anyTimes();
+        replay(mockModuleEngine);
+
+        target = new JobManager(configuration, mockModuleEngine);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        target.stop();
+    }
+
+    @Test
+    public void testSubmit_shouldProcessAndStoreTheResult() throws Exception {
+        target.start();
+
+        Job job = target.submit(pdf(), "paper.pdf", false);
+
+        assertThat(job, is(notNullValue()));
+        waitForCompletion(job.getId());
+
+        assertThat(target.getJob(job.getId()).getStatus(), is(JobStatus.DONE));
+        assertThat(target.getResult(job.getId()).exists(), is(true));
+        assertThat(new File(temporaryFolder.getRoot(), job.getId() + ".pdf").exists(), is(false));
+    }
+
+    @Test
+    public void testSubmit_tooLarge_shouldBeRejected() throws Exception {
+        configuration.getUpload().setMaxSize(Size.bytes(4));
+        target = new JobManager(configuration, mockModuleEngine);
+        target.start();
+
+        try {
+            target.submit(pdf(), "paper.pdf", false);
+            fail();
+        } catch (GrobidServiceException e) {
+            assertThat(e.getResponseCode(), is(Response.Status.REQUEST_ENTITY_TOO_LARGE));
+        }
+
+        assertThat(temporaryFolder.getRoot().list(), is(new String[0]));
+    }
+
+    @Test
+    public void testStart_queuedJobOnDisk_shouldBeRecovered() throws Exception {
+        Job queued = new Job("recovered-job", "paper.pdf", false);
+        queued.setStatus(JobStatus.RUNNING);
+        new ObjectMapper().writeValue(new File(temporaryFolder.getRoot(), "recovered-job.json"), queued);
+        FileUtils.writeStringToFile(new File(temporaryFolder.getRoot(), "recovered-job.pdf"), "%PDF-1.4", StandardCharsets.UTF_8);
+
+        target.start();
+        waitForCompletion("recovered-job");
+
+        assertThat(target.getJob("recovered-job").getStatus(), is(JobStatus.DONE));
+        assertThat(target.getResult("recovered-job"), is(notNullValue()));
+    }
+
+    @Test
+    public void testRun_interrupted_shouldStayOnDiskForRecovery() throws Exception {
+        ModuleEngine interruptedModuleEngine = createMock(ModuleEngine.class);
+        expect(interruptedModuleEngine.process(anyObject(File.class), eq(false), isNull())).andAnswer(() -> {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted");
+        });
+        replay(interruptedModuleEngine);
+        target = new JobManager(configuration, interruptedModuleEngine);
+        target.start();
+
+        Job job = new Job("interrupted-job", "paper.pdf", false);
+        FileUtils.writeStringToFile(new File(temporaryFolder.getRoot(), "interrupted-job.pdf"), "%PDF-1.4", StandardCharsets.UTF_8);
+        try {
+            target.run(job);
+        } finally {
+            Thread.interrupted();
+        }
+
+        Job stored = new ObjectMapper().readValue(new File(temporaryFolder.getRoot(), "interrupted-job.json"), Job.class);
+        assertThat(stored.getStatus(), is(JobStatus.RUNNING));
+        assertThat(new File(temporaryFolder.getRoot(), "interrupted-job.pdf").exists(), is(true));
+    }
+
+    @Test
+    public void testStart_queuedJobWithoutInput_shouldFail() throws Exception {
+        Job queued = new Job("missing-input", "paper.pdf", false);
+        new ObjectMapper().writeValue(new File(temporaryFolder.getRoot(), "missing-input.json"), queued);
+
+        target.start();
+
+        assertThat(target.getJob("missing-input").getStatus(), is(JobStatus.FAILED));
+        assertThat(target.getResult("missing-input"), is(nullValue()));
+    }
+
+    @Test
+    public void testRemoveExpiredJobs_shouldDeleteFinishedJobs() throws Exception {
+        configuration.getJobs().setTimeToLive(Duration.milliseconds(0));
+        target.start();
+
+        Job job = target.submit(pdf(), "paper.pdf", false);
+        waitForCompletion(job.getId());
+        Thread.sleep(5);
+        target.removeExpiredJobs();
+
+        assertThat(target.getJob(job.getId()), is(nullValue()));
+        assertThat(temporaryFolder.getRoot().list().length, is(0));
+    }
+
+    private static InputStream pdf() {
+        return new ByteArrayInputStream("%PDF-1.4".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void waitForCompletion(String id) throws InterruptedException {
+        for (int i = 0; i < 500 && !target.getJob(id).isFinished(); i++) {
+            Thread.sleep(10);
+        }
+    }
+}